@@ -10,6 +10,10 @@ create table menu (
 );
 
 create sequence seq_menu_id;
+-- 목록 keyset 페이지네이션용 (type, taste 필터 + id 순 탐색)
+create index ix_menu_type_taste_id on menu (type, taste, id);
+-- 가격 정렬 keyset 페이지네이션용 (price, -price 정렬 + 같은 가격은 id 순)
+create index ix_menu_price_id on menu (price, id);
 
 
 insert into menu (id,restaurant,name,price,type,taste) values (seq_menu_id.nextval,'두리순대국','순대국',7000,'kr','mild');
@@ -39,6 +43,56 @@ select
 from 
     menu;
 
+-- 조건부 GET(ETag)용 버전 정보
+-- 행 버전 : 등록/수정 시마다 seq_menu_version 값으로 갱신
+alter table menu add version number default 0 not null;
+create sequence seq_menu_version;
+-- 테이블 버전 : MENU에 어떤 변경이든 생기면 1 증가 (삭제 포함)
+--  - 목록 ETag는 이 값 대신 마지막으로 커밋된 행 버전(menu-mapper의 selectTableVersion)을 쓴다.
+--    스냅샷/인덱스가 반영한 변경분의 버전과 같은 값이므로 서버, 재시작, 조회 방식과 무관하게 ETag가 같다.
+--  - 의도된 쓰기 처리량 상한 : MENU를 변경하는 모든 문장이 menu_version의 한 행을 갱신하고
+--    커밋까지 행 잠금을 유지하므로, MENU 쓰기 트랜잭션은 동시에 하나씩만 진행된다.
+--    메뉴는 읽기 위주이고 쓰기는 관리자 작업뿐이라 허용한다. 목록 ETag 비교가 행 하나 조회로 끝나는 대가.
+--  - 쓰기가 늘어서 대기가 문제가 되면 max(version) + 삭제 건수로 계산하는 방식으로 바꾼다.
+create table menu_version (
+    id number primary key check (id = 1),
+    version number not null
+);
+insert into menu_version values (1, 0);
+--  - 문장 실행 전(before)에 갱신한다. menu_version 행 잠금을 행 버전(seq_menu_version) 발급보다 먼저 잡고
+--    커밋까지 유지하므로, 행 버전이 커밋 순서대로 발급된다. (나중에 커밋된 변경이 더 작은 버전을 갖지 않음)
+--    따라서 변경분 동기화에서 클라이언트가 받은 마지막 버전 이후만 조회해도 누락되는 변경이 없다.
+--  - RAC 환경이면 seq_menu_version을 ORDER 옵션으로 생성해야 한다.
+create or replace trigger trg_menu_version
+before insert or update or delete on menu
+begin
+    update menu_version set version = version + 1 where id = 1;
+end;
+/
+commit;
+
+-- 변경분 동기화(GET /menus/changes)용
+-- 삭제된 메뉴 기록 (행 버전과 같은 seq_menu_version 값 사용)
+--  - deleted_at : 보관 기간(menu.tombstone.retention-days)이 지난 기록은 주기적으로 정리한다.
+create table menu_tombstone (
+    id number primary key,
+    version number not null,
+    deleted_at date default sysdate not null
+);
+create index ix_menu_tombstone_version on menu_tombstone (version);
+create index ix_menu_version on menu (version);
+create or replace trigger trg_menu_tombstone
+after delete on menu
+for each row
+begin
+    insert into menu_tombstone (id, version) values (:old.id, seq_menu_version.nextval);
+end;
+/
+-- 보관 기간이 지나 정리된 삭제 기록의 최대 버전
+--  - since가 이 값보다 작은 변경분 요청은 삭제 누락이 생길 수 있으므로 전체 재동기화(410)를 요구한다.
+alter table menu_version add pruned_version number default 0 not null;
+commit;
+
 -- #1. JWT토큰을 활용한 로그인
 -- 유저 공통정보
 CREATE TABLE USERS (
@@ -2,6 +2,7 @@ package com.kh.menu;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /*
  * @SpringBootApplication 내부 어노테이션들
@@ -12,8 +13,12 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  *  - 자동설정 활성화 어노테이션. ioc 컨테이너 생성, 의존성 주입 등
  * 3. Component-Scan
  *  - 현재 실행된 클래스를 기준으로 하위 패키지의 모든 클래스를 검사하여 빈객체로 등록해주는 어노테이션
+ * 
+ * @EnableScheduling
+ *  - @Scheduled 메서드 실행 활성화 (메뉴 스냅샷 재조정 등 주기 작업)
  */
 @SpringBootApplication
+@EnableScheduling
 public class MenuApplication {
 
 	public static void main(String[] args) {
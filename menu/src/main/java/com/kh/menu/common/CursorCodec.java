@@ -0,0 +1,83 @@
+package com.kh.menu.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/*
+ * 페이지네이션 커서 인코더
+ *  - 마지막으로 반환한 행의 정렬키(id 등)를 Base64URL 문자열로 감싸서 클라이언트에게 전달한다.
+ *  - 클라이언트는 커서 내부 구조를 알 필요 없이 다음 요청에 그대로 넘겨주기만 하면 된다. (opaque)
+ */
+public final class CursorCodec {
+	private static final String PREFIX = "c1:";
+	private static final String TEXT_PREFIX = "c1s:"; // 문자열 정렬키 (식당명 등)
+
+	private CursorCodec() {
+	}
+
+	public static String encode(long... keys) {
+		StringBuilder sb = new StringBuilder(PREFIX);
+		for (int i = 0; i < keys.length; i++) {
+			if (i > 0) {
+				sb.append(':');
+			}
+			sb.append(keys[i]);
+		}
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @throws IllegalArgumentException 형식이 잘못된 커서
+	 */
+	public static long[] decode(String cursor, int expectedKeys) {
+		String raw;
+		try {
+			raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("잘못된 커서입니다.", e);
+		}
+		if (!raw.startsWith(PREFIX)) {
+			throw new IllegalArgumentException("잘못된 커서입니다.");
+		}
+		// limit -1 : 끝의 빈 값도 나눠서 "c1:5:" 같은 커서를 키 개수로 거절한다
+		String[] parts = raw.substring(PREFIX.length()).split(":", -1);
+		if (parts.length != expectedKeys) {
+			throw new IllegalArgumentException("잘못된 커서입니다.");
+		}
+		long[] keys = new long[parts.length];
+		try {
+			for (int i = 0; i < parts.length; i++) {
+				keys[i] = Long.parseLong(parts[i]);
+				// encode가 만든 형식만 허용 ("+5", "05" 등은 거절)
+				if (!Long.toString(keys[i]).equals(parts[i])) {
+					throw new IllegalArgumentException("잘못된 커서입니다.");
+				}
+			}
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("잘못된 커서입니다.", e);
+		}
+		return keys;
+	}
+
+	public static String encodeText(String key) {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((TEXT_PREFIX + key).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @throws IllegalArgumentException 형식이 잘못된 커서
+	 */
+	public static String decodeText(String cursor) {
+		String raw;
+		try {
+			raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("잘못된 커서입니다.", e);
+		}
+		if (!raw.startsWith(TEXT_PREFIX)) {
+			throw new IllegalArgumentException("잘못된 커서입니다.");
+		}
+		return raw.substring(TEXT_PREFIX.length());
+	}
+}
@@ -0,0 +1,100 @@
+package com.kh.menu.common.bloom;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * 문자열 Bloom filter
+ *  - 키를 저장하지 않고 고정 크기 비트 배열에 hashes개 비트를 켜서 기록한다.
+ *  - mightContain이 false이면 기록된 적 없는 키가 확실하고, true이면 fpp 확률로 기록되지 않은 키일 수 있다.
+ *  - 비트 크기와 해시 수는 예상 건수와 목표 오탐률로 정한다. (m = -n ln p / (ln 2)^2, k = m / n ln 2)
+ *  - 비트는 AtomicLongArray 한 칸씩 CAS로 켜므로 락이 없다. 제거는 지원하지 않는다.
+ */
+public class BloomFilter {
+	private final AtomicLongArray words;
+	private final long bitSize;
+	private final int hashes;
+	private final AtomicLong insertions = new AtomicLong();
+
+	public BloomFilter(long expectedInsertions, double fpp) {
+		if (expectedInsertions <= 0 || fpp <= 0 || fpp >= 1) {
+			throw new IllegalArgumentException("expectedInsertions는 양수, fpp는 0과 1 사이여야 합니다.");
+		}
+		long bits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+		int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+		this.words = new AtomicLongArray(wordCount);
+		this.bitSize = wordCount * 64L;
+		this.hashes = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+	}
+
+	public void put(String key) {
+		long h1 = hash(key);
+		long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+		for (int i = 0; i < hashes; i++) {
+			long bit = Math.floorMod(h1 + i * h2, bitSize);
+			int word = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long old;
+			do {
+				old = words.get(word);
+				if ((old & mask) != 0) {
+					break;
+				}
+			} while (!words.compareAndSet(word, old, old | mask));
+		}
+		insertions.incrementAndGet();
+	}
+
+	public boolean mightContain(String key) {
+		long h1 = hash(key);
+		long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+		for (int i = 0; i < hashes; i++) {
+			long bit = Math.floorMod(h1 + i * h2, bitSize);
+			if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public long getBitSize() {
+		return bitSize;
+	}
+
+	public int getHashes() {
+		return hashes;
+	}
+
+	// put 호출 수 (같은 키를 여러 번 기록하면 중복해서 센다)
+	public long getInsertions() {
+		return insertions.get();
+	}
+
+	// 켜진 비트 비율로 추정한 현재 오탐률 ((켜진 비트 / 전체 비트) ^ hashes)
+	public double expectedFpp() {
+		long set = 0;
+		for (int i = 0; i < words.length(); i++) {
+			set += Long.bitCount(words.get(i));
+		}
+		return Math.pow((double) set / bitSize, hashes);
+	}
+
+	// FNV-1a 64 + murmur3 finalizer
+	private static long hash(String key) {
+		long h = 0xCBF29CE484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			h ^= key.charAt(i);
+			h *= 0x100000001B3L;
+		}
+		return mix(h);
+	}
+
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -0,0 +1,29 @@
+package com.kh.menu.common.bloom;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/*
+ * Bloom filter 모니터링용 스냅샷
+ *  - negatives : 필터에서 바로 걸러진 조회 수 (DB 조회 없음)
+ *  - falsePositives : 필터는 통과했지만 DB에 없던 조회 수
+ *  - falsePositiveRate가 expectedFpp보다 계속 높으면 예상 건수(expected-insertions)를 늘린다.
+ */
+@Data
+@AllArgsConstructor
+public class BloomFilterStats {
+	private boolean loaded; // false이면 적재 전이라 모든 조회를 DB로 보낸다
+	private long bitSize;
+	private int hashes;
+	private long insertions;
+	private double expectedFpp;
+	private long positives;
+	private long negatives;
+	private long falsePositives;
+
+	// 실제로 없던 키 중 필터를 통과한 비율
+	public double getFalsePositiveRate() {
+		long total = negatives + falsePositives;
+		return total == 0 ? 0.0 : (double) falsePositives / total;
+	}
+}
@@ -0,0 +1,136 @@
+package com.kh.menu.common.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/*
+ * 크기 제한 + TTL 인메모리 캐시
+ *  - LinkedHashMap(accessOrder=true)로 LRU 순서를 유지하고, maxSize를 넘으면 가장 오래 안쓴 항목부터 제거한다.
+ *  - 항목마다 만료시각을 저장해두고 조회 시점에 만료 여부를 확인한다.
+ *  - 무효화(invalidate)가 일어날 때마다 generation을 올려서, 무효화 이전에 DB에서 읽어온 값이
+ *    무효화 이후에 캐시에 다시 들어가는 것(stale put)을 막는다.
+ *  - hit/miss/eviction 카운터는 LongAdder로 관리 (락 밖에서도 경합 없이 증가)
+ */
+public class BoundedCache<K, V> {
+	private final int maxSize;
+	private final long ttlMillis;
+	private final LinkedHashMap<K, Entry<V>> map;
+	private long generation;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+
+	public BoundedCache(int maxSize, long ttlMillis) {
+		if (maxSize <= 0 || ttlMillis <= 0) {
+			throw new IllegalArgumentException("maxSize, ttlMillis는 양수여야 합니다.");
+		}
+		this.maxSize = maxSize;
+		this.ttlMillis = ttlMillis;
+		this.map = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+				if (size() > BoundedCache.this.maxSize) {
+					evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	public V get(K key) {
+		long now = System.currentTimeMillis();
+		synchronized (this) {
+			Entry<V> entry = map.get(key);
+			if (entry != null) {
+				if (entry.expiresAt > now) {
+					hits.increment();
+					return entry.value;
+				}
+				map.remove(key);
+				expirations.increment();
+			}
+		}
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * hit/miss 통계에 넣지 않는 조회 (ETag 비교처럼 값을 내려주지 않는 확인용)
+	 *  - 만료된 항목은 null로 보고, 제거는 get()에 맡긴다.
+	 */
+	public V peek(K key) {
+		long now = System.currentTimeMillis();
+		synchronized (this) {
+			Entry<V> entry = map.get(key);
+			return entry != null && entry.expiresAt > now ? entry.value : null;
+		}
+	}
+
+	/**
+	 * 현재 generation 값. DB 조회 전에 읽어두었다가 put(key, value, generation)에 넘긴다.
+	 */
+	public synchronized long generation() {
+		return generation;
+	}
+
+	public synchronized void put(K key, V value) {
+		map.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+	}
+
+	/**
+	 * 조회 시작 이후 무효화가 없었던 경우에만 저장한다.
+	 * @return 저장되었으면 true
+	 */
+	public synchronized boolean put(K key, V value, long expectedGeneration) {
+		if (generation != expectedGeneration) {
+			return false;
+		}
+		put(key, value);
+		return true;
+	}
+
+	public synchronized void invalidate(K key) {
+		generation++;
+		map.remove(key);
+	}
+
+	public synchronized void invalidateIf(Predicate<? super K> condition) {
+		generation++;
+		Iterator<K> it = map.keySet().iterator();
+		while (it.hasNext()) {
+			if (condition.test(it.next())) {
+				it.remove();
+			}
+		}
+	}
+
+	public synchronized void invalidateAll() {
+		generation++;
+		map.clear();
+	}
+
+	public CacheStats stats() {
+		int size;
+		synchronized (this) {
+			size = map.size();
+		}
+		return new CacheStats(size, maxSize, ttlMillis,
+				hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+	}
+
+	private static class Entry<V> {
+		private final V value;
+		private final long expiresAt;
+
+		private Entry(V value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
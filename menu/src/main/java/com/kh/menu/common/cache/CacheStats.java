@@ -0,0 +1,22 @@
+package com.kh.menu.common.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// 캐시 모니터링용 스냅샷 (튜닝 시 hitRate, evictions를 보고 maxSize/ttl 조정)
+@Data
+@AllArgsConstructor
+public class CacheStats {
+	private int size;
+	private int maxSize;
+	private long ttlMillis;
+	private long hits;
+	private long misses;
+	private long evictions; // 용량 초과로 제거된 수
+	private long expirations; // TTL 만료로 제거된 수
+
+	public double getHitRate() {
+		long total = hits + misses;
+		return total == 0 ? 0.0 : (double) hits / total;
+	}
+}
@@ -0,0 +1,76 @@
+package com.kh.menu.common.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * 동시 조회 합치기 (single flight)
+ *  - 같은 키의 조회가 동시에 여러 건 들어오면 첫 요청만 loader(DB 조회)를 실행하고,
+ *    나머지 요청은 새로 조회하지 않고 그 결과를 기다렸다가 같이 받는다.
+ *  - 캐시 무효화 직후나 서버 시작 직후처럼 캐시가 비어 있을 때 같은 쿼리가 한꺼번에 DB로 몰리는 것을 막는다.
+ *  - 결과는 보관하지 않는다. 조회가 끝나면 바로 제거되므로 이후 요청은 캐시 또는 새 조회를 사용한다.
+ *  - generation : 캐시의 generation을 전달한다. 같은 generation에 시작된 조회만 공유하므로
+ *    무효화 이후에 들어온 요청이 무효화 이전에 시작된 조회 결과를 받지 않는다.
+ */
+public class SingleFlight<K, V> {
+	private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+
+	private final LongAdder loads = new LongAdder();
+	private final LongAdder shared = new LongAdder();
+
+	/**
+	 * 같은 키, 같은 generation의 조회가 진행 중이면 그 결과를, 없으면 loader를 실행한 결과를 반환
+	 *  - loader에서 발생한 예외는 기다리던 요청에도 그대로 전달된다.
+	 */
+	public V execute(K key, long generation, Supplier<V> loader) {
+		Flight<V> mine = new Flight<>(generation);
+		Flight<V> current = inFlight.compute(key,
+				(k, running) -> running != null && running.generation == generation ? running : mine);
+		if (current != mine) {
+			shared.increment();
+			return current.await();
+		}
+		loads.increment();
+		try {
+			V value = loader.get();
+			mine.result.complete(value);
+			return value;
+		} catch (RuntimeException | Error e) {
+			mine.result.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, mine);
+		}
+	}
+
+	public SingleFlightStats stats() {
+		return new SingleFlightStats(inFlight.size(), loads.sum(), shared.sum());
+	}
+
+	private static class Flight<V> {
+		private final long generation;
+		private final CompletableFuture<V> result = new CompletableFuture<>();
+
+		private Flight(long generation) {
+			this.generation = generation;
+		}
+
+		private V await() {
+			try {
+				return result.join();
+			} catch (CompletionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException re) {
+					throw re;
+				}
+				if (cause instanceof Error error) {
+					throw error;
+				}
+				throw e;
+			}
+		}
+	}
+}
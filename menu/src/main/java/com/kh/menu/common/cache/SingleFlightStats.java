@@ -0,0 +1,18 @@
+package com.kh.menu.common.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// 동시 조회 합치기 모니터링용 스냅샷 (shared : 조회를 공유해서 줄어든 DB 호출 수)
+@Data
+@AllArgsConstructor
+public class SingleFlightStats {
+	private int inFlight;
+	private long loads; // 실제로 실행된 조회 수
+	private long shared; // 진행 중인 조회 결과를 같이 받은 요청 수
+
+	public double getSavedRate() {
+		long total = loads + shared;
+		return total == 0 ? 0.0 : (double) shared / total;
+	}
+}
@@ -0,0 +1,141 @@
+package com.kh.menu.common.hotkey;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+ * 자주 조회되는 키 추적 (count-min sketch + 상위 후보)
+ *  - 키마다 카운터를 두지 않고, depth개의 해시 행 x width칸의 고정 크기 카운터 배열에 나눠서 센다.
+ *    키의 조회 수는 각 행에서 해당 칸 값 중 최솟값으로 추정한다. (다른 키와 칸을 공유하므로 실제보다 클 수는 있어도 작지는 않다)
+ *  - 카운터는 AtomicLongArray 한 칸씩 원자적으로 증가하므로 락이 없고, 키마다 다른 칸에 흩어져서 경합이 적다.
+ *  - 상위 후보는 capacity개까지만 유지한다. 후보가 아닌 키는 추정치가 후보 중 최솟값을 넘을 때만 락을 잡고 교체한다.
+ *    이미 후보인 키(대부분의 조회)는 카운터 증가와 포함 여부 확인만 한다.
+ *  - decay()로 모든 카운터를 절반으로 줄여서, 예전에 많이 조회된 키보다 최근에 많이 조회된 키가 우선되게 한다.
+ */
+public class HotKeyTracker<K> {
+	private static final int DEPTH = 4;
+
+	private final int width; // 2의 거듭제곱
+	private final int capacity;
+	private final AtomicLongArray counts;
+	private final Map<K, Boolean> candidates = new ConcurrentHashMap<>();
+	private volatile long threshold; // 후보 중 최소 추정치 (후보가 가득 찬 경우에만 의미 있음)
+
+	public HotKeyTracker(int width, int capacity) {
+		if (width <= 0 || capacity <= 0) {
+			throw new IllegalArgumentException("width, capacity는 양수여야 합니다.");
+		}
+		int size = Integer.highestOneBit(width);
+		this.width = size == width ? width : size << 1;
+		this.capacity = capacity;
+		this.counts = new AtomicLongArray(DEPTH * this.width);
+	}
+
+	public void record(K key) {
+		int hash = mix(key.hashCode());
+		long estimate = Long.MAX_VALUE;
+		for (int row = 0; row < DEPTH; row++) {
+			estimate = Math.min(estimate, counts.incrementAndGet(index(hash, row)));
+		}
+		if (!candidates.containsKey(key) && (candidates.size() < capacity || estimate > threshold)) {
+			offer(key);
+		}
+	}
+
+	// 추정 조회 수
+	public long estimate(K key) {
+		int hash = mix(key.hashCode());
+		long estimate = Long.MAX_VALUE;
+		for (int row = 0; row < DEPTH; row++) {
+			estimate = Math.min(estimate, counts.get(index(hash, row)));
+		}
+		return estimate;
+	}
+
+	// 추정 조회 수가 많은 순으로 최대 n개
+	public List<HotKey<K>> top(int n) {
+		List<HotKey<K>> list = new ArrayList<>(candidates.size());
+		for (K key : candidates.keySet()) {
+			long estimate = estimate(key);
+			if (estimate > 0) {
+				list.add(new HotKey<>(key, estimate));
+			}
+		}
+		list.sort(Comparator.comparingLong((HotKey<K> hotKey) -> hotKey.getCount()).reversed());
+		return list.size() > n ? list.subList(0, n) : list;
+	}
+
+	/**
+	 * 모든 카운터를 절반으로 줄인다. (주기 작업에서 호출)
+	 *  - 칸마다 원자적으로 갱신하므로 도중에 들어온 증가분은 잃지 않는다.
+	 */
+	public void decay() {
+		for (int i = 0; i < counts.length(); i++) {
+			counts.getAndUpdate(i, count -> count >> 1);
+		}
+		synchronized (this) {
+			candidates.keySet().removeIf(key -> estimate(key) == 0);
+			threshold = minEstimate();
+		}
+	}
+
+	private synchronized void offer(K key) {
+		if (candidates.containsKey(key)) {
+			return;
+		}
+		candidates.put(key, Boolean.TRUE);
+		if (candidates.size() > capacity) {
+			K weakest = null;
+			long min = Long.MAX_VALUE;
+			for (K candidate : candidates.keySet()) {
+				long estimate = estimate(candidate);
+				if (estimate < min) {
+					min = estimate;
+					weakest = candidate;
+				}
+			}
+			candidates.remove(weakest);
+		}
+		if (candidates.size() >= capacity) {
+			threshold = minEstimate();
+		}
+	}
+
+	private long minEstimate() {
+		long min = Long.MAX_VALUE;
+		for (K candidate : candidates.keySet()) {
+			min = Math.min(min, estimate(candidate));
+		}
+		return min == Long.MAX_VALUE ? 0 : min;
+	}
+
+	// 행마다 다른 칸 (두 번째 해시를 행 번호만큼 더해서 행끼리 같은 칸 조합이 반복되지 않게 한다)
+	private int index(int hash, int row) {
+		int step = mix(hash ^ 0x9E3779B9) | 1;
+		return row * width + ((hash + row * step) & (width - 1));
+	}
+
+	// murmur3 finalizer : hashCode가 연속된 값(Long id 등)이어도 칸에 고르게 흩어지도록
+	private static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	@Getter
+	@AllArgsConstructor
+	public static class HotKey<K> {
+		private final K key;
+		private final long count; // 추정 조회 수
+	}
+}
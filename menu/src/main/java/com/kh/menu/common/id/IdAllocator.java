@@ -0,0 +1,10 @@
+package com.kh.menu.common.id;
+
+/*
+ * PK 발급기
+ *  - insert 전에 매번 "SELECT 시퀀스.NEXTVAL FROM DUAL"을 실행하지 않도록 id 발급을 추상화한다.
+ *  - 구현체는 여러 스레드에서 동시에 호출해도 중복 없는 id를 반환해야 한다.
+ */
+public interface IdAllocator {
+	long nextId();
+}
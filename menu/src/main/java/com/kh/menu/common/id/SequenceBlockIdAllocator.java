@@ -0,0 +1,42 @@
+package com.kh.menu.common.id;
+
+import java.util.List;
+
+/*
+ * 시퀀스 블록 할당 방식 id 발급기 (hi/lo)
+ *  - 시퀀스 값을 blockSize개씩 한 번의 쿼리로 받아와 메모리에 보관하고, 다 쓰면 다음 블록을 받아온다.
+ *  - 따라서 DB 왕복은 blockSize건의 insert마다 1번만 발생한다.
+ *  - 블록은 nextId를 호출한 트랜잭션의 커넥션으로 받아온다. (락을 가진 채 풀에서 커넥션을 새로 받지 않음)
+ *  - 서버 재시작 시 남은 블록의 id는 버려지므로 id에 빈 번호가 생길 수 있다. (시퀀스와 동일한 성질)
+ *  - 여러 서버가 같은 시퀀스를 쓰면 id가 발급 순서와 완전히 같지는 않다. (중복은 없음)
+ */
+public class SequenceBlockIdAllocator implements IdAllocator {
+	private final SequenceDao dao;
+	private final String sequence;
+	private final int blockSize;
+
+	private long[] block = new long[0];
+	private int position;
+
+	public SequenceBlockIdAllocator(SequenceDao dao, String sequence, int blockSize) {
+		if (blockSize <= 0) {
+			throw new IllegalArgumentException("blockSize는 양수여야 합니다.");
+		}
+		this.dao = dao;
+		this.sequence = sequence;
+		this.blockSize = blockSize;
+	}
+
+	@Override
+	public synchronized long nextId() {
+		if (position == block.length) {
+			List<Long> values = dao.nextValues(sequence, blockSize);
+			if (values.isEmpty()) {
+				throw new IllegalStateException(sequence + " 시퀀스 값을 가져오지 못했습니다.");
+			}
+			block = values.stream().mapToLong(Long::longValue).toArray();
+			position = 0;
+		}
+		return block[position++];
+	}
+}
@@ -0,0 +1,28 @@
+package com.kh.menu.common.id;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+@Repository
+@RequiredArgsConstructor
+public class SequenceDao {
+	private final JdbcTemplate jdbcTemplate;
+
+	/*
+	 * 시퀀스 값 count개를 한 번의 쿼리로 조회 (행마다 NEXTVAL이 새로 평가됨)
+	 *  - 호출한 쪽 트랜잭션의 커넥션으로 조회한다. NEXTVAL은 롤백되지 않으므로 별도 트랜잭션이 필요 없다.
+	 *    별도 트랜잭션(REQUIRES_NEW)을 열면 커넥션을 하나 더 받아야 하는데, 블록을 기다리는 다른 스레드들이
+	 *    각자 트랜잭션 커넥션을 가진 채 대기하므로 동시 요청 수가 풀 크기에 이르면 커넥션을 받지 못한다.
+	 *  - 호출한 쪽이 BATCH 실행기 트랜잭션 안이면 SIMPLE 실행기 SqlSession을 열 수 없으므로 JdbcTemplate을 쓴다.
+	 *    (JdbcTemplate도 트랜잭션에 묶인 커넥션을 그대로 사용한다)
+	 *  - sequence는 코드에 정의된 상수만 전달해야 한다. (SQL에 그대로 연결)
+	 */
+	public List<Long> nextValues(String sequence, int count) {
+		return jdbcTemplate.queryForList(
+				"SELECT " + sequence + ".NEXTVAL FROM DUAL CONNECT BY LEVEL <= ?", Long.class, count);
+	}
+}
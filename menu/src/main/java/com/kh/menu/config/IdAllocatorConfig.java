@@ -0,0 +1,30 @@
+package com.kh.menu.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.kh.menu.common.id.IdAllocator;
+import com.kh.menu.common.id.SequenceBlockIdAllocator;
+import com.kh.menu.common.id.SequenceDao;
+
+/*
+ * 테이블별 id 발급기
+ *  - 빈 이름으로 주입받는다. (필드명 menuIdAllocator, userIdAllocator)
+ *  - 다른 방식으로 바꾸려면 같은 이름의 IdAllocator 빈을 등록하면 된다.
+ */
+@Configuration
+public class IdAllocatorConfig {
+	@Value("${id.block-size:50}")
+	private int blockSize;
+
+	@Bean
+	public IdAllocator menuIdAllocator(SequenceDao sequenceDao) {
+		return new SequenceBlockIdAllocator(sequenceDao, "SEQ_MENU_ID", blockSize);
+	}
+
+	@Bean
+	public IdAllocator userIdAllocator(SequenceDao sequenceDao) {
+		return new SequenceBlockIdAllocator(sequenceDao, "SQE_USERS_ID", blockSize);
+	}
+}
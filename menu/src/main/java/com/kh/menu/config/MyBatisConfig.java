@@ -0,0 +1,35 @@
+package com.kh.menu.config;
+
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/*
+ * SqlSessionTemplate 설정
+ *  - 직접 SqlSessionTemplate 빈을 등록하면 mybatis 자동설정의 기본 템플릿이 생성되지 않으므로
+ *    기본 템플릿(SIMPLE)도 함께 등록하고 @Primary로 지정한다.
+ *  - batchSqlSessionTemplate : ExecutorType.BATCH. insert/update/delete를 JDBC batch로 모아두었다가
+ *    flushStatements() 또는 커밋 시점에 한번에 전송한다. 대량 등록/수정 전용
+ *  - 요청 간 PreparedStatement 재사용은 JDBC 드라이버의 문장 캐시
+ *    (Oracle implicitStatementCacheSize 등 데이터소스 설정)가 담당한다. (REUSE 실행기는 세션 안에서만 재사용)
+ *  - 같은 트랜잭션 안에서 서로 다른 ExecutorType의 템플릿을 섞어 쓸 수 없다.
+ */
+@Configuration
+public class MyBatisConfig {
+	// @Qualifier(MyBatisConfig.BATCH) 형태로 주입받는다
+	public static final String BATCH = "batchSqlSessionTemplate";
+
+	@Bean
+	@Primary
+	public SqlSessionTemplate sqlSessionTemplate(SqlSessionFactory sqlSessionFactory) {
+		return new SqlSessionTemplate(sqlSessionFactory);
+	}
+
+	@Bean(BATCH)
+	public SqlSessionTemplate batchSqlSessionTemplate(SqlSessionFactory sqlSessionFactory) {
+		return new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+	}
+}
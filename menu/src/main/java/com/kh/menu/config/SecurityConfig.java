@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -16,6 +17,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.kh.menu.controller.MenuController;
 import com.kh.menu.security.filter.JWTAuthenticationFilter;
 import com.kh.menu.security.model.handler.OAuth2SuccessHandler;
 import com.kh.menu.security.model.service.OAuth2Service;
@@ -56,6 +58,7 @@ public class SecurityConfig {
 			.authorizeHttpRequests(auth -> auth
 				.requestMatchers("/auth/login", "/auth/signup", "/auth/logout", "/auth/refresh").permitAll()
 				.requestMatchers("/oauth2/**", "/login**", "/error").permitAll()
+				.requestMatchers(HttpMethod.PUT, "/auth/users/*/roles").hasRole("ADMIN") // 권한 변경은 관리자만
 				.requestMatchers("/**").authenticated());
 		http.addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
 		return http.build();
@@ -70,7 +73,8 @@ public class SecurityConfig {
 		// 허용 메서드
 		config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE"));
 		config.setAllowedHeaders(List.of("*"));
-		config.setExposedHeaders(List.of("Location", "Authorization"));
+		config.setExposedHeaders(List.of("Location", "Authorization", "ETag", MenuController.NEXT_CURSOR_HEADER,
+				MenuController.TOTAL_COUNT_HEADER));
 		config.setAllowCredentials(true); // 세션, 쿠키 허용. false면 http-only 쿠키 못 씀
 		config.setMaxAge(3600L); // 요청정보 (쿠키에 대한) 캐싱시간
 		
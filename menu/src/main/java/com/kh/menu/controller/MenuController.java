@@ -1,25 +1,56 @@
 package com.kh.menu.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.kh.menu.common.CursorCodec;
+import com.kh.menu.common.cache.CacheStats;
+import com.kh.menu.common.cache.SingleFlightStats;
+import com.kh.menu.model.dto.MenuDto.MenuChanges;
+import com.kh.menu.model.dto.MenuDto.MenuFacets;
+import com.kh.menu.model.dto.MenuDto.MenuOperation;
+import com.kh.menu.model.dto.MenuDto.MenuOperationResult;
+import com.kh.menu.model.dto.MenuDto.MenuPatch;
+import com.kh.menu.model.dto.MenuDto.MenuPage;
 import com.kh.menu.model.dto.MenuDto.MenuPost;
+import com.kh.menu.model.dto.MenuDto.MenuPriceStats;
 import com.kh.menu.model.dto.MenuDto.MenuPut;
 import com.kh.menu.model.dto.MenuDto.MenuResponse;
+import com.kh.menu.model.dto.MenuDto.MenuStats;
+import com.kh.menu.model.dto.MenuDto.MenuUpsert;
+import com.kh.menu.model.dto.MenuDto.MenuUpsertResult;
+import com.kh.menu.model.dto.MenuField;
+import com.kh.menu.model.dto.MenuQuery;
+import com.kh.menu.model.service.MenuHotKeys;
 import com.kh.menu.model.service.MenuService;
+import com.kh.menu.model.service.MenuSnapshotStore;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -68,6 +99,12 @@ public class MenuController {
 	 *  - 단, 실제 운영환경에서는 api 명세가 노출되지 않도록 비활성화 처리 해주어야함
 	 */
 	private final MenuService menuService;
+	private final ObjectMapper objectMapper;
+	private final MenuHotKeys hotKeys; // 조회가 많은 id, 조회조건 기록 (서버 시작 시 캐시 예열용)
+	public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+	public static final String NDJSON_VALUE = "application/x-ndjson";
+	public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+	private static final int SEARCH_QUERY_MAX_LENGTH = 100;
 	/*
 	 * #3. REST API 설계 원칙
 	 * 1) 명사를 사용하여 자원을 작성한다
@@ -77,22 +114,240 @@ public class MenuController {
 	 * 3) 응답상태를 반드시 전달한다 => ResponseEntity 꼭 써야함 스프링에선
 	 */
 	@GetMapping("/menus")
-	@Operation(summary="메뉴 목록 조회", description="메뉴 목록 조회. type, taste로 필터링 가능")
-	@ApiResponse(responseCode="200", description="메뉴 목록 조회 성공",
+	@Operation(summary="메뉴 목록 조회", description="메뉴 목록 조회. type, taste, price로 필터링 가능. "
+			+ "type, taste는 쉼표로 여러 값 지정(type=kr,jp), price는 최소-최대(price=5000-10000). "
+			+ "sort(id, price, -price) 순으로 limit건씩 조회하며, 다음 페이지가 있으면 X-Next-Cursor 헤더로 커서를 전달. "
+			+ "fields(id,name,price 등)를 지정하면 해당 항목만 조회")
+	@ApiResponses({
+		@ApiResponse(responseCode="200", description="메뉴 목록 조회 성공",
+				content=@Content(
+						mediaType="application/json",
+						array=@ArraySchema(schema=@Schema(implementation=MenuResponse.class))
+						)
+				),
+		@ApiResponse(responseCode="304", description="변경 없음 (If-None-Match 일치)"),
+		@ApiResponse(responseCode="400", description="잘못된 조회조건 또는 페이지 파라미터"),
+		@ApiResponse(responseCode="503", description="필터 인덱스 적재 중")
+	})
+	//@CrossOrigin(origins="http://localhost:5173")
+	public ResponseEntity<List<?>> menus(
+			@Parameter(description="메뉴타입 (쉼표로 여러 값)", example="kr,jp")
+			@RequestParam(required=false) String type,
+			@Parameter(description="맛 (쉼표로 여러 값)", example="hot")
+			@RequestParam(required=false) String taste,
+			@Parameter(description="가격 범위 (최소-최대)", example="5000-10000")
+			@RequestParam(required=false) String price,
+			@Parameter(description="정렬 (id, price, -price)", example="id")
+			@RequestParam(required=false) String sort,
+			@Parameter(description="이 id 다음부터 조회 (id 정렬만)", example="20")
+			@RequestParam(required=false) Long after,
+			@Parameter(description="이전 응답의 X-Next-Cursor 값 (after 대신 사용)")
+			@RequestParam(required=false) String cursor,
+			@Parameter(description="조회 건수", example="100")
+			@RequestParam(required=false) Integer limit,
+			@Parameter(description="응답에 포함할 항목 (쉼표로 여러 값). 생략하면 전체", example="id,name,price")
+			@RequestParam(required=false) String fields,
+			WebRequest webRequest
+			) {
+		MenuQuery query;
+		MenuPage page;
+		try {
+			query = menuQuery(type, taste, price, sort, after, cursor, limit).withFields(MenuField.parse(fields));
+			hotKeys.recordList(query);
+			// If-None-Match가 있으면 목록을 조회하기 전에 버전만 비교해서 304 처리
+			if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+				String etag = listETag(query, menuService.selectMenusVersion(query));
+				if (webRequest.checkNotModified(etag)) {
+					return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+				}
+			}
+			page = menuService.selectMenus(query);
+		} catch (IllegalArgumentException e) {
+			log.debug("invalid query : {}", e.getMessage());
+			return ResponseEntity.badRequest().build();
+		} catch (IllegalStateException e) {
+			// 다중값 필터용 인덱스가 아직 적재되지 않은 경우 (서버 시작 직후)
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+		log.debug("list : {}", page.getMenus());
+		// 다음 페이지 커서는 헤더로 전달 (응답 body는 기존과 같은 배열 형태 유지)
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+				.eTag(listETag(query, page.getVersion()));
+		if (page.getNextAfter() != null) {
+			String next = page.getNextAfterPrice() != null
+					? CursorCodec.encode(page.getNextAfterPrice(), page.getNextAfter())
+					: CursorCodec.encode(page.getNextAfter());
+			response.header(NEXT_CURSOR_HEADER, next);
+		}
+		if (query.getFields() == null) {
+			return response.body(page.getMenus());
+		}
+		List<Map<String, Object>> rows = new ArrayList<>(page.getMenus().size());
+		for (MenuResponse menu : page.getMenus()) {
+			rows.add(MenuField.project(menu, query.getFields()));
+		}
+		return response.body(rows);
+	}
+	/*
+	 * 여러 메뉴 한 번에 조회 (장바구니, 즐겨찾기 화면용)
+	 *  - 메뉴마다 GET /menus/{id}를 호출하지 않고 한 번의 요청으로 조회
+	 *  - ids 파라미터가 있으면 위 목록 조회 대신 이 메서드가 선택된다.
+	 *  - id가 많아 URL이 길어지면 POST /menus/lookup으로 body에 id 배열을 전달
+	 */
+	@GetMapping(value="/menus", params="ids")
+	@Operation(summary="여러 메뉴 조회", description="ids(쉼표로 구분)에 해당하는 메뉴를 요청한 순서대로 조회. "
+			+ "없는 id는 결과에서 빠진다")
+	@ApiResponses({
+		@ApiResponse(responseCode="200", description="메뉴 조회 성공",
+				content=@Content(array=@ArraySchema(schema=@Schema(implementation=MenuResponse.class)))),
+		@ApiResponse(responseCode="400", description="id 없음 또는 개수 초과")
+	})
+	public ResponseEntity<List<MenuResponse>> menusByIds(
+			@Parameter(description="메뉴 id (쉼표로 여러 값)", example="3,1,2")
+			@RequestParam List<Long> ids
+			) {
+		return lookupMenus(ids);
+	}
+	
+	@PostMapping("/menus/lookup")
+	@Operation(summary="여러 메뉴 조회 (body)", description="body의 id 배열에 해당하는 메뉴를 요청한 순서대로 조회")
+	@ApiResponses({
+		@ApiResponse(responseCode="200", description="메뉴 조회 성공",
+				content=@Content(array=@ArraySchema(schema=@Schema(implementation=MenuResponse.class)))),
+		@ApiResponse(responseCode="400", description="id 없음 또는 개수 초과")
+	})
+	public ResponseEntity<List<MenuResponse>> lookupMenus(
+			@RequestBody List<Long> ids
+			) {
+		try {
+			return ResponseEntity.ok(menuService.selectMenusByIds(ids));
+		} catch (IllegalArgumentException e) {
+			log.debug("invalid ids : {}", e.getMessage());
+			return ResponseEntity.badRequest().build();
+		}
+	}
+	/*
+	 * 필터별 메뉴 건수 (검색 화면의 필터 옆 건수 표시용)
+	 *  - 목록 조회와 같은 필터를 사용하며, DB 집계 쿼리 없이 메모리의 비트맵 인덱스로 계산한다.
+	 */
+	@GetMapping("/menus/facets")
+	@Operation(summary="메뉴 필터별 건수 조회", description="type, taste, price 필터 적용 결과 건수와 "
+			+ "메뉴타입별, 맛별, 가격구간별 건수")
+	@ApiResponses({
+		@ApiResponse(responseCode="200", description="필터별 건수 조회 성공",
+				content=@Content(schema=@Schema(implementation=MenuFacets.class))),
+		@ApiResponse(responseCode="400", description="잘못된 price 형식"),
+		@ApiResponse(responseCode="503", description="필터 인덱스 적재 중")
+	})
+	public ResponseEntity<MenuFacets> facets(
+			@Parameter(description="메뉴타입 (쉼표로 여러 값)", example="kr,jp")
+			@RequestParam(required=false) String type,
+			@Parameter(description="맛 (쉼표로 여러 값)", example="hot")
+			@RequestParam(required=false) String taste,
+			@Parameter(description="가격 범위 (최소-최대)", example="5000-10000")
+			@RequestParam(required=false) String price
+			) {
+		try {
+			return ResponseEntity.ok(menuService.selectFacets(MenuQuery.of(type, taste, price, null, null, null, null)));
+		} catch (IllegalArgumentException e) {
+			log.debug("invalid query : {}", e.getMessage());
+			return ResponseEntity.badRequest().build();
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+	}
+	/*
+	 * 메뉴 검색 (식당명, 메뉴명)
+	 *  - 서버 메모리의 n-gram 색인으로 검색하므로 LIKE '%..%' 전체 스캔이 없다.
+	 *  - 순위순으로 offset부터 limit건 반환, 전체 건수는 X-Total-Count 헤더로 전달
+	 */
+	@GetMapping("/menus/search")
+	@Operation(summary="메뉴 검색", description="식당명, 메뉴명에 검색어가 포함된 메뉴를 순위순으로 조회")
+	@ApiResponses({
+		@ApiResponse(responseCode="200", description="메뉴 검색 성공",
+				content=@Content(array=@ArraySchema(schema=@Schema(implementation=MenuResponse.class)))),
+		@ApiResponse(responseCode="400", description="검색어 없음 또는 잘못된 페이지 파라미터"),
+		@ApiResponse(responseCode="503", description="검색 색인 적재 중")
+	})
+	public ResponseEntity<List<MenuResponse>> searchMenus(
+			@Parameter(description="검색어", required=true, example="짬뽕")
+			@RequestParam String q,
+			@Parameter(description="건너뛸 건수", example="0")
+			@RequestParam(defaultValue="0") int offset,
+			@Parameter(description="조회 건수", example="20")
+			@RequestParam(required=false) Integer limit
+			) {
+		if (q.isBlank() || q.length() > SEARCH_QUERY_MAX_LENGTH || offset < 0 || limit != null && limit <= 0) {
+			return ResponseEntity.badRequest().build();
+		}
+		try {
+			MenuService.MenuSearchResult result = menuService.searchMenus(q, offset, limit);
+			return ResponseEntity.ok()
+					.header(TOTAL_COUNT_HEADER, String.valueOf(result.getTotal()))
+					.body(result.getMenus());
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+	}
+	/*
+	 * 메뉴 목록 스트리밍 조회 (전체 내보내기용)
+	 *  - Accept: application/x-ndjson 요청인 경우 위 menus() 대신 이 메서드가 선택된다.
+	 *  - DB에서 읽은 행을 바로 한 줄씩 JSON으로 써서 보내므로, 목록 전체를 List나 응답 버퍼에
+	 *    모아두지 않는다. (힙 사용량 일정, 첫 바이트 응답시간 짧음)
+	 */
+	@GetMapping(value="/menus", produces=NDJSON_VALUE)
+	@Operation(summary="메뉴 목록 스트리밍 조회", description="Accept: application/x-ndjson 요청 시 "
+			+ "필터에 해당하는 전체 메뉴를 한 줄에 한 건씩 JSON으로 전송")
+	@ApiResponse(responseCode="200", description="메뉴 목록 스트리밍 성공",
 			content=@Content(
-					mediaType="application/json",
-					array=@ArraySchema(schema=@Schema(implementation=MenuResponse.class))
+					mediaType=NDJSON_VALUE,
+					schema=@Schema(implementation=MenuResponse.class)
 					)
 			)
-	//@CrossOrigin(origins="http://localhost:5173")
-	public ResponseEntity<List<MenuResponse>> menus(
-			@Parameter(description="검색 필터 (type, taste)")
-			@RequestParam HashMap<String, Object> param // 검색파라미터값
+	public ResponseEntity<StreamingResponseBody> streamMenus(
+			@Parameter(description="메뉴타입 (쉼표로 여러 값)", example="kr,jp")
+			@RequestParam(required=false) String type,
+			@Parameter(description="맛 (쉼표로 여러 값)", example="hot")
+			@RequestParam(required=false) String taste,
+			@Parameter(description="가격 범위 (최소-최대)", example="5000-10000")
+			@RequestParam(required=false) String price,
+			@Parameter(description="이 id 다음부터 조회", example="20")
+			@RequestParam(required=false) Long after
 			) {
-		List<MenuResponse> list = menuService.selectMenus(param);
-		log.debug("list : {}", list);
-		return ResponseEntity.ok(list);
+		MenuQuery query;
+		try {
+			query = MenuQuery.of(type, taste, price, null, after, null, null);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		}
+		StreamingResponseBody body = out -> {
+			try {
+				menuService.streamMenus(query, new NdjsonWriter(out));
+			} catch (RuntimeException e) {
+				// NdjsonWriter의 UncheckedIOException은 MyBatis를 거치면서
+				// PersistenceException -> MyBatisSystemException으로 감싸져서 올라온다
+				IOException io = findIOException(e);
+				if (io != null) {
+					throw io; // 클라이언트 연결 끊김 등
+				}
+				throw e;
+			}
+		};
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(NDJSON_VALUE))
+				.body(body);
+	}
+	
+	// 예외의 원인 중 IOException (없으면 null)
+	private static IOException findIOException(Throwable e) {
+		for (Throwable t = e; t != null; t = t.getCause()) {
+			if (t instanceof IOException io) {
+				return io;
+			}
+		}
+		return null;
 	}
+	
 	// 메뉴등록
 	// 4) 행위를 URI에 포함시키지 않는다
 	//  - /menus/insert -> Post + /menus
@@ -117,6 +372,83 @@ public class MenuController {
 			return ResponseEntity.badRequest().build(); // 400 bad request (JSP:실패페이지로 포워딩)
 		}
 	}
+	/*
+	 * 메뉴 일괄 등록/수정/삭제
+	 *  - 대량 import 시 건마다 POST/PUT을 호출하지 않고 한 번의 요청, 한 번의 트랜잭션으로 처리
+	 *  - 결과는 요청 순서대로 반환. 하나라도 실패하면 전체 롤백된다.
+	 */
+	@PostMapping("/menus/batch")
+	@Operation(summary="메뉴 일괄 처리", description="create/update/delete 작업 목록을 하나의 트랜잭션으로 처리")
+	@ApiResponses({
+		@ApiResponse(responseCode="200", description="일괄 처리 성공",
+				content=@Content(array=@ArraySchema(schema=@Schema(implementation=MenuOperationResult.class)))),
+		@ApiResponse(responseCode="400", description="잘못된 작업 목록"),
+		@ApiResponse(responseCode="409", description="제약조건 위반으로 전체 롤백")
+	})
+	public ResponseEntity<List<MenuOperationResult>> batchMenus(
+			@RequestBody List<MenuOperation> ops
+			) {
+		try {
+			return ResponseEntity.ok(menuService.applyBatch(ops));
+		} catch (IllegalArgumentException e) {
+			log.debug("batch rejected : {}", e.getMessage());
+			return ResponseEntity.badRequest().build();
+		} catch (DataIntegrityViolationException e) {
+			log.debug("batch rolled back : {}", e.getMessage());
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
+		}
+	}
+	/*
+	 * 자연키(식당명, 메뉴명, 맛) 기준 등록/수정 (외부 피드 import용)
+	 *  - 조회 후 POST/PUT을 고르지 않고 한 번의 요청, 한 번의 MERGE로 처리한다.
+	 *  - 새로 등록되면 201 + Location, 기존 메뉴면 200. 둘 다 결과 id와 상태를 반환
+	 */
+	@PutMapping("/menus/by-key")
+	@Operation(summary="메뉴 자연키 등록/수정", description="restaurant, name, taste가 같은 메뉴가 있으면 price, type 수정, 없으면 등록")
+	@ApiResponses({
+		@ApiResponse(responseCode="200", description="수정 또는 변경 없음",
+				content=@Content(schema=@Schema(implementation=MenuUpsertResult.class))),
+		@ApiResponse(responseCode="201", description="등록",
+				content=@Content(schema=@Schema(implementation=MenuUpsertResult.class))),
+		@ApiResponse(responseCode="400", description="필수값 누락 또는 잘못된 type/taste")
+	})
+	public ResponseEntity<MenuUpsertResult> upsertMenu(
+			@RequestBody MenuUpsert menu
+			) {
+		MenuUpsertResult result;
+		try {
+			result = menuService.upsertMenu(menu);
+		} catch (IllegalArgumentException e) {
+			log.debug("upsert rejected : {}", e.getMessage());
+			return ResponseEntity.badRequest().build();
+		}
+		if (MenuUpsertResult.INSERTED.equals(result.getStatus())) {
+			return ResponseEntity.created(URI.create("/menus/" + result.getId())).body(result);
+		}
+		return ResponseEntity.ok(result);
+	}
+	
+	@PutMapping("/menus/by-key/bulk")
+	@Operation(summary="메뉴 자연키 일괄 등록/수정", description="자연키 등록/수정 목록을 하나의 트랜잭션으로 처리")
+	@ApiResponses({
+		@ApiResponse(responseCode="200", description="일괄 처리 성공",
+				content=@Content(array=@ArraySchema(schema=@Schema(implementation=MenuUpsertResult.class)))),
+		@ApiResponse(responseCode="400", description="잘못된 메뉴 목록"),
+		@ApiResponse(responseCode="409", description="제약조건 위반으로 전체 롤백")
+	})
+	public ResponseEntity<List<MenuUpsertResult>> upsertMenus(
+			@RequestBody List<MenuUpsert> menus
+			) {
+		try {
+			return ResponseEntity.ok(menuService.upsertMenus(menus));
+		} catch (IllegalArgumentException e) {
+			log.debug("bulk upsert rejected : {}", e.getMessage());
+			return ResponseEntity.badRequest().build();
+		} catch (DataIntegrityViolationException e) {
+			log.debug("bulk upsert rolled back : {}", e.getMessage());
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
+		}
+	}
 	/*
 	 * 실습문제 1.) 메뉴 조회 기능
 	 * 요구사항
@@ -126,20 +458,46 @@ public class MenuController {
 	 *  4. 조회결과가 존재하지 않을 시 404 에러상태 반환
 	 */
 	@GetMapping("/menus/{id}")
-	@Operation(summary="메뉴 단건 조회")
+	@Operation(summary="메뉴 단건 조회", description="fields(id,name,price 등)를 지정하면 해당 항목만 응답")
 	@ApiResponses({
 		@ApiResponse(responseCode="200", description="메뉴조회 성공",
 				content=@Content(schema=@Schema(implementation=MenuResponse.class))),
+		@ApiResponse(responseCode="304", description="변경 없음 (If-None-Match 일치)"),
+		@ApiResponse(responseCode="400", description="정의되지 않은 항목"),
 		@ApiResponse(responseCode="404", description="메뉴 없음")
 	})
 	//@CrossOrigin(origins="http://localhost:5173")
-	public ResponseEntity<MenuResponse> menu(
+	public ResponseEntity<?> menu(
 			@Parameter(description="조회할 메뉴의 ID", required=true, example="1")
-			@PathVariable long id
+			@PathVariable long id,
+			@Parameter(description="응답에 포함할 항목 (쉼표로 여러 값). 생략하면 전체", example="id,name,price")
+			@RequestParam(required=false) String fields,
+			WebRequest webRequest
 			) {
+		EnumSet<MenuField> selected;
+		try {
+			selected = MenuField.parse(fields);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		}
+		if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+			Long version = menuService.selectMenuVersion(id);
+			if (version == null) {
+				return ResponseEntity.notFound().build();
+			}
+			String etag = menuETag(id, version, selected);
+			if (webRequest.checkNotModified(etag)) {
+				hotKeys.recordMenu(id);
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+			}
+		}
+		// 단건은 캐시(전체 항목)에서 꺼내므로 SQL은 그대로 두고 응답 항목만 줄인다
 		MenuResponse menu = menuService.selectMenu(id);
 		if (menu != null) {
-			return ResponseEntity.ok().body(menu);
+			// 있는 메뉴만 기록 (없는 id 요청이 예열 목록을 차지하지 않도록)
+			hotKeys.recordMenu(id);
+			ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(menuETag(id, menu.getVersion(), selected));
+			return selected == null ? response.body(menu) : response.body(MenuField.project(menu, selected));
 		}
 		return ResponseEntity.notFound().build();
 	}
@@ -163,6 +521,32 @@ public class MenuController {
 			return ResponseEntity.notFound().build(); // 404
 		}
 	}
+	// 메뉴 부분수정 (전달된 항목만 수정)
+	@PatchMapping("/menus/{id}")
+	@Operation(summary="메뉴 부분 수정", description="body에 포함된 항목만 수정. 생략(null)한 항목은 기존 값 유지")
+	@ApiResponses({
+		@ApiResponse(responseCode="204", description="메뉴 부분 수정 성공"),
+		@ApiResponse(responseCode="400", description="수정할 항목 없음 또는 잘못된 type/taste"),
+		@ApiResponse(responseCode="404", description="메뉴 없음"),
+		@ApiResponse(responseCode="409", description="식당명, 메뉴명, 맛이 같은 메뉴가 이미 있음")
+	})
+	public ResponseEntity<Void> patchMenu(
+			@RequestBody MenuPatch menu,
+			@PathVariable long id
+			) {
+		menu.setId(id);
+		try {
+			if (menuService.patchMenu(menu) > 0) {
+				return ResponseEntity.noContent().build();
+			}
+			return ResponseEntity.notFound().build();
+		} catch (IllegalArgumentException e) {
+			log.debug("patch rejected : {}", e.getMessage());
+			return ResponseEntity.badRequest().build();
+		} catch (DataIntegrityViolationException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
+		}
+	}
 	/*
      * 실습문제 3.) 메뉴 삭제
      * 요구사항
@@ -186,4 +570,212 @@ public class MenuController {
 		}
 		return ResponseEntity.notFound().build();
 	}
+	
+	// 메뉴 캐시 모니터링 (hit/miss/eviction 수치를 보고 캐시 크기, TTL 튜닝)
+	@GetMapping("/menus/cache/stats")
+	@Operation(summary="메뉴 캐시 통계 조회")
+	@ApiResponse(responseCode="200", description="캐시 통계 조회 성공")
+	public ResponseEntity<Map<String, CacheStats>> cacheStats() {
+		return ResponseEntity.ok(menuService.cacheStats());
+	}
+	
+	// 조회가 많은 메뉴 id, 목록 조회조건 (추정 조회 수 순)
+	@GetMapping("/menus/hotkeys")
+	@Operation(summary="자주 조회되는 메뉴/조회조건 조회", description="서버 시작 시 캐시 예열 대상 (주기적으로 파일에 저장)")
+	@ApiResponse(responseCode="200", description="조회 성공")
+	public ResponseEntity<Map<String, List<String>>> hotKeys() {
+		return ResponseEntity.ok(hotKeys.top());
+	}
+	
+	// 동시 조회 합치기 모니터링 (shared : 진행 중인 DB 조회를 같이 받아서 줄어든 DB 호출 수)
+	@GetMapping("/menus/cache/coalescing")
+	@Operation(summary="메뉴 동시 조회 합치기 통계 조회")
+	@ApiResponse(responseCode="200", description="동시 조회 합치기 통계 조회 성공")
+	public ResponseEntity<Map<String, SingleFlightStats>> coalescingStats() {
+		return ResponseEntity.ok(menuService.coalescingStats());
+	}
+	
+	/*
+	 * 변경분 동기화 (모바일 클라이언트용)
+	 *  - 전체 목록을 다시 받지 않고, 이전 응답의 token 이후에 등록/수정/삭제된 메뉴만 받는다.
+	 *  - 처음에는 since 없이 요청해서 전체를 받고, 이후에는 응답의 token을 since로 전달
+	 *  - hasMore가 true이면 남은 변경분이 있으므로 바로 다시 요청
+	 *  - 410이면 토큰 이후의 삭제 기록이 정리된 것이므로 since 없이 전체를 다시 받는다
+	 */
+	@GetMapping("/menus/changes")
+	@Operation(summary="메뉴 변경분 조회", description="since 토큰 이후 등록/수정/삭제된 메뉴와 다음 토큰")
+	@ApiResponses({
+		@ApiResponse(responseCode="200", description="변경분 조회 성공",
+				content=@Content(schema=@Schema(implementation=MenuChanges.class))),
+		@ApiResponse(responseCode="400", description="잘못된 토큰 또는 조회 건수"),
+		@ApiResponse(responseCode="410", description="보관 기간이 지난 토큰 (since 없이 전체 재동기화)")
+	})
+	public ResponseEntity<MenuChanges> changes(
+			@Parameter(description="이전 응답의 token (처음이면 생략)")
+			@RequestParam(required=false) String since,
+			@Parameter(description="최대 조회 건수", example="100")
+			@RequestParam(required=false) Integer limit
+			) {
+		if (limit != null && limit <= 0) {
+			return ResponseEntity.badRequest().build();
+		}
+		Long version = null;
+		if (since != null) {
+			try {
+				version = CursorCodec.decode(since, 1)[0];
+			} catch (IllegalArgumentException e) {
+				return ResponseEntity.badRequest().build();
+			}
+		}
+		MenuService.ChangePage page = menuService.selectChanges(version, limit);
+		if (page == null) {
+			return ResponseEntity.status(HttpStatus.GONE).build();
+		}
+		return ResponseEntity.ok(new MenuChanges(page.getChanges(),
+				CursorCodec.encode(page.getLastVersion()), page.isHasMore()));
+	}
+	
+	/*
+	 * 가격 통계 (대시보드용)
+	 *  - 서버가 등록/수정/삭제 시마다 누적값을 갱신해 두므로, 전체 목록을 받아서 집계할 필요가 없다.
+	 */
+	@GetMapping("/menus/stats")
+	@Operation(summary="메뉴 가격 통계 조회", description="전체, 메뉴타입별, 맛별 건수/합계/평균/최저/최고 가격")
+	@ApiResponses({
+		@ApiResponse(responseCode="200", description="가격 통계 조회 성공",
+				content=@Content(schema=@Schema(implementation=MenuStats.class))),
+		@ApiResponse(responseCode="503", description="통계 적재 중")
+	})
+	public ResponseEntity<MenuStats> stats() {
+		try {
+			return ResponseEntity.ok(menuService.selectStats());
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+	}
+	
+	@GetMapping("/menus/stats/restaurants")
+	@Operation(summary="식당별 메뉴 가격 통계 조회", description="식당별 건수/합계/평균/최저/최고 가격")
+	@ApiResponses({
+		@ApiResponse(responseCode="200", description="식당별 가격 통계 조회 성공"),
+		@ApiResponse(responseCode="503", description="통계 적재 중")
+	})
+	public ResponseEntity<Map<String, MenuPriceStats>> restaurantStats() {
+		try {
+			return ResponseEntity.ok(menuService.selectRestaurantStats());
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+	}
+	
+	/*
+	 * 그룹별 최저가/최고가 상위 메뉴 (위젯용)
+	 *  - 서버가 그룹마다 양 끝 메뉴 목록을 유지하므로 전체 메뉴 수와 상관없이 바로 응답한다.
+	 *  - 식당별(per=restaurant)은 식당 수만큼 커지므로 restaurant로 지정한 식당 하나만 조회한다.
+	 */
+	@GetMapping("/menus/top")
+	@Operation(summary="그룹별 상위 메뉴 조회", description="per(type, taste, restaurant)별로 "
+			+ "by(price: 최저가, -price: 최고가) 순 상위 k개 메뉴. per=restaurant는 restaurant 필수")
+	@ApiResponses({
+		@ApiResponse(responseCode="200", description="상위 메뉴 조회 성공"),
+		@ApiResponse(responseCode="400", description="잘못된 by, per, k 또는 per=restaurant에 restaurant 누락"),
+		@ApiResponse(responseCode="503", description="통계 적재 중")
+	})
+	public ResponseEntity<Map<String, List<MenuResponse>>> topMenus(
+			@Parameter(description="정렬 기준 (price, -price)", example="price")
+			@RequestParam(defaultValue="price") String by,
+			@Parameter(description="그룹 기준 (type, taste, restaurant)", required=true, example="type")
+			@RequestParam String per,
+			@Parameter(description="식당명 (per=restaurant인 경우 필수)", example="경민통닭")
+			@RequestParam(required=false) String restaurant,
+			@Parameter(description="그룹별 메뉴 수", example="5")
+			@RequestParam(defaultValue="5") int k
+			) {
+		try {
+			return ResponseEntity.ok(menuService.selectTop(by, per, restaurant, k));
+		} catch (IllegalArgumentException e) {
+			log.debug("invalid top query : {}", e.getMessage());
+			return ResponseEntity.badRequest().build();
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+	}
+	
+	// 스냅샷 모드 상태 및 메모리 사용량 (스냅샷 모드가 아니면 404)
+	@GetMapping("/menus/snapshot/stats")
+	@Operation(summary="메뉴 스냅샷 통계 조회", description="menu.snapshot.enabled=true 인 경우에만 사용 가능")
+	@ApiResponses({
+		@ApiResponse(responseCode="200", description="스냅샷 통계 조회 성공"),
+		@ApiResponse(responseCode="404", description="스냅샷 모드 아님")
+	})
+	public ResponseEntity<MenuSnapshotStore.Stats> snapshotStats() {
+		MenuSnapshotStore.Stats stats = menuService.snapshotStats();
+		if (stats == null) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok(stats);
+	}
+	
+	/*
+	 * ETag (강한 검증자)
+	 *  - 단건 : 메뉴 id + 행 버전
+	 *  - 목록 : 테이블 버전 + 조회조건. 테이블 버전은 MENU에 어떤 변경이든 생기면 증가한다.
+	 */
+	// 응답 항목이 다르면 표현이 다르므로 ETag도 달라야 한다
+	private String menuETag(long id, long version, EnumSet<MenuField> fields) {
+		String projection = fields == null ? "" : "-" + Integer.toHexString(fields.toString().hashCode());
+		return "\"m" + id + "-" + version + projection + "\"";
+	}
+
+	// 조회조건 해시는 서버마다 같아야 하므로 toString()(enum 이름 등)으로 계산
+	private String listETag(MenuQuery query, long version) {
+		return "\"l" + version + "-" + Integer.toHexString(query.toString().hashCode()) + "\"";
+	}
+
+	/*
+	 * 요청 파라미터 -> 조회조건
+	 *  - cursor : id 정렬은 (id), 가격 정렬은 (가격, id)를 담고 있다.
+	 * @throws IllegalArgumentException 잘못된 파라미터, 정렬과 맞지 않는 cursor
+	 */
+	private MenuQuery menuQuery(String type, String taste, String price, String sort,
+			Long after, String cursor, Integer limit) {
+		Integer afterPrice = null;
+		if (cursor != null) {
+			if (MenuQuery.Sort.of(sort) == MenuQuery.Sort.ID) {
+				after = CursorCodec.decode(cursor, 1)[0];
+			} else {
+				long[] keys = CursorCodec.decode(cursor, 2);
+				if (keys[0] != (int) keys[0]) {
+					throw new IllegalArgumentException("잘못된 cursor 입니다.");
+				}
+				afterPrice = (int) keys[0];
+				after = keys[1];
+			}
+		}
+		return MenuQuery.of(type, taste, price, sort, after, afterPrice, limit);
+	}
+	
+	// 메뉴 한 건을 JSON 한 줄로 기록. 첫 행은 바로 flush해서 클라이언트가 즉시 받기 시작하도록 한다
+	private class NdjsonWriter implements Consumer<MenuResponse> {
+		private final OutputStream out;
+		private boolean first = true;
+
+		private NdjsonWriter(OutputStream out) {
+			this.out = out;
+		}
+
+		@Override
+		public void accept(MenuResponse menu) {
+			try {
+				out.write(objectMapper.writeValueAsBytes(menu));
+				out.write('\n');
+				if (first) {
+					out.flush();
+					first = false;
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
 }
@@ -0,0 +1,87 @@
+package com.kh.menu.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.kh.menu.common.CursorCodec;
+import com.kh.menu.model.dto.MenuDto.RestaurantMenus;
+import com.kh.menu.model.service.MenuService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+/*
+ * 식당별 메뉴 조회
+ *  - 식당별로 묶어서 보여주는 화면이 /menus 전체를 받아서 기기에서 다시 묶거나,
+ *    식당마다 따로 요청하지(N+1) 않도록 서버에서 한 번에 묶어서 반환한다.
+ */
+@RequiredArgsConstructor
+@RestController
+@Tag(name="Restaurant Api", description="식당별 메뉴 조회 API")
+public class RestaurantController {
+	private final MenuService menuService;
+
+	@GetMapping("/restaurants")
+	@Operation(summary="식당별 메뉴 목록 조회", description="식당명 순으로 limit개 식당과 각 식당의 메뉴 목록을 조회. "
+			+ "다음 페이지가 있으면 X-Next-Cursor 헤더로 커서를 전달")
+	@ApiResponses({
+		@ApiResponse(responseCode="200", description="식당별 메뉴 목록 조회 성공",
+				content=@Content(array=@ArraySchema(schema=@Schema(implementation=RestaurantMenus.class)))),
+		@ApiResponse(responseCode="400", description="잘못된 커서 또는 조회 건수")
+	})
+	public ResponseEntity<List<RestaurantMenus>> restaurants(
+			@Parameter(description="이전 응답의 X-Next-Cursor 값")
+			@RequestParam(required=false) String cursor,
+			@Parameter(description="조회할 식당 수", example="20")
+			@RequestParam(required=false) Integer limit
+			) {
+		if (limit != null && limit <= 0) {
+			return ResponseEntity.badRequest().build();
+		}
+		String after = null;
+		if (cursor != null) {
+			try {
+				after = CursorCodec.decodeText(cursor);
+			} catch (IllegalArgumentException e) {
+				return ResponseEntity.badRequest().build();
+			}
+		}
+		MenuService.RestaurantPage page = menuService.selectRestaurants(after, limit);
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		if (page.getNextAfter() != null) {
+			// 식당명은 한글이므로 헤더에 그대로 넣지 않고 커서로 인코딩
+			response.header(MenuController.NEXT_CURSOR_HEADER, CursorCodec.encodeText(page.getNextAfter()));
+		}
+		return response.body(page.getRestaurants());
+	}
+
+	@GetMapping("/restaurants/{name}/menus")
+	@Operation(summary="식당 메뉴 목록 조회", description="식당 한 곳의 메뉴 목록 (id 순)")
+	@ApiResponses({
+		@ApiResponse(responseCode="200", description="식당 메뉴 목록 조회 성공",
+				content=@Content(schema=@Schema(implementation=RestaurantMenus.class))),
+		@ApiResponse(responseCode="404", description="메뉴가 없는 식당")
+	})
+	public ResponseEntity<RestaurantMenus> restaurantMenus(
+			@Parameter(description="식당명", required=true, example="만리향")
+			@PathVariable String name
+			) {
+		RestaurantMenus restaurant = menuService.selectRestaurant(name);
+		if (restaurant == null) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok(restaurant);
+	}
+}
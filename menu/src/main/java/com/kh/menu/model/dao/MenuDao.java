@@ -1,26 +1,67 @@
 package com.kh.menu.model.dao;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import org.apache.ibatis.executor.BatchResult;
 import org.mybatis.spring.SqlSessionTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import com.kh.menu.common.id.IdAllocator;
+import com.kh.menu.config.MyBatisConfig;
+import com.kh.menu.model.dto.MenuDto.MenuChange;
+import com.kh.menu.model.dto.MenuDto.MenuOperation;
+import com.kh.menu.model.dto.MenuDto.MenuPatch;
 import com.kh.menu.model.dto.MenuDto.MenuPost;
 import com.kh.menu.model.dto.MenuDto.MenuPut;
 import com.kh.menu.model.dto.MenuDto.MenuResponse;
+import com.kh.menu.model.dto.MenuDto.MenuUpsert;
+import com.kh.menu.model.dto.MenuDto.MenuUpsertResult;
+import com.kh.menu.model.dto.MenuDto.RestaurantMenus;
+import com.kh.menu.model.dto.MenuQuery;
+
+import jakarta.annotation.PostConstruct;
 
 @Repository
 public class MenuDao {
+	private static final int IN_LIST_MAX = 1000;
+	/*
+	 * id 목록 조회의 IN 목록 길이
+	 *  - 목록 길이마다 SQL 문장이 달라져서 매번 하드파싱되지 않도록, 아래 길이 중 하나로 맞춰서 전달한다.
+	 *    남는 칸은 마지막 id로 채운다. (IN 목록의 중복 값은 결과에 영향 없음)
+	 */
+	private static final int[] IN_LIST_SIZES = { 1, 4, 16, 64, 256, IN_LIST_MAX };
 	@Autowired
 	private SqlSessionTemplate session;
+	@Autowired
+	@Qualifier(MyBatisConfig.BATCH)
+	private SqlSessionTemplate batchSession;
+	@Autowired
+	private IdAllocator menuIdAllocator;
+
+	@PostConstruct
+	void registerStatements() {
+		MenuPageStatements.register(session.getConfiguration());
+	}
+
+	// 정렬, 다음 페이지 여부, 조건 유무, 조회 항목마다 고정된 SQL 문장 사용
+	public List<MenuResponse> selectMenus(MenuQuery query) {
+		return session.selectList(MenuPageStatements.page(query), query);
+	}
 
-	public List<MenuResponse> selectMenus(HashMap<String, Object> param) {
-		return session.selectList("menumapper.selectMenus", param);
+	// 결과를 List로 모으지 않고 한 행씩 consumer에게 전달 (id 순, query의 limit은 사용하지 않음)
+	public void streamMenus(MenuQuery query, Consumer<MenuResponse> consumer) {
+		session.select(MenuPageStatements.stream(query), query,
+				context -> consumer.accept((MenuResponse) context.getResultObject()));
 	}
 
 	public int insertMenu(MenuPost menu) {
+		menu.setId(menuIdAllocator.nextId());
 		return session.insert("menumapper.insertMenu", menu);
 	}
 
@@ -28,11 +69,166 @@ public class MenuDao {
 		return session.selectOne("menumapper.selectMenu", id);
 	}
 
+	// Oracle IN 목록은 최대 1000개이므로 나눠서 조회 (순서는 보장하지 않음, 없는 id는 결과에서 빠진다)
+	public List<MenuResponse> selectMenusByIds(List<Long> ids) {
+		List<MenuResponse> list = new ArrayList<>(ids.size());
+		for (int from = 0; from < ids.size(); from += IN_LIST_MAX) {
+			List<Long> chunk = ids.subList(from, Math.min(from + IN_LIST_MAX, ids.size()));
+			list.addAll(session.selectList("menumapper.selectMenusByIds", padInList(chunk)));
+		}
+		return list;
+	}
+
+	// chunk 길이 이상인 가장 작은 IN_LIST_SIZES 길이로 채운 목록
+	private static List<Long> padInList(List<Long> chunk) {
+		int size = IN_LIST_MAX;
+		for (int candidate : IN_LIST_SIZES) {
+			if (candidate >= chunk.size()) {
+				size = candidate;
+				break;
+			}
+		}
+		if (size == chunk.size()) {
+			return chunk;
+		}
+		List<Long> padded = new ArrayList<>(size);
+		padded.addAll(chunk);
+		Long last = chunk.get(chunk.size() - 1);
+		while (padded.size() < size) {
+			padded.add(last);
+		}
+		return padded;
+	}
+
+	// 식당명 순으로 after 다음 limit개 식당 (식당마다 메뉴 목록 포함)
+	public List<RestaurantMenus> selectRestaurants(String after, int limit) {
+		HashMap<String, Object> param = new HashMap<>();
+		param.put("after", after);
+		param.put("limit", limit);
+		return session.selectList("menumapper.selectRestaurants", param);
+	}
+
+	// 메뉴가 없는 식당이면 null
+	public RestaurantMenus selectRestaurant(String restaurant) {
+		return session.selectOne("menumapper.selectRestaurant", restaurant);
+	}
+
+	// 메뉴가 없으면 null
+	public Long selectMenuVersion(long id) {
+		return session.selectOne("menumapper.selectMenuVersion", id);
+	}
+
+	public long selectTableVersion() {
+		Long version = session.selectOne("menumapper.selectTableVersion");
+		return version == null ? 0 : version;
+	}
+
+	// 행 버전이 since보다 큰 변경분 (삭제 포함, 버전 순)
+	public List<MenuChange> selectChanges(long since, int limit) {
+		HashMap<String, Object> param = new HashMap<>();
+		param.put("since", since);
+		param.put("limit", limit);
+		return session.selectList("menumapper.selectChanges", param);
+	}
+
+	// 정리된 삭제 기록의 최대 버전 (이보다 작은 since는 삭제 누락 가능)
+	public long selectPrunedVersion() {
+		Long version = session.selectOne("menumapper.selectPrunedVersion");
+		return version == null ? 0 : version;
+	}
+
+	// 보관 기간이 지난 삭제 기록의 최대 버전 (없으면 null)
+	public Long selectExpiredTombstoneVersion(int retentionDays) {
+		return session.selectOne("menumapper.selectExpiredTombstoneVersion", retentionDays);
+	}
+
+	public int updatePrunedVersion(long version) {
+		return session.update("menumapper.updatePrunedVersion", version);
+	}
+
+	// version 이하의 삭제 기록 제거
+	public int deleteTombstones(long version) {
+		return session.delete("menumapper.deleteTombstones", version);
+	}
+
+	/*
+	 * 자연키(restaurant, name, taste) 기준 등록/수정
+	 *  - 등록될 경우를 대비해 id를 미리 발급해서 전달하고, 결과 id가 그 값이면 등록된 것으로 판단한다.
+	 *    (수정된 경우 미리 발급한 id는 사용되지 않고 버려진다)
+	 */
+	public MenuUpsertResult upsertMenu(MenuUpsert menu) {
+		long newId = menuIdAllocator.nextId();
+		HashMap<String, Object> param = upsertParam(menu, newId);
+		session.update("menumapper.upsertMenu", param); // OUT 파라미터 id, rows가 param에 채워진다
+		long id = ((Number) param.get("id")).longValue();
+		int rows = ((Number) param.get("rows")).intValue();
+		String status = id == newId ? MenuUpsertResult.INSERTED
+				: rows > 0 ? MenuUpsertResult.UPDATED : MenuUpsertResult.UNCHANGED;
+		return new MenuUpsertResult(0, id, status);
+	}
+
 	public int updateMenu(MenuPut menu) {
 		return session.update("menumapper.updateMenu", menu);
 	}
 
+	public int patchMenu(MenuPatch menu) {
+		return session.update("menumapper.patchMenu", menu);
+	}
+
 	public int deleteMenu(long id) {
 		return session.delete("menumapper.deleteMenu", id);
 	}
+
+	/*
+	 * 일괄 처리용 (BATCH 실행기)
+	 *  - 아래 메서드들은 SQL을 바로 실행하지 않고 JDBC batch에 쌓아두기만 한다.
+	 *  - 반드시 트랜잭션 안에서 호출하고, flushBatch()로 전송 후 결과(update count)를 확인한다.
+	 *  - MenuOperation의 필드명이 MenuPost/MenuPut과 같으므로 기존 매퍼 구문을 그대로 사용한다.
+	 */
+	public void batchInsert(MenuOperation op) {
+		op.setId(menuIdAllocator.nextId());
+		batchSession.insert("menumapper.insertMenu", op);
+	}
+
+	public void batchUpdate(MenuOperation op) {
+		batchSession.update("menumapper.updateMenu", op);
+	}
+
+	public void batchDelete(MenuOperation op) {
+		batchSession.delete("menumapper.deleteMenu", op);
+	}
+
+	// 자연키 등록/수정을 batch에 추가. 미리 발급한 id 반환
+	public long batchUpsert(MenuUpsert menu) {
+		long newId = menuIdAllocator.nextId();
+		batchSession.update("menumapper.upsertMenuBatch", upsertParam(menu, newId));
+		return newId;
+	}
+
+	/**
+	 * 자연키별 id 조회 (batch에 쌓인 구문을 먼저 전송한 뒤 조회된다)
+	 * @return (restaurant, name, taste) -> id
+	 */
+	public Map<List<String>, Long> selectIdsByKeys(List<MenuUpsert> keys) {
+		Map<List<String>, Long> ids = new HashMap<>();
+		for (int from = 0; from < keys.size(); from += IN_LIST_MAX) {
+			List<MenuUpsert> chunk = keys.subList(from, Math.min(from + IN_LIST_MAX, keys.size()));
+			List<MenuResponse> rows = batchSession.selectList("menumapper.selectMenuIdsByKeys", chunk);
+			for (MenuResponse row : rows) {
+				ids.put(List.of(row.getRestaurant(), row.getName(), row.getTaste()), row.getId());
+			}
+		}
+		return ids;
+	}
+
+	private HashMap<String, Object> upsertParam(MenuUpsert menu, long newId) {
+		HashMap<String, Object> param = new HashMap<>();
+		param.put("menu", menu);
+		param.put("newId", newId);
+		return param;
+	}
+
+	public List<BatchResult> flushBatch() {
+		return batchSession.flushStatements();
+	}
 }
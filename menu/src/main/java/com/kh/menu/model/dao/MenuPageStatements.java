@@ -0,0 +1,188 @@
+package com.kh.menu.model.dao;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.StringJoiner;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.session.Configuration;
+
+import com.kh.menu.model.dto.MenuDto.MenuResponse;
+import com.kh.menu.model.dto.MenuField;
+import com.kh.menu.model.dto.MenuQuery;
+import com.kh.menu.model.dto.MenuQuery.Sort;
+import com.kh.menu.model.dto.MenuTaste;
+import com.kh.menu.model.dto.MenuType;
+
+/*
+ * 메뉴 목록 조회 SQL 문장 (파라미터 : MenuQuery)
+ *  - 조건 조합마다 고정된 문장을 하나씩 등록한다.
+ *    목록 : 정렬(3) x 첫 페이지/다음 페이지(2) x type, taste, price 조건 유무(8) x 조회 컬럼(2) = 96개
+ *    스트리밍 : id 순, limit 없음. 첫 페이지/다음 페이지(2) x 조건 유무(8) = 16개
+ *  - 없는 조건은 문장에 넣지 않는다. "#{after} IS NULL OR ..." 같은 범용 조건이 없으므로 문장마다 따로 실행계획이 잡히고,
+ *    PK, ix_menu_type_taste_id, ix_menu_price_id 범위 탐색을 그대로 쓴다. (몇 번째 페이지든 비용이 같음)
+ *  - 조합이 많아서 매퍼 XML에 나열하지 않고 서버 시작 시 여기서 문장을 만들어 등록한다.
+ *    동적 태그가 없는 RawSqlSource라서 호출할 때는 OGNL 평가나 SQL 조립 없이 바인딩만 한다.
+ *  - type/taste IN 목록은 enum 값 개수만큼 고정 (MenuQuery에서 남는 칸을 채워서 전달)
+ *  - 조회 컬럼은 전체(COLUMNS)와 목록 화면용 요약(SUMMARY_COLUMNS) 두 가지 고정 목록 중에서 고른다.
+ *    fields가 요약 항목 안에 들어가면 요약 문장(_summary)을, 아니면 전체 문장을 사용한다.
+ */
+final class MenuPageStatements {
+	private static final String NAMESPACE = "menumapper.";
+	private static final String STREAM = "selectMenusStream";
+	private static final String COLUMNS = "ID, RESTAURANT, NAME, PRICE, TYPE, TASTE, VERSION";
+	// 다음 페이지 커서에 ID, PRICE가 필요하므로 요약에도 항상 포함
+	private static final String SUMMARY_COLUMNS = "ID, NAME, PRICE";
+	private static final EnumSet<MenuField> SUMMARY_FIELDS = EnumSet.of(MenuField.ID, MenuField.NAME, MenuField.PRICE);
+
+	private static final int TYPE = 1;
+	private static final int TASTE = 2;
+	private static final int PRICE = 4;
+	private static final int SHAPES = 8;
+
+	private MenuPageStatements() {
+	}
+
+	// 목록 한 페이지 조회 문장 id
+	static String page(MenuQuery query) {
+		return NAMESPACE + name(pageName(query.getSort()), query.getAfter() != null, shape(query), summary(query));
+	}
+
+	// 스트리밍 조회 문장 id (id 순)
+	static String stream(MenuQuery query) {
+		return NAMESPACE + name(STREAM, query.getAfter() != null, shape(query), false);
+	}
+
+	// 모든 조합의 문장 등록 (이미 등록되어 있으면 건너뜀)
+	static void register(Configuration configuration) {
+		for (int shape = 0; shape < SHAPES; shape++) {
+			for (boolean after : new boolean[] { false, true }) {
+				for (Sort sort : Sort.values()) {
+					for (boolean summary : new boolean[] { false, true }) {
+						add(configuration, name(pageName(sort), after, shape, summary),
+								pageSql(sort, after, shape, summary ? SUMMARY_COLUMNS : COLUMNS), null);
+					}
+				}
+				add(configuration, name(STREAM, after, shape, false), streamSql(after, shape), 500);
+			}
+		}
+	}
+
+	private static int shape(MenuQuery query) {
+		return (query.getTypes() != null ? TYPE : 0)
+				| (query.getTastes() != null ? TASTE : 0)
+				| (query.hasPriceRange() ? PRICE : 0);
+	}
+
+	// 선택한 항목이 모두 요약 컬럼에 있는지 (fields가 null이면 전체)
+	private static boolean summary(MenuQuery query) {
+		return query.getFields() != null && SUMMARY_FIELDS.containsAll(query.getFields());
+	}
+
+	private static String pageName(Sort sort) {
+		return switch (sort) {
+			case ID -> "selectMenusById";
+			case PRICE -> "selectMenusByPrice";
+			case PRICE_DESC -> "selectMenusByPriceDesc";
+		};
+	}
+
+	// selectMenusByPrice, selectMenusByPrice_after_type_price, selectMenusById_taste_summary 등
+	private static String name(String prefix, boolean after, int shape, boolean summary) {
+		StringBuilder name = new StringBuilder(prefix);
+		if (after) {
+			name.append("_after");
+		}
+		if ((shape & TYPE) != 0) {
+			name.append("_type");
+		}
+		if ((shape & TASTE) != 0) {
+			name.append("_taste");
+		}
+		if ((shape & PRICE) != 0) {
+			name.append("_price");
+		}
+		if (summary) {
+			name.append("_summary");
+		}
+		return name.toString();
+	}
+
+	/*
+	 * 이전 페이지 마지막 행 다음부터 limit건 (keyset)
+	 *  - 가격 정렬은 PRICE >= 마지막 가격으로 (PRICE, ID) 인덱스 범위를 정하고, 같은 가격은 id로 거른다.
+	 */
+	private static String pageSql(Sort sort, boolean after, int shape, String columns) {
+		List<String> where = filters(shape);
+		if (after) {
+			where.add(switch (sort) {
+				case ID -> "ID > #{after}";
+				case PRICE -> "PRICE >= #{afterPrice} AND (PRICE > #{afterPrice} OR ID > #{after})";
+				case PRICE_DESC -> "PRICE <= #{afterPrice} AND (PRICE < #{afterPrice} OR ID > #{after})";
+			});
+		}
+		String order = switch (sort) {
+			case ID -> "ID";
+			case PRICE -> "PRICE, ID";
+			case PRICE_DESC -> "PRICE DESC, ID";
+		};
+		return select(columns, where) + " ORDER BY " + order + " FETCH FIRST #{limit} ROWS ONLY";
+	}
+
+	private static String streamSql(boolean after, int shape) {
+		List<String> where = filters(shape);
+		if (after) {
+			where.add("ID > #{after}");
+		}
+		return select(COLUMNS, where) + " ORDER BY ID";
+	}
+
+	private static List<String> filters(int shape) {
+		List<String> where = new ArrayList<>();
+		if ((shape & TYPE) != 0) {
+			where.add("TYPE IN " + inList("typeCodes", MenuType.values().length));
+		}
+		if ((shape & TASTE) != 0) {
+			where.add("TASTE IN " + inList("tasteCodes", MenuTaste.values().length));
+		}
+		if ((shape & PRICE) != 0) {
+			where.add("PRICE BETWEEN #{minPrice} AND #{maxPrice}");
+		}
+		return where;
+	}
+
+	private static String select(String columns, List<String> where) {
+		String sql = "SELECT " + columns + " FROM MENU";
+		return where.isEmpty() ? sql : sql + " WHERE " + String.join(" AND ", where);
+	}
+
+	// (#{codes[0],javaType=string}, #{codes[1],javaType=string}, ...)
+	private static String inList(String property, int size) {
+		StringJoiner list = new StringJoiner(", ", "(", ")");
+		for (int i = 0; i < size; i++) {
+			list.add("#{" + property + "[" + i + "],javaType=string}");
+		}
+		return list.toString();
+	}
+
+	private static void add(Configuration configuration, String name, String sql, Integer fetchSize) {
+		String id = NAMESPACE + name;
+		if (configuration.hasStatement(id, false)) {
+			return;
+		}
+		ResultMap resultMap = new ResultMap.Builder(configuration, id + "-Inline", MenuResponse.class,
+				new ArrayList<>()).build();
+		MappedStatement statement = new MappedStatement.Builder(configuration, id,
+				new RawSqlSource(configuration, sql, MenuQuery.class), SqlCommandType.SELECT)
+				.resultMaps(List.of(resultMap))
+				.fetchSize(fetchSize)
+				.resultSetType(fetchSize != null ? ResultSetType.FORWARD_ONLY : ResultSetType.DEFAULT)
+				.build();
+		configuration.addMappedStatement(statement);
+	}
+}
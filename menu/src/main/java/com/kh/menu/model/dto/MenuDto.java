@@ -1,5 +1,9 @@
 package com.kh.menu.model.dto;
 
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
@@ -34,6 +38,9 @@ public class MenuDto {
 				allowableValues = {"kr", "jp", "ch"}) // 문자열보다는 이넘 타입으로 관리하는게 맞음
 		private String type;
 		private String taste;
+		
+		@JsonIgnore // ETag 생성용. 응답 body에는 포함하지 않음
+		private long version;
 	}
 	@Data
 	@NoArgsConstructor
@@ -57,4 +64,191 @@ public class MenuDto {
 		private String type;
 		private String taste;
 	}
+	/*
+	 * 메뉴 부분수정 (PATCH)
+	 *  - null인 항목은 수정하지 않는다. 값이 있는 컬럼만 UPDATE SET에 포함된다.
+	 */
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class MenuPatch {
+		@Schema(hidden=true)
+		private long id; // uri로 전달받음
+		private String restaurant;
+		private String name;
+		@Schema(description="가격(원)", example="10000")
+		private Integer price;
+		@Schema(description="메뉴타입", example="kr", allowableValues = {"kr", "jp", "ch"})
+		private String type;
+		@Schema(description="맛", example="mild", allowableValues = {"mild", "hot"})
+		private String taste;
+	}
+	/*
+	 * 자연키(restaurant, name, taste) 기준 등록/수정 요청
+	 *  - 같은 키의 메뉴가 있으면 price, type을 수정하고, 없으면 새로 등록한다.
+	 */
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class MenuUpsert {
+		@Schema(description="식당명", example="경민통닭", requiredMode=Schema.RequiredMode.REQUIRED)
+		private String restaurant;
+		@Schema(description="메뉴명", example="후라이드", requiredMode=Schema.RequiredMode.REQUIRED)
+		private String name;
+		private int price;
+		@Schema(description="메뉴타입", example="kr", allowableValues = {"kr", "jp", "ch"})
+		private String type;
+		@Schema(description="맛", example="mild", allowableValues = {"mild", "hot"})
+		private String taste;
+	}
+	// 자연키 등록/수정 결과 (일괄 요청이면 요청 목록과 같은 순서)
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class MenuUpsertResult {
+		public static final String INSERTED = "inserted";
+		public static final String UPDATED = "updated";
+		public static final String UNCHANGED = "unchanged";
+		public static final String DELETED = "deleted"; // 일괄 처리 도중 다른 요청에서 삭제됨 (id는 0)
+		
+		private int index;
+		@Schema(description="메뉴 id", example="1")
+		private long id;
+		@Schema(description="처리 결과", allowableValues = {"inserted", "updated", "unchanged", "deleted"})
+		private String status;
+	}
+	// 목록 조회 결과 한 페이지 (nextAfter가 null이면 마지막 페이지)
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class MenuPage {
+		private List<MenuResponse> menus;
+		private Long nextAfter;
+		private Integer nextAfterPrice; // 가격 정렬인 경우 마지막 행의 가격
+		private long version; // 조회 시점의 MENU 테이블 버전 (목록 ETag용)
+	}
+	// 식당별 메뉴 목록 (GET /restaurants). 메뉴는 id 순
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class RestaurantMenus {
+		@Schema(description="식당명", example="만리향")
+		private String restaurant;
+		private List<MenuResponse> menus;
+	}
+	/*
+	 * 필터별 메뉴 건수 (GET /menus/facets)
+	 *  - total : 현재 필터 전체를 적용한 결과 건수
+	 *  - type/taste/price : 각 값을 선택했을 때의 건수 (해당 항목의 필터만 제외하고 계산)
+	 */
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class MenuFacets {
+		@Schema(description="필터 적용 결과 건수", example="42")
+		private long total;
+		@Schema(description="메뉴타입별 건수", example="{\"kr\": 30, \"ch\": 5, \"jp\": 7}")
+		private Map<String, Long> type;
+		@Schema(description="맛별 건수", example="{\"mild\": 20, \"hot\": 22}")
+		private Map<String, Long> taste;
+		@Schema(description="가격구간(최소-최대)별 건수", example="{\"5000-9999\": 12}")
+		private Map<String, Long> price;
+	}
+	// 가격 통계 (건수가 0이면 평균/최소/최대도 0)
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class MenuPriceStats {
+		public static final MenuPriceStats EMPTY = new MenuPriceStats(0, 0, 0, 0, 0);
+		
+		@Schema(description="메뉴 수", example="12")
+		private long count;
+		@Schema(description="가격 합계", example="96000")
+		private long sum;
+		@Schema(description="평균 가격", example="8000.0")
+		private double avg;
+		@Schema(description="최저 가격", example="5000")
+		private int min;
+		@Schema(description="최고 가격", example="12000")
+		private int max;
+	}
+	// 전체, 메뉴타입별, 맛별 가격 통계 (GET /menus/stats)
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class MenuStats {
+		private MenuPriceStats total;
+		private Map<String, MenuPriceStats> type;
+		private Map<String, MenuPriceStats> taste;
+	}
+	/*
+	 * 변경분 한 건 (GET /menus/changes)
+	 *  - deleted가 true이면 id 외의 값은 null
+	 */
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class MenuChange {
+		private long id;
+		@Schema(description="삭제 여부", example="false")
+		private boolean deleted;
+		private String restaurant;
+		private String name;
+		private Integer price;
+		private String type;
+		private String taste;
+		
+		@JsonIgnore // 다음 동기화 토큰 계산용
+		private long version;
+	}
+	// 변경분 조회 결과. 다음 요청에는 token을 since로 전달
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class MenuChanges {
+		private List<MenuChange> changes;
+		@Schema(description="다음 동기화 토큰")
+		private String token;
+		@Schema(description="남은 변경분이 더 있으면 true (바로 token으로 다시 요청)")
+		private boolean hasMore;
+	}
+	/*
+	 * 일괄 처리용 요청 한 건
+	 *  - op : create, update, delete
+	 *  - create는 id 없이, update/delete는 id 필수 (delete는 id만 사용)
+	 */
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class MenuOperation {
+		public static final String CREATE = "create";
+		public static final String UPDATE = "update";
+		public static final String DELETE = "delete";
+		
+		@Schema(description="작업 종류", example="create", allowableValues = {"create", "update", "delete"})
+		private String op;
+		private long id;
+		private String restaurant;
+		private String name;
+		private int price;
+		private String type;
+		private String taste;
+	}
+	// 일괄 처리 결과 한 건 (요청 목록과 같은 순서)
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class MenuOperationResult {
+		public static final String CREATED = "created";
+		public static final String UPDATED = "updated";
+		public static final String DELETED = "deleted";
+		public static final String NOT_FOUND = "not_found";
+		
+		private int index;
+		private String op;
+		@Schema(description="메뉴 id (create인 경우 생성된 id)", example="1")
+		private long id;
+		@Schema(description="처리 결과", allowableValues = {"created", "updated", "deleted", "not_found"})
+		private String status;
+	}
 }
@@ -0,0 +1,72 @@
+package com.kh.menu.model.dto;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.kh.menu.model.dto.MenuDto.MenuResponse;
+
+/*
+ * 응답에 포함할 메뉴 항목 (fields 파라미터)
+ *  - 여기 정의된 항목만 선택할 수 있다.
+ *  - 목록 SQL의 컬럼은 선택한 항목에 따라 고정된 두 목록(전체, id/name/price 요약) 중에서 고른다. (MenuPageStatements)
+ */
+public enum MenuField {
+	ID("id", MenuResponse::getId),
+	RESTAURANT("restaurant", MenuResponse::getRestaurant),
+	NAME("name", MenuResponse::getName),
+	PRICE("price", MenuResponse::getPrice),
+	TYPE("type", MenuResponse::getType),
+	TASTE("taste", MenuResponse::getTaste);
+
+	private final String code;
+	private final Function<MenuResponse, Object> getter;
+
+	MenuField(String code, Function<MenuResponse, Object> getter) {
+		this.code = code;
+		this.getter = getter;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	/**
+	 * @param fields 쉼표로 여러 값 지정 (id,name,price). null 또는 빈 값이면 전체(null 반환)
+	 * @throws IllegalArgumentException 정의되지 않은 항목
+	 */
+	public static EnumSet<MenuField> parse(String fields) {
+		if (fields == null || fields.isBlank()) {
+			return null;
+		}
+		EnumSet<MenuField> set = EnumSet.noneOf(MenuField.class);
+		for (String code : fields.split(",")) {
+			MenuField field = of(code.trim());
+			if (field == null) {
+				throw new IllegalArgumentException("정의되지 않은 항목입니다 : " + code.trim());
+			}
+			set.add(field);
+		}
+		return set;
+	}
+
+	// 정의되지 않은 코드면 null
+	public static MenuField of(String code) {
+		for (MenuField field : values()) {
+			if (field.code.equals(code)) {
+				return field;
+			}
+		}
+		return null;
+	}
+
+	// 선택한 항목만 담은 응답 (항목 순서는 enum 순서)
+	public static Map<String, Object> project(MenuResponse menu, EnumSet<MenuField> fields) {
+		Map<String, Object> row = new LinkedHashMap<>();
+		for (MenuField field : fields) {
+			row.put(field.code, field.getter.apply(menu));
+		}
+		return row;
+	}
+}
@@ -0,0 +1,271 @@
+package com.kh.menu.model.dto;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * 메뉴 목록 조회 조건
+ *  - 요청 파라미터를 검증해서 만든 불변 객체. 서비스, 매퍼에는 이 객체만 전달된다.
+ *    (정의되지 않은 파라미터는 매퍼까지 전달되지 않음)
+ *  - 정렬, 다음 페이지 여부, 조건 유무, 조회 항목(전체/요약) 조합마다 고정된 SQL 문장을 사용한다. (MenuPageStatements)
+ *  - 목록 캐시의 키로도 사용한다. (equals/hashCode)
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class MenuQuery {
+	private static final MenuQuery ALL = new MenuQuery(null, null, Integer.MIN_VALUE, Integer.MAX_VALUE,
+			Sort.ID, null, null, 0, null);
+
+	private final EnumSet<MenuType> types; // null이면 조건 없음
+	private final EnumSet<MenuTaste> tastes;
+	private final int minPrice; // 조건이 없으면 Integer.MIN_VALUE
+	private final int maxPrice; // 조건이 없으면 Integer.MAX_VALUE
+	private final Sort sort;
+	private final Long after; // 이전 페이지의 마지막 id
+	private final Integer afterPrice; // 가격 정렬인 경우 이전 페이지의 마지막 가격
+	private final int limit; // 0이면 서비스 기본값
+	private final EnumSet<MenuField> fields; // 조회할 항목. null이면 전체
+	// 매퍼 바인딩용 코드 배열. 항상 enum 개수만큼 채워서 IN 목록의 길이가 변하지 않게 한다
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private final String[] typeCodes;
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private final String[] tasteCodes;
+
+	private MenuQuery(EnumSet<MenuType> types, EnumSet<MenuTaste> tastes, int minPrice, int maxPrice,
+			Sort sort, Long after, Integer afterPrice, int limit, EnumSet<MenuField> fields) {
+		this.types = types;
+		this.tastes = tastes;
+		this.minPrice = minPrice;
+		this.maxPrice = maxPrice;
+		this.sort = sort;
+		this.after = after;
+		this.afterPrice = afterPrice;
+		this.limit = limit;
+		this.fields = fields;
+		this.typeCodes = codes(types, MenuType.values().length, MenuType::getCode);
+		this.tasteCodes = codes(tastes, MenuTaste.values().length, MenuTaste::getCode);
+	}
+
+	// 전체 메뉴 id 순 (스트리밍, 재적재용)
+	public static MenuQuery all() {
+		return ALL;
+	}
+
+	/**
+	 * 요청 파라미터로 조회 조건 생성
+	 * @param type 쉼표로 여러 값 지정 (kr,jp). null 또는 all이면 조건 없음
+	 * @param taste 쉼표로 여러 값 지정. null 또는 all이면 조건 없음
+	 * @param price 최소-최대 (5000-10000, 5000-, -10000). 양 끝 포함
+	 * @param sort id(기본), price, -price
+	 * @param after 이전 페이지의 마지막 id
+	 * @param afterPrice 이전 페이지의 마지막 가격 (가격 정렬인 경우 after와 함께 필수)
+	 * @param limit 조회 건수 (null이면 서비스 기본값)
+	 * @throws IllegalArgumentException 정의되지 않은 값, 형식 오류
+	 */
+	public static MenuQuery of(String type, String taste, String price, String sort,
+			Long after, Integer afterPrice, Integer limit) {
+		Sort order = Sort.of(sort);
+		if (order != Sort.ID && after != null && afterPrice == null) {
+			throw new IllegalArgumentException("가격 정렬은 after 대신 cursor로 다음 페이지를 조회합니다.");
+		}
+		if (limit != null && limit <= 0) {
+			throw new IllegalArgumentException("limit은 1 이상입니다 : " + limit);
+		}
+		int[] range = parsePrice(price);
+		return new MenuQuery(parseCodes(type, MenuType.class, MenuType::of),
+				parseCodes(taste, MenuTaste.class, MenuTaste::of),
+				range[0], range[1], order, after, order == Sort.ID ? null : afterPrice, limit == null ? 0 : limit, null);
+	}
+
+	// 조회 건수만 바꾼 조건 (다음 페이지 확인용 limit + 1 조회 등)
+	public MenuQuery withLimit(int limit) {
+		return new MenuQuery(types, tastes, minPrice, maxPrice, sort, after, afterPrice, limit, fields);
+	}
+
+	// 조회 항목만 바꾼 조건 (fields가 null이면 전체 항목)
+	public MenuQuery withFields(EnumSet<MenuField> fields) {
+		return new MenuQuery(types, tastes, minPrice, maxPrice, sort, after, afterPrice, limit, fields);
+	}
+
+	/**
+	 * 요청 파라미터 형식 (type=kr,jp&price=5000-&sort=price 등). fromParams로 같은 조건을 다시 만들 수 있다.
+	 *  - 첫 페이지 조건만 표현한다. (after, afterPrice 제외) 캐시 예열 목록 저장용
+	 */
+	public String toParams() {
+		StringJoiner params = new StringJoiner("&");
+		if (types != null) {
+			params.add("type=" + join(types, MenuType::getCode));
+		}
+		if (tastes != null) {
+			params.add("taste=" + join(tastes, MenuTaste::getCode));
+		}
+		if (hasPriceRange()) {
+			params.add("price=" + (minPrice == Integer.MIN_VALUE ? "" : minPrice)
+					+ "-" + (maxPrice == Integer.MAX_VALUE ? "" : maxPrice));
+		}
+		if (sort != Sort.ID) {
+			params.add("sort=" + sort.getCode());
+		}
+		if (limit != 0) {
+			params.add("limit=" + limit);
+		}
+		if (fields != null) {
+			params.add("fields=" + join(fields, MenuField::getCode));
+		}
+		return params.toString();
+	}
+
+	/**
+	 * toParams 형식 -> 조회조건
+	 * @throws IllegalArgumentException 정의되지 않은 파라미터, 형식 오류
+	 */
+	public static MenuQuery fromParams(String params) {
+		Map<String, String> values = new HashMap<>();
+		for (String param : params.split("&")) {
+			if (param.isEmpty()) {
+				continue;
+			}
+			int eq = param.indexOf('=');
+			if (eq < 0) {
+				throw new IllegalArgumentException("잘못된 파라미터입니다 : " + param);
+			}
+			values.put(param.substring(0, eq), param.substring(eq + 1));
+		}
+		String limit = values.remove("limit");
+		String fields = values.remove("fields");
+		MenuQuery query;
+		try {
+			query = of(values.remove("type"), values.remove("taste"), values.remove("price"), values.remove("sort"),
+					null, null, limit == null ? null : Integer.valueOf(limit));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("잘못된 limit입니다 : " + limit, e);
+		}
+		if (!values.isEmpty()) {
+			throw new IllegalArgumentException("정의되지 않은 파라미터입니다 : " + values.keySet());
+		}
+		return query.withFields(MenuField.parse(fields));
+	}
+
+	public boolean hasPriceRange() {
+		return minPrice != Integer.MIN_VALUE || maxPrice != Integer.MAX_VALUE;
+	}
+
+	// 단일값 조건(type, taste 각각 하나 이하, 가격 조건 없음)으로 표현할 수 없는 조건인지
+	public boolean isMultiValued() {
+		return types != null && types.size() > 1 || tastes != null && tastes.size() > 1 || hasPriceRange();
+	}
+
+	// 해당 type/taste/price 행이 이 조건의 결과에 포함될 수 있는지 (캐시 제거용)
+	public boolean matches(String type, String taste, int price) {
+		return (types == null || types.contains(MenuType.of(type)))
+				&& (tastes == null || tastes.contains(MenuTaste.of(taste)))
+				&& price >= minPrice && price <= maxPrice;
+	}
+
+	private static <E extends Enum<E>> EnumSet<E> parseCodes(String value, Class<E> type, Function<String, E> of) {
+		if (value == null || value.isBlank()) {
+			return null;
+		}
+		EnumSet<E> set = EnumSet.noneOf(type);
+		for (String code : value.split(",")) {
+			String trimmed = code.trim();
+			if ("all".equals(trimmed)) {
+				return null;
+			}
+			E e = of.apply(trimmed);
+			if (e == null) {
+				throw new IllegalArgumentException("정의되지 않은 값입니다 : " + trimmed);
+			}
+			set.add(e);
+		}
+		return set;
+	}
+
+	// {최소, 최대}
+	private static int[] parsePrice(String price) {
+		if (price == null || price.isBlank()) {
+			return new int[] { Integer.MIN_VALUE, Integer.MAX_VALUE };
+		}
+		String range = price.trim();
+		int dash = range.startsWith("-") ? 0 : range.indexOf('-');
+		if (dash < 0) {
+			throw new IllegalArgumentException("price는 최소-최대 형식입니다 : " + range);
+		}
+		try {
+			String min = range.substring(0, dash).trim();
+			String max = range.substring(dash + 1).trim();
+			return new int[] {
+					min.isEmpty() ? Integer.MIN_VALUE : Integer.parseInt(min),
+					max.isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(max) };
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("price는 최소-최대 형식입니다 : " + range, e);
+		}
+	}
+
+	private static <E extends Enum<E>> String join(EnumSet<E> set, Function<E, String> code) {
+		StringJoiner joiner = new StringJoiner(",");
+		for (E e : set) {
+			joiner.add(code.apply(e));
+		}
+		return joiner.toString();
+	}
+
+	// 조건이 없으면 모두 null, 있으면 남는 칸을 마지막 값으로 채운다
+	private static <E extends Enum<E>> String[] codes(EnumSet<E> set, int size, Function<E, String> code) {
+		String[] codes = new String[size];
+		if (set != null && !set.isEmpty()) {
+			int i = 0;
+			for (E e : set) {
+				codes[i++] = code.apply(e);
+			}
+			Arrays.fill(codes, i, size, codes[i - 1]);
+		}
+		return codes;
+	}
+
+	/*
+	 * 정렬 기준
+	 *  - 정렬마다 SQL 문장이 따로 있다. (selectMenusById, selectMenusByPrice, selectMenusByPriceDesc)
+	 *  - 가격 정렬의 다음 페이지는 (가격, id) 두 값으로 찾는다.
+	 */
+	public enum Sort {
+		ID("id"), PRICE("price"), PRICE_DESC("-price");
+
+		private final String code;
+
+		Sort(String code) {
+			this.code = code;
+		}
+
+		public String getCode() {
+			return code;
+		}
+
+		/**
+		 * @param code null이면 ID
+		 * @throws IllegalArgumentException 정의되지 않은 정렬
+		 */
+		public static Sort of(String code) {
+			if (code == null || code.isBlank()) {
+				return ID;
+			}
+			for (Sort sort : values()) {
+				if (sort.code.equals(code.trim())) {
+					return sort;
+				}
+			}
+			throw new IllegalArgumentException("정의되지 않은 정렬입니다 : " + code);
+		}
+	}
+}
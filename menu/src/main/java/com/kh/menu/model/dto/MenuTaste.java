@@ -0,0 +1,32 @@
+package com.kh.menu.model.dto;
+
+// 메뉴 맛 (DB에는 code 문자열로 저장)
+public enum MenuTaste {
+	MILD("mild"), // 순한맛
+	HOT("hot"); // 매운맛
+
+	private static final MenuTaste[] VALUES = values();
+	private final String code;
+
+	MenuTaste(String code) {
+		this.code = code;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	// 정의되지 않은 코드면 null
+	public static MenuTaste of(String code) {
+		for (MenuTaste taste : VALUES) {
+			if (taste.code.equals(code)) {
+				return taste;
+			}
+		}
+		return null;
+	}
+
+	public static MenuTaste ofOrdinal(int ordinal) {
+		return VALUES[ordinal];
+	}
+}
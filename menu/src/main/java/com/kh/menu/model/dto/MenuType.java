@@ -0,0 +1,33 @@
+package com.kh.menu.model.dto;
+
+// 메뉴 타입 (DB에는 code 문자열로 저장)
+public enum MenuType {
+	KR("kr"), // 한식
+	CH("ch"), // 중식
+	JP("jp"); // 일식
+
+	private static final MenuType[] VALUES = values();
+	private final String code;
+
+	MenuType(String code) {
+		this.code = code;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	// 정의되지 않은 코드면 null
+	public static MenuType of(String code) {
+		for (MenuType type : VALUES) {
+			if (type.code.equals(code)) {
+				return type;
+			}
+		}
+		return null;
+	}
+
+	public static MenuType ofOrdinal(int ordinal) {
+		return VALUES[ordinal];
+	}
+}
@@ -0,0 +1,216 @@
+package com.kh.menu.model.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.kh.menu.model.dao.MenuDao;
+import com.kh.menu.model.dto.MenuDto.MenuChange;
+import com.kh.menu.model.dto.MenuDto.MenuResponse;
+import com.kh.menu.model.dto.MenuQuery;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * 메뉴 변경 전달자
+ *  - MenuChangedEvent를 받으면 커밋 이후 마지막으로 전달한 행 버전 이후의 변경분(dao.selectChanges)을 읽어
+ *    모든 MenuChangeListener에 전달한다. (트랜잭션이 없는 단건 수정은 즉시, 일괄 처리는 커밋 직후)
+ *  - 행 버전은 커밋 순서대로 발급되므로, 리스너는 항상 커밋된 변경의 앞부분 전체를 반영한 상태가 된다.
+ *    따라서 마지막으로 반영한 행 버전을 목록 ETag 버전으로 쓸 수 있다. (DB 조회의 dao.selectTableVersion과 같은 값,
+ *    서버나 스냅샷 모드와 무관)
+ *  - 재조회와 전달을 하나의 락 안에서 처리하므로, 늦게 전달되는 쪽이 항상 더 최신 행을 읽는다.
+ *    리스너에는 커밋 순서가 뒤바뀐 예전 값이 덮어써지지 않는다.
+ *  - 서버 시작 시 전체 메뉴를 한 번 스트리밍해서 모든 리스너를 적재한다.
+ *  - 쓰기는 이미 커밋된 뒤이므로 전달 중 예외는 요청으로 올리지 않는다. 실패한 리스너는 주기적으로 전체 재적재한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(0) // 다른 ApplicationRunner(캐시 예열 등)보다 먼저 리스너를 적재한다
+public class MenuChangeDispatcher implements ApplicationRunner {
+	private static final int CHANGES_PER_QUERY = 1000;
+
+	private final MenuDao dao;
+	private final ObjectProvider<MenuChangeListener> listeners;
+
+	private final Object lock = new Object();
+	private final Object reloadLock = new Object();
+	private Long lastVersion; // 리스너에 전달한 마지막 행 버전. 최초 적재 전에는 null (lock으로 보호)
+	private final Set<MenuChangeListener> failed = ConcurrentHashMap.newKeySet(); // 재적재가 필요한 리스너
+
+	@TransactionalEventListener(fallbackExecution = true)
+	@Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+	public void onMenuChanged(MenuChangedEvent event) {
+		List<MenuChangeListener> targets = listeners.orderedStream().toList();
+		if (targets.isEmpty() || event.getIds().isEmpty()) {
+			return;
+		}
+		synchronized (lock) {
+			if (lastVersion == null) {
+				return; // 최초 적재가 끝나면 그 사이 변경분도 함께 반영된다
+			}
+			List<MenuChange> changes;
+			try {
+				changes = loadChanges(lastVersion);
+			} catch (RuntimeException e) {
+				// 쓰기는 이미 커밋되었으므로 예외를 올리지 않고, 전체 재적재로 보정한다
+				log.error("menu changes not loaded : {}", event.getIds(), e);
+				failed.addAll(targets);
+				return;
+			}
+			if (changes == null) {
+				// 전달하지 못한 삭제 기록이 이미 정리됨
+				log.error("menu changes since {} pruned, reload scheduled", lastVersion);
+				failed.addAll(targets);
+				return;
+			}
+			if (!changes.isEmpty()) {
+				lastVersion = changes.get(changes.size() - 1).getVersion();
+				deliver(targets, toRows(changes, Long.MIN_VALUE), lastVersion);
+			}
+		}
+	}
+
+	/**
+	 * 변경 반영에 실패한 리스너 재적재
+	 *  - 실패한 리스너는 최신 변경을 놓쳤으므로 DB 전체를 다시 읽어서 맞춘다.
+	 */
+	@Scheduled(fixedDelayString = "${menu.listeners.retry-interval-ms:5000}",
+			initialDelayString = "${menu.listeners.retry-interval-ms:5000}")
+	public void reloadFailed() {
+		if (failed.isEmpty()) {
+			return;
+		}
+		List<MenuChangeListener> targets = new ArrayList<>(failed);
+		failed.removeAll(targets);
+		try {
+			reload(targets);
+		} catch (RuntimeException e) {
+			failed.addAll(targets);
+			log.error("menu listeners reload failed", e);
+		}
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		List<MenuChangeListener> targets = listeners.orderedStream().toList();
+		if (!targets.isEmpty()) {
+			try {
+				reload(targets);
+			} catch (RuntimeException e) {
+				// 적재에 실패한 리스너는 비어있는 상태로 남고, 조회는 DB로 처리된다. (재적재 재시도)
+				log.error("menu listeners initial load failed", e);
+				failed.addAll(targets);
+			}
+		}
+	}
+
+	/**
+	 * 전체 재적재
+	 *  - DB 스트리밍은 락 밖에서 처리하므로 그동안의 변경 통지는 막히지 않는다.
+	 *  - 스트리밍 전에 읽은 테이블 버전 이후의 변경분을, 새 상태로 교체한 직후 다시 읽어서 반영한다.
+	 *    (스트리밍 도중 커밋된 변경이 결과에 일부만 담겨도 변경분으로 맞춰진다)
+	 */
+	public void reload(List<MenuChangeListener> targets) {
+		synchronized (reloadLock) {
+			long start = System.currentTimeMillis();
+			long from = dao.selectTableVersion();
+			try {
+				targets.forEach(MenuChangeListener::beginReload);
+				dao.streamMenus(MenuQuery.all(), row -> {
+					for (MenuChangeListener listener : targets) {
+						listener.reloadRow(row);
+					}
+				});
+			} catch (RuntimeException e) {
+				targets.forEach(MenuChangeListener::abortReload);
+				throw e;
+			}
+			synchronized (lock) {
+				List<MenuChange> changes;
+				try {
+					changes = loadChanges(from);
+					if (changes == null) {
+						throw new IllegalStateException("재적재 중에 삭제 기록이 정리되었습니다 : " + from);
+					}
+				} catch (RuntimeException e) {
+					targets.forEach(MenuChangeListener::abortReload);
+					throw e;
+				}
+				long version = changes.isEmpty() ? from : changes.get(changes.size() - 1).getVersion();
+				targets.forEach(listener -> listener.endReload(from));
+				if (!changes.isEmpty()) {
+					deliver(targets, toRows(changes, Long.MIN_VALUE), version);
+				}
+				// 재적재하지 않은 리스너에는 아직 전달하지 않은 변경분만 전달
+				if (lastVersion != null && version > lastVersion) {
+					List<MenuChangeListener> others = listeners.orderedStream()
+							.filter(listener -> !targets.contains(listener)).toList();
+					if (!others.isEmpty()) {
+						deliver(others, toRows(changes, lastVersion), version);
+					}
+				}
+				lastVersion = lastVersion == null ? version : Math.max(lastVersion, version);
+			}
+			log.info("menu listeners reloaded : {} ({}ms)", targets.size(), System.currentTimeMillis() - start);
+		}
+	}
+
+	// 리스너마다 따로 전달. 예외가 난 리스너는 재적재 대상으로 표시하고 나머지 리스너에는 계속 전달한다
+	private void deliver(List<MenuChangeListener> targets, Map<Long, MenuResponse> changes, long version) {
+		for (MenuChangeListener listener : targets) {
+			try {
+				listener.menusChanged(changes, version);
+			} catch (RuntimeException e) {
+				log.error("menu listener failed, reload scheduled : {}", listener.getClass().getSimpleName(), e);
+				failed.add(listener);
+			}
+		}
+	}
+
+	// since 이후의 변경분 전체 (버전 순). since 이후의 삭제 기록이 이미 정리되었으면 null
+	private List<MenuChange> loadChanges(long since) {
+		if (since < dao.selectPrunedVersion()) {
+			return null;
+		}
+		List<MenuChange> changes = new ArrayList<>();
+		long from = since;
+		List<MenuChange> page;
+		do {
+			page = dao.selectChanges(from, CHANGES_PER_QUERY);
+			changes.addAll(page);
+			if (!page.isEmpty()) {
+				from = page.get(page.size() - 1).getVersion();
+			}
+		} while (page.size() == CHANGES_PER_QUERY);
+		return changes;
+	}
+
+	// 버전이 after보다 큰 변경의 id별 현재 행. 삭제된 메뉴는 null 값으로 담는다 (같은 id는 뒤의 변경이 남는다)
+	private static Map<Long, MenuResponse> toRows(List<MenuChange> changes, long after) {
+		Map<Long, MenuResponse> rows = new HashMap<>();
+		for (MenuChange change : changes) {
+			if (change.getVersion() > after) {
+				rows.put(change.getId(), change.isDeleted() ? null
+						: new MenuResponse(change.getId(), change.getRestaurant(), change.getName(),
+								change.getPrice() == null ? 0 : change.getPrice(), // 조회 결과 매핑과 같게 null은 0
+								change.getType(), change.getTaste(), change.getVersion()));
+			}
+		}
+		return rows;
+	}
+}
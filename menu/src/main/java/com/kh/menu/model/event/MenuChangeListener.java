@@ -0,0 +1,33 @@
+package com.kh.menu.model.event;
+
+import java.util.Map;
+
+import com.kh.menu.model.dto.MenuDto.MenuResponse;
+
+/*
+ * 메뉴 테이블을 메모리에 유지하는 구조(스냅샷, 인덱스 등)가 구현하는 인터페이스
+ *  - 변경 통지와 재적재는 MenuChangeDispatcher가 호출한다.
+ *  - menusChanged, endReload는 dispatcher의 락 안에서 호출되므로 서로 동시에 실행되지 않는다.
+ *  - beginReload, reloadRow는 락 밖에서 호출되므로 menusChanged와 동시에 실행될 수 있다.
+ *    재적재 중인 새 상태는 기존 상태와 따로 만들어야 한다.
+ */
+public interface MenuChangeListener {
+	/**
+	 * 커밋된 변경 반영
+	 * @param changes id별 현재 행. 값이 null이면 삭제된 메뉴
+	 * @param version 반영 후 상태의 버전 (마지막으로 반영한 변경의 행 버전, 목록 ETag용)
+	 */
+	void menusChanged(Map<Long, MenuResponse> changes, long version);
+
+	// 전체 재적재 시작. 새 상태를 만들 준비
+	void beginReload();
+
+	// 재적재 중 한 행 추가 (id 오름차순)
+	void reloadRow(MenuResponse row);
+
+	// 재적재 완료. 새 상태로 교체 (version : 새 상태의 버전)
+	void endReload(long version);
+
+	// 재적재 실패. 만들던 새 상태를 버리고 기존 상태 유지
+	void abortReload();
+}
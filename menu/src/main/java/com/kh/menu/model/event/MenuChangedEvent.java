@@ -0,0 +1,19 @@
+package com.kh.menu.model.event;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * 메뉴 변경 이벤트
+ *  - MenuService의 등록/수정/삭제 메서드가 변경된 메뉴 id 목록을 담아 발행한다.
+ *  - 변경 내용은 담지 않는다. 수신측(MenuChangeDispatcher)이 커밋 이후 DB에서 현재 행을 다시 읽는다.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class MenuChangedEvent {
+	private final List<Long> ids;
+}
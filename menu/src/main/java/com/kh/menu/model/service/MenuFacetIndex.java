@@ -0,0 +1,341 @@
+package com.kh.menu.model.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.kh.menu.model.dto.MenuDto.MenuFacets;
+import com.kh.menu.model.dto.MenuDto.MenuResponse;
+import com.kh.menu.model.dto.MenuQuery;
+import com.kh.menu.model.dto.MenuTaste;
+import com.kh.menu.model.dto.MenuType;
+import com.kh.menu.model.event.MenuChangeListener;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * 메뉴 필터/집계용 비트맵 인덱스
+ *  - type별, taste별, 가격구간별로 해당하는 메뉴 id 집합을 압축 비트맵(RoaringBitmap)으로 보관한다.
+ *  - 다중값 필터(type=kr,jp)는 OR, 서로 다른 조건은 AND 연산으로 처리하고,
+ *    필터별 건수(facet count)는 비트맵 교집합의 크기로 계산하므로 GROUP BY 쿼리가 필요 없다.
+ *  - 등록/수정/삭제는 MenuChangeDispatcher를 통해 해당 id만 비트맵에서 빼고 다시 넣는다.
+ *  - 조회는 읽기 락, 변경은 쓰기 락 (RoaringBitmap은 스레드 안전하지 않음)
+ *  - 비트맵 원소는 int이므로 id가 0 ~ Integer.MAX_VALUE 범위를 벗어나는 메뉴가 생기면 인덱스를 쓰지 않는다.
+ *    (isIdOutOfRange. 목록은 DB/스냅샷 조회로 처리하고, 다음 재적재 때 다시 확인)
+ */
+@Slf4j
+@Component
+public class MenuFacetIndex implements MenuChangeListener {
+	private final int bucketSize;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private State state; // 최초 적재 전에는 null (lock으로 보호)
+	private State building; // 재적재 중인 새 상태
+	private long version; // 인덱스 버전 (ETag용). dispatcher가 전달한 행 버전 (lock으로 보호)
+
+	public MenuFacetIndex(@Value("${menu.facet.price-bucket:5000}") int bucketSize) {
+		this.bucketSize = bucketSize;
+	}
+
+	public boolean isLoaded() {
+		lock.readLock().lock();
+		try {
+			return state != null;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// int 범위를 벗어난 id가 있어서 인덱스로 조회할 수 없는지 (적재 전이면 false)
+	public boolean isIdOutOfRange() {
+		lock.readLock().lock();
+		try {
+			return state != null && state.idOutOfRange;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 조건에 해당하는 id를 query.after 다음부터 최대 limit개 반환 (id 오름차순, query의 정렬은 사용하지 않음)
+	 * @throws IllegalStateException 인덱스 적재 전, int 범위를 벗어난 id가 있는 경우
+	 */
+	public IdPage select(MenuQuery query, int limit) {
+		// 음수 after는 모든 id보다 작으므로 첫 페이지 (DB 조회의 ID > #{after}와 같게)
+		Long after = query.getAfter() != null && query.getAfter() < 0 ? null : query.getAfter();
+		lock.readLock().lock();
+		try {
+			State s = loadedState();
+			RoaringBitmap matched = s.match(query, null);
+			List<Long> ids = new ArrayList<>(limit);
+			if (after == null || after < Integer.MAX_VALUE) {
+				PeekableIntIterator it = matched.getIntIterator();
+				if (after != null) {
+					it.advanceIfNeeded((int) (after + 1));
+				}
+				while (it.hasNext() && ids.size() < limit) {
+					ids.add((long) it.next());
+				}
+			}
+			return new IdPage(ids, version);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 필터 결과 건수와 각 필터값별 건수
+	 *  - 어떤 항목의 건수는 그 항목 자신의 조건만 빼고 나머지 조건을 적용해서 계산한다.
+	 *    (type=kr로 필터 중이어도 jp를 선택하면 몇 건이 되는지 보여주기 위함)
+	 */
+	public MenuFacets facets(MenuQuery query) {
+		lock.readLock().lock();
+		try {
+			State s = loadedState();
+			MenuFacets facets = new MenuFacets();
+			facets.setTotal(s.match(query, null).getLongCardinality());
+			RoaringBitmap exceptType = s.match(query, Dimension.TYPE);
+			Map<String, Long> typeCounts = new LinkedHashMap<>();
+			s.types.forEach((type, ids) -> typeCounts.put(type.getCode(), (long) RoaringBitmap.andCardinality(exceptType, ids)));
+			facets.setType(typeCounts);
+			RoaringBitmap exceptTaste = s.match(query, Dimension.TASTE);
+			Map<String, Long> tasteCounts = new LinkedHashMap<>();
+			s.tastes.forEach((taste, ids) -> tasteCounts.put(taste.getCode(), (long) RoaringBitmap.andCardinality(exceptTaste, ids)));
+			facets.setTaste(tasteCounts);
+			RoaringBitmap exceptPrice = s.match(query, Dimension.PRICE);
+			Map<String, Long> priceCounts = new LinkedHashMap<>();
+			s.buckets.forEach((bucket, ids) -> {
+				long count = RoaringBitmap.andCardinality(exceptPrice, ids);
+				if (count > 0) {
+					priceCounts.put(bucketLabel(bucket), count);
+				}
+			});
+			facets.setPrice(priceCounts);
+			return facets;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 인덱스 버전 (마지막으로 반영한 변경의 행 버전)
+	 * @throws IllegalStateException 인덱스 적재 전
+	 */
+	public long version() {
+		lock.readLock().lock();
+		try {
+			loadedState();
+			return version;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void menusChanged(Map<Long, MenuResponse> changes, long version) {
+		lock.writeLock().lock();
+		try {
+			if (state == null) {
+				return;
+			}
+			boolean outOfRange = state.idOutOfRange;
+			changes.forEach((id, row) -> {
+				state.remove(id);
+				if (row != null) {
+					state.add(row);
+				}
+			});
+			if (state.idOutOfRange && !outOfRange) {
+				log.warn("menu facet index disabled until next reload : id out of int range");
+			}
+			this.version = version;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void beginReload() {
+		building = new State();
+	}
+
+	@Override
+	public void reloadRow(MenuResponse row) {
+		building.add(row);
+	}
+
+	@Override
+	public void endReload(long version) {
+		lock.writeLock().lock();
+		try {
+			building.optimize();
+			state = building;
+			building = null;
+			if (state.idOutOfRange) {
+				log.warn("menu facet index disabled : id out of int range");
+			}
+			this.version = version;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void abortReload() {
+		building = null;
+	}
+
+	private State loadedState() {
+		if (state == null) {
+			throw new IllegalStateException("메뉴 필터 인덱스가 아직 적재되지 않았습니다.");
+		}
+		if (state.idOutOfRange) {
+			throw new IllegalStateException("int 범위를 벗어난 메뉴 id가 있어 필터 인덱스를 사용할 수 없습니다.");
+		}
+		return state;
+	}
+
+	private String bucketLabel(int bucket) {
+		return ((long) bucket * bucketSize) + "-" + ((long) (bucket + 1) * bucketSize - 1);
+	}
+
+	private enum Dimension {
+		TYPE, TASTE, PRICE
+	}
+
+	// 인덱스 상태 (lock 또는 재적재 스레드 안에서만 접근)
+	private class State {
+		private final RoaringBitmap all = new RoaringBitmap();
+		private final EnumMap<MenuType, RoaringBitmap> types = new EnumMap<>(MenuType.class);
+		private final EnumMap<MenuTaste, RoaringBitmap> tastes = new EnumMap<>(MenuTaste.class);
+		private final TreeMap<Integer, RoaringBitmap> buckets = new TreeMap<>();
+		private final Map<Integer, Integer> prices = new HashMap<>(); // 구간 경계 비교, 변경 시 기존 구간 확인용
+		private boolean idOutOfRange; // int 범위를 벗어난 id의 메뉴가 있었음 (그 메뉴는 담지 않음)
+
+		private State() {
+			for (MenuType type : MenuType.values()) {
+				types.put(type, new RoaringBitmap());
+			}
+			for (MenuTaste taste : MenuTaste.values()) {
+				tastes.put(taste, new RoaringBitmap());
+			}
+		}
+
+		private void add(MenuResponse row) {
+			if (!inRange(row.getId())) {
+				idOutOfRange = true;
+				return;
+			}
+			int id = (int) row.getId();
+			all.add(id);
+			prices.put(id, row.getPrice());
+			// 정의되지 않은 type/taste는 해당 조건으로 필터링 시 결과에서 빠진다 (DB 조회와 동일)
+			MenuType type = MenuType.of(row.getType());
+			if (type != null) {
+				types.get(type).add(id);
+			}
+			MenuTaste taste = MenuTaste.of(row.getTaste());
+			if (taste != null) {
+				tastes.get(taste).add(id);
+			}
+			buckets.computeIfAbsent(Math.floorDiv(row.getPrice(), bucketSize), b -> new RoaringBitmap()).add(id);
+		}
+
+		private void remove(long longId) {
+			if (!inRange(longId)) {
+				return;
+			}
+			int id = (int) longId;
+			Integer price = prices.remove(id);
+			if (price == null) {
+				return;
+			}
+			all.remove(id);
+			types.values().forEach(ids -> ids.remove(id));
+			tastes.values().forEach(ids -> ids.remove(id));
+			int bucket = Math.floorDiv(price, bucketSize);
+			RoaringBitmap ids = buckets.get(bucket);
+			ids.remove(id);
+			if (ids.isEmpty()) {
+				buckets.remove(bucket);
+			}
+		}
+
+		private static boolean inRange(long id) {
+			return id >= 0 && id <= Integer.MAX_VALUE;
+		}
+
+		private void optimize() {
+			all.runOptimize();
+			types.values().forEach(RoaringBitmap::runOptimize);
+			tastes.values().forEach(RoaringBitmap::runOptimize);
+			buckets.values().forEach(RoaringBitmap::runOptimize);
+		}
+
+		// 필터 조건의 AND. except로 지정한 조건은 제외
+		private RoaringBitmap match(MenuQuery query, Dimension except) {
+			RoaringBitmap result = all.clone();
+			if (query.getTypes() != null && except != Dimension.TYPE) {
+				result.and(union(query.getTypes(), types));
+			}
+			if (query.getTastes() != null && except != Dimension.TASTE) {
+				result.and(union(query.getTastes(), tastes));
+			}
+			if (query.hasPriceRange() && except != Dimension.PRICE) {
+				result.and(priceRange(query.getMinPrice(), query.getMaxPrice()));
+			}
+			return result;
+		}
+
+		private <E extends Enum<E>> RoaringBitmap union(EnumSet<E> values, EnumMap<E, RoaringBitmap> index) {
+			RoaringBitmap result = new RoaringBitmap();
+			for (E value : values) {
+				result.or(index.get(value));
+			}
+			return result;
+		}
+
+		// 구간 전체가 범위 안이면 비트맵 OR, 경계에 걸친 구간만 가격을 하나씩 비교
+		private RoaringBitmap priceRange(int min, int max) {
+			RoaringBitmap result = new RoaringBitmap();
+			if (min > max) {
+				return result;
+			}
+			for (Map.Entry<Integer, RoaringBitmap> entry : buckets
+					.subMap(Math.floorDiv(min, bucketSize), true, Math.floorDiv(max, bucketSize), true).entrySet()) {
+				long low = (long) entry.getKey() * bucketSize;
+				long high = low + bucketSize - 1;
+				if (low >= min && high <= max) {
+					result.or(entry.getValue());
+				} else {
+					entry.getValue().forEach((int id) -> {
+						int price = prices.get(id);
+						if (price >= min && price <= max) {
+							result.add(id);
+						}
+					});
+				}
+			}
+			return result;
+		}
+	}
+
+	@Getter
+	@AllArgsConstructor
+	public static class IdPage {
+		private final List<Long> ids;
+		private final long version;
+	}
+}
@@ -0,0 +1,219 @@
+package com.kh.menu.model.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kh.menu.common.hotkey.HotKeyTracker;
+import com.kh.menu.common.hotkey.HotKeyTracker.HotKey;
+import com.kh.menu.model.dto.MenuDto.MenuResponse;
+import com.kh.menu.model.dto.MenuQuery;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * 자주 조회되는 메뉴/목록 조건 추적 및 서버 시작 시 캐시 예열
+ *  - 컨트롤러의 조회 요청마다 id(단건)와 조회조건(목록 첫 페이지)을 HotKeyTracker에 기록한다.
+ *  - 주기적으로 상위 topSize개를 로컬 파일에 저장하고, 카운터를 절반으로 줄인다. (서버 종료 시에도 저장)
+ *  - 서버 시작 시 (메뉴 리스너 적재 후) 파일의 메뉴와 목록을 미리 조회해서 캐시를 채우고,
+ *    캐시에 올라간 메뉴와 목록은 조회와 JSON 변환을 warmupRounds번 반복해서 JIT 컴파일을 유도한다.
+ *    ApplicationRunner가 모두 끝난 뒤에 ApplicationReadyEvent가 발행되므로, 예열이 끝나야 준비 완료 상태가 된다.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE) // MenuChangeDispatcher의 초기 적재 이후
+public class MenuHotKeys implements ApplicationRunner {
+	private static final String MENU = "menu";
+	private static final String LIST = "list";
+
+	private final MenuService menuService;
+	private final ObjectMapper objectMapper;
+	private final HotKeyTracker<Long> menus;
+	private final HotKeyTracker<MenuQuery> lists;
+	private final Path file;
+	private final int topSize;
+	private final int warmupRounds;
+
+	public MenuHotKeys(MenuService menuService, ObjectMapper objectMapper,
+			@Value("${menu.hotkeys.file:menu-hotkeys.tsv}") String file,
+			@Value("${menu.hotkeys.top-size:100}") int topSize,
+			@Value("${menu.hotkeys.sketch-width:8192}") int sketchWidth,
+			@Value("${menu.hotkeys.warmup-rounds:50}") int warmupRounds) {
+		this.menuService = menuService;
+		this.objectMapper = objectMapper;
+		this.file = Path.of(file);
+		this.topSize = topSize;
+		this.warmupRounds = warmupRounds;
+		this.menus = new HotKeyTracker<>(sketchWidth, topSize * 2);
+		this.lists = new HotKeyTracker<>(sketchWidth, topSize * 2);
+	}
+
+	public void recordMenu(long id) {
+		menus.record(id);
+	}
+
+	// 다음 페이지(after) 조회는 예열 대상이 아니므로 첫 페이지만 기록
+	public void recordList(MenuQuery query) {
+		if (query.getAfter() == null) {
+			lists.record(query);
+		}
+	}
+
+	public Map<String, List<String>> top() {
+		List<String> menuKeys = new ArrayList<>();
+		for (HotKey<Long> hotKey : menus.top(topSize)) {
+			menuKeys.add(hotKey.getKey() + " (" + hotKey.getCount() + ")");
+		}
+		List<String> listKeys = new ArrayList<>();
+		for (HotKey<MenuQuery> hotKey : lists.top(topSize)) {
+			listKeys.add(hotKey.getKey().toParams() + " (" + hotKey.getCount() + ")");
+		}
+		return Map.of(MENU, menuKeys, LIST, listKeys);
+	}
+
+	@Scheduled(fixedDelayString = "${menu.hotkeys.persist-interval-ms:60000}",
+			initialDelayString = "${menu.hotkeys.persist-interval-ms:60000}")
+	public void persist() {
+		try {
+			save();
+		} catch (IOException e) {
+			log.warn("menu hot keys not saved : {}", e.getMessage());
+		}
+		menus.decay();
+		lists.decay();
+	}
+
+	@PreDestroy
+	public void persistOnShutdown() {
+		try {
+			save();
+		} catch (IOException e) {
+			log.warn("menu hot keys not saved : {}", e.getMessage());
+		}
+	}
+
+	/*
+	 * 파일 형식 : 한 줄에 한 건, "종류\t키\t추정 조회 수"
+	 *  - menu\t12\t340, list\ttype=kr&sort=price\t120
+	 *  - 임시 파일에 쓴 뒤 교체하므로 저장 도중 종료되어도 이전 파일이 깨지지 않는다.
+	 */
+	private void save() throws IOException {
+		List<HotKey<Long>> topMenus = menus.top(topSize);
+		List<HotKey<MenuQuery>> topLists = lists.top(topSize);
+		if (topMenus.isEmpty() && topLists.isEmpty()) {
+			return;
+		}
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+			for (HotKey<Long> hotKey : topMenus) {
+				writer.write(MENU + "\t" + hotKey.getKey() + "\t" + hotKey.getCount());
+				writer.newLine();
+			}
+			for (HotKey<MenuQuery> hotKey : topLists) {
+				writer.write(LIST + "\t" + hotKey.getKey().toParams() + "\t" + hotKey.getCount());
+				writer.newLine();
+			}
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (!Files.isReadable(file)) {
+			return;
+		}
+		List<Long> ids = new ArrayList<>();
+		List<MenuQuery> queries = new ArrayList<>();
+		try {
+			for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+				String[] parts = line.split("\t", -1);
+				try {
+					if (parts.length == 3 && MENU.equals(parts[0])) {
+						ids.add(Long.valueOf(parts[1]));
+					} else if (parts.length == 3 && LIST.equals(parts[0])) {
+						queries.add(MenuQuery.fromParams(parts[1]));
+					}
+				} catch (IllegalArgumentException e) {
+					log.debug("hot key skipped : {}", line); // 형식이 바뀐 예전 항목
+				}
+			}
+		} catch (IOException e) {
+			log.warn("menu hot keys not loaded : {}", e.getMessage());
+			return;
+		}
+		long start = System.currentTimeMillis();
+		int warmed = warmUp(ids, queries);
+		log.info("menu cache warm-up : {} menus, {} lists ({} ok), {} rounds, {} ms",
+				ids.size(), queries.size(), warmed, warmupRounds, System.currentTimeMillis() - start);
+	}
+
+	/*
+	 * 첫 회차에 캐시를 채우고(메뉴는 한 번의 IN 목록 조회), 이후 회차는 캐시(또는 스냅샷)에 올라간 키만
+	 * 조회와 JSON 변환을 반복한다. 없는 메뉴나 캐시하지 않는 조회는 매 회차 DB로 가므로 첫 회차만 실행한다.
+	 */
+	private int warmUp(List<Long> ids, List<MenuQuery> queries) {
+		if (!ids.isEmpty()) {
+			try {
+				menuService.selectMenusByIds(ids);
+			} catch (RuntimeException e) {
+				log.warn("menu warm-up failed : {}", e.getMessage());
+				return 0;
+			}
+		}
+		int warmed;
+		try {
+			warmed = warmRound(ids, queries);
+		} catch (JsonProcessingException | RuntimeException e) {
+			log.warn("menu warm-up stopped : {}", e.getMessage());
+			return 0;
+		}
+		List<Long> cachedIds = ids.stream().filter(menuService::isMenuCached).toList();
+		List<MenuQuery> cachedQueries = queries.stream().filter(menuService::isListCached).toList();
+		try {
+			for (int round = 1; round < warmupRounds; round++) {
+				warmRound(cachedIds, cachedQueries);
+			}
+		} catch (JsonProcessingException | RuntimeException e) {
+			log.warn("menu warm-up stopped : {}", e.getMessage());
+		}
+		return warmed;
+	}
+
+	// 한 회차 조회와 JSON 변환. 응답한 메뉴/목록 수
+	private int warmRound(List<Long> ids, List<MenuQuery> queries) throws JsonProcessingException {
+		int warmed = 0;
+		for (Long id : ids) {
+			MenuResponse menu = menuService.selectMenu(id);
+			if (menu != null) {
+				objectMapper.writeValueAsBytes(menu);
+				warmed++;
+			}
+		}
+		for (MenuQuery query : queries) {
+			try {
+				objectMapper.writeValueAsBytes(menuService.selectMenus(query).getMenus());
+				warmed++;
+			} catch (IllegalStateException e) {
+				// 비트맵 인덱스 적재 실패 등. 해당 조건은 예열하지 않음
+			}
+		}
+		return warmed;
+	}
+}
@@ -0,0 +1,283 @@
+package com.kh.menu.model.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.kh.menu.model.dto.MenuDto.MenuPriceStats;
+import com.kh.menu.model.dto.MenuDto.MenuResponse;
+import com.kh.menu.model.dto.MenuDto.MenuStats;
+import com.kh.menu.model.event.MenuChangeListener;
+
+/*
+ * 가격 통계 집계 (전체, type별, taste별, 식당별 건수/합계/평균/최소/최대, 최저가/최고가 상위 메뉴)
+ *  - 서버 시작 시 전체 메뉴로 한 번 집계하고, 이후에는 변경된 행만 기존 값을 빼고 새 값을 더한다.
+ *  - 최소/최대는 삭제되면 다음 값을 찾아야 하므로 그룹마다 메뉴를 (가격, id) 순으로 정렬해서(TreeSet) 유지한다.
+ *  - 그룹마다 완성된 통계 객체(MenuPriceStats)와 양 끝 maxK개 메뉴 목록을 만들어 두므로
+ *    조회는 전체 메뉴 수와 상관없이 계산 없이 그대로 반환한다.
+ *  - 변경은 MenuChangeDispatcher의 락 안에서만 호출되고, 조회 쪽은 락 없이 ConcurrentHashMap을 읽는다.
+ */
+@Component
+public class MenuPriceAggregates implements MenuChangeListener {
+	private static final Comparator<MenuResponse> PRICE_ORDER =
+			Comparator.comparingInt(MenuResponse::getPrice).thenComparingLong(MenuResponse::getId);
+
+	private final int maxK; // 그룹별로 미리 만들어 두는 상위 메뉴 수 (조회 가능한 최대 k)
+	private volatile State state; // 최초 적재 전에는 null
+	private State building; // 재적재 중인 새 상태
+
+	public MenuPriceAggregates(@Value("${menu.top.max-k:20}") int maxK) {
+		this.maxK = maxK;
+	}
+
+	public int getMaxK() {
+		return maxK;
+	}
+
+	/**
+	 * 전체, type별, taste별 통계
+	 * @throws IllegalStateException 집계 적재 전
+	 */
+	public MenuStats stats() {
+		State current = loadedState();
+		return new MenuStats(current.total.stats, current.view(Dimension.TYPE), current.view(Dimension.TASTE));
+	}
+
+	/**
+	 * 식당별 통계
+	 * @throws IllegalStateException 집계 적재 전
+	 */
+	public Map<String, MenuPriceStats> restaurantStats() {
+		return loadedState().view(Dimension.RESTAURANT);
+	}
+
+	/**
+	 * 그룹별 최저가(또는 최고가) 상위 k개 메뉴. 그룹은 키 순, 메뉴는 가격 순 (같은 가격은 id 순)
+	 *  - 식당 수는 제한이 없으므로 per=restaurant는 restaurant로 지정한 식당 하나만 반환한다.
+	 * @param per type, taste, restaurant
+	 * @param restaurant per=restaurant인 경우 조회할 식당명 (필수)
+	 * @param descending true면 최고가 순
+	 * @throws IllegalArgumentException 정의되지 않은 그룹 기준, k가 1~maxK 범위 밖,
+	 *         per=restaurant인데 restaurant가 없거나 그 외의 per에 restaurant를 지정한 경우
+	 * @throws IllegalStateException 집계 적재 전
+	 */
+	public Map<String, List<MenuResponse>> top(String per, String restaurant, boolean descending, int k) {
+		Dimension dimension = Dimension.of(per);
+		if (k <= 0 || k > maxK) {
+			throw new IllegalArgumentException("k는 1 이상 " + maxK + " 이하입니다 : " + k);
+		}
+		if ((dimension == Dimension.RESTAURANT) != (restaurant != null)) {
+			throw new IllegalArgumentException("restaurant는 per=restaurant에서만, 반드시 지정합니다 : " + per);
+		}
+		Map<String, Group> groups = loadedState().tops.get(dimension);
+		if (restaurant != null) {
+			Group group = groups.get(restaurant);
+			List<MenuResponse> menus = group == null ? List.of() : descending ? group.priciest : group.cheapest;
+			return menus.isEmpty() ? Map.of() : Map.of(restaurant, menus.size() > k ? menus.subList(0, k) : menus);
+		}
+		Map<String, List<MenuResponse>> result = new TreeMap<>();
+		groups.forEach((key, group) -> {
+			List<MenuResponse> menus = descending ? group.priciest : group.cheapest;
+			if (!menus.isEmpty()) {
+				result.put(key, menus.size() > k ? menus.subList(0, k) : menus);
+			}
+		});
+		return result;
+	}
+
+	@Override
+	public void menusChanged(Map<Long, MenuResponse> changes, long version) {
+		State current = state;
+		if (current == null) {
+			return;
+		}
+		changes.forEach((id, row) -> {
+			current.remove(id);
+			if (row != null) {
+				current.add(row);
+			}
+		});
+	}
+
+	@Override
+	public void beginReload() {
+		building = new State(maxK);
+	}
+
+	@Override
+	public void reloadRow(MenuResponse row) {
+		building.add(row);
+	}
+
+	@Override
+	public void endReload(long version) {
+		state = building;
+		building = null;
+	}
+
+	@Override
+	public void abortReload() {
+		building = null;
+	}
+
+	private State loadedState() {
+		State current = state;
+		if (current == null) {
+			throw new IllegalStateException("메뉴 가격 통계가 아직 적재되지 않았습니다.");
+		}
+		return current;
+	}
+
+	private enum Dimension {
+		TYPE, TASTE, RESTAURANT;
+
+		private static Dimension of(String code) {
+			for (Dimension dimension : values()) {
+				if (dimension.name().equalsIgnoreCase(code)) {
+					return dimension;
+				}
+			}
+			throw new IllegalArgumentException("정의되지 않은 그룹 기준입니다 : " + code);
+		}
+
+		private String keyOf(MenuResponse row) {
+			return switch (this) {
+				case TYPE -> row.getType();
+				case TASTE -> row.getTaste();
+				case RESTAURANT -> row.getRestaurant();
+			};
+		}
+	}
+
+	private static class State {
+		private final int maxK;
+		private final Group total;
+		private final Map<Dimension, Map<String, Group>> groups = new HashMap<>();
+		// 조회용 : 그룹별 완성된 통계 (읽기 전용으로 노출)
+		private final Map<Dimension, ConcurrentHashMap<String, MenuPriceStats>> views = new HashMap<>();
+		// 조회용 : 그룹별 상위 메뉴 (조회 쪽은 Group의 volatile 필드만 읽는다)
+		private final Map<Dimension, ConcurrentHashMap<String, Group>> tops = new HashMap<>();
+		private final Map<Long, MenuResponse> rows = new HashMap<>(); // 변경 시 기존 값을 빼기 위한 id별 행
+
+		private State(int maxK) {
+			this.maxK = maxK;
+			this.total = new Group(maxK);
+			for (Dimension dimension : Dimension.values()) {
+				groups.put(dimension, new HashMap<>());
+				views.put(dimension, new ConcurrentHashMap<>());
+				tops.put(dimension, new ConcurrentHashMap<>());
+			}
+		}
+
+		private void add(MenuResponse row) {
+			rows.put(row.getId(), row);
+			total.add(row);
+			for (Dimension dimension : Dimension.values()) {
+				String key = keyOf(dimension, row);
+				Group group = groups.get(dimension).computeIfAbsent(key, k -> new Group(maxK));
+				group.add(row);
+				publish(dimension, key, group);
+			}
+		}
+
+		private void remove(long id) {
+			MenuResponse row = rows.remove(id);
+			if (row == null) {
+				return;
+			}
+			total.remove(row);
+			for (Dimension dimension : Dimension.values()) {
+				String key = keyOf(dimension, row);
+				Group group = groups.get(dimension).get(key);
+				group.remove(row);
+				if (group.stats.getCount() == 0) {
+					groups.get(dimension).remove(key);
+				}
+				publish(dimension, key, group);
+			}
+		}
+
+		// ConcurrentHashMap은 null 키를 허용하지 않으므로 값이 없는 행은 빈 문자열 그룹으로 집계
+		private static String keyOf(Dimension dimension, MenuResponse row) {
+			String key = dimension.keyOf(row);
+			return key == null ? "" : key;
+		}
+
+		private void publish(Dimension dimension, String key, Group group) {
+			if (group.stats.getCount() == 0) {
+				views.get(dimension).remove(key);
+				tops.get(dimension).remove(key);
+			} else {
+				views.get(dimension).put(key, group.stats);
+				tops.get(dimension).putIfAbsent(key, group);
+			}
+		}
+
+		private Map<String, MenuPriceStats> view(Dimension dimension) {
+			return Collections.unmodifiableMap(views.get(dimension));
+		}
+	}
+
+	/*
+	 * 한 그룹의 누적값
+	 *  - stats, cheapest, priciest는 변경될 때마다 새로 만든다. (읽는 쪽에 공유된 객체는 수정하지 않음)
+	 *  - 상위 목록은 변경된 행이 목록 범위(양 끝 maxK개) 안에 들어가는 경우에만 다시 만든다.
+	 */
+	private static class Group {
+		private final int maxK;
+		private long count;
+		private long sum;
+		private final TreeSet<MenuResponse> menus = new TreeSet<>(PRICE_ORDER); // (가격, id) 순
+		private volatile MenuPriceStats stats = MenuPriceStats.EMPTY;
+		private volatile List<MenuResponse> cheapest = List.of(); // 최저가 순 maxK개
+		private volatile List<MenuResponse> priciest = List.of(); // 최고가 순 maxK개
+
+		private Group(int maxK) {
+			this.maxK = maxK;
+		}
+
+		private void add(MenuResponse row) {
+			count++;
+			sum += row.getPrice();
+			menus.add(row);
+			refresh(row);
+		}
+
+		private void remove(MenuResponse row) {
+			count--;
+			sum -= row.getPrice();
+			menus.remove(row);
+			refresh(row);
+		}
+
+		private void refresh(MenuResponse changed) {
+			stats = count == 0 ? MenuPriceStats.EMPTY
+					: new MenuPriceStats(count, sum, (double) sum / count,
+							menus.first().getPrice(), menus.last().getPrice());
+			if (cheapest.size() < maxK || PRICE_ORDER.compare(changed, cheapest.get(cheapest.size() - 1)) <= 0) {
+				cheapest = first(menus.iterator());
+			}
+			if (priciest.size() < maxK || PRICE_ORDER.compare(changed, priciest.get(priciest.size() - 1)) >= 0) {
+				priciest = first(menus.descendingIterator());
+			}
+		}
+
+		private List<MenuResponse> first(Iterator<MenuResponse> it) {
+			List<MenuResponse> list = new ArrayList<>(maxK);
+			while (it.hasNext() && list.size() < maxK) {
+				list.add(it.next());
+			}
+			return Collections.unmodifiableList(list);
+		}
+	}
+}
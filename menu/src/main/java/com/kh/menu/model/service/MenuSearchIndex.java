@@ -0,0 +1,255 @@
+package com.kh.menu.model.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import com.kh.menu.model.dto.MenuDto.MenuResponse;
+import com.kh.menu.model.event.MenuChangeListener;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+ * 식당명/메뉴명 검색용 역색인 (n-gram)
+ *  - 한글은 띄어쓰기 없이 붙여 쓰는 경우가 많아 형태소 대신 글자 단위 n-gram으로 색인한다.
+ *    단어마다 한 글자(unigram)와 연속된 두 글자(bigram)를 색인어로 사용한다.
+ *    ex) "짬뽕밥" -> 짬, 뽕, 밥, 짬뽕, 뽕밥
+ *  - 색인어별로 해당 메뉴 id 집합을 식당명/메뉴명 따로 RoaringBitmap으로 보관한다.
+ *  - 검색어의 모든 색인어를 포함하는 메뉴가 결과이며, 비트맵 AND 연산만으로 찾는다.
+ *    (세 글자 이상 검색어는 bigram이 모두 있지만 연속되지 않은 메뉴도 포함될 수 있음)
+ *  - 등록/수정/삭제는 MenuChangeDispatcher를 통해 해당 id의 색인어만 다시 반영한다.
+ */
+@Component
+public class MenuSearchIndex implements MenuChangeListener {
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private State state; // 최초 적재 전에는 null (lock으로 보호)
+	private State building; // 재적재 중인 새 상태
+
+	public boolean isLoaded() {
+		lock.readLock().lock();
+		try {
+			return state != null;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 검색어에 해당하는 메뉴 id를 순위순으로 offset부터 최대 limit개 반환
+	 *  - 순위 : 메뉴명과 식당명 모두 일치 > 메뉴명 일치 > 식당명 일치 > 두 곳에 나뉘어 일치. 같은 순위는 id 순
+	 * @throws IllegalStateException 색인 적재 전
+	 */
+	public SearchPage search(String query, int offset, int limit) {
+		List<String> grams = new ArrayList<>(tokenize(query, true));
+		lock.readLock().lock();
+		try {
+			if (state == null) {
+				throw new IllegalStateException("메뉴 검색 색인이 아직 적재되지 않았습니다.");
+			}
+			if (grams.isEmpty()) {
+				return new SearchPage(List.of(), 0);
+			}
+			RoaringBitmap inName = state.matchAll(grams, state.names);
+			RoaringBitmap inRestaurant = state.matchAll(grams, state.restaurants);
+			RoaringBitmap any = state.matchAny(grams);
+			RoaringBitmap both = RoaringBitmap.and(inName, inRestaurant);
+			// 순위별로 겹치지 않게 나눈 결과
+			RoaringBitmap[] tiers = {
+					both,
+					RoaringBitmap.andNot(inName, both),
+					RoaringBitmap.andNot(inRestaurant, both),
+					RoaringBitmap.andNot(any, RoaringBitmap.or(inName, inRestaurant))
+			};
+			long total = 0;
+			for (RoaringBitmap tier : tiers) {
+				total += tier.getLongCardinality();
+			}
+			List<Long> ids = new ArrayList<>(limit);
+			long skip = offset;
+			for (RoaringBitmap tier : tiers) {
+				long cardinality = tier.getLongCardinality();
+				if (skip >= cardinality) {
+					skip -= cardinality;
+					continue;
+				}
+				// rank 순번(0부터)으로 바로 이동 : 앞쪽 id를 하나씩 건너뛰지 않는다
+				PeekableIntIterator it = tier.getIntIterator();
+				it.advanceIfNeeded(tier.select((int) skip));
+				while (it.hasNext() && ids.size() < limit) {
+					ids.add((long) it.next());
+				}
+				skip = 0;
+				if (ids.size() == limit) {
+					break;
+				}
+			}
+			return new SearchPage(ids, total);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void menusChanged(Map<Long, MenuResponse> changes, long version) {
+		lock.writeLock().lock();
+		try {
+			if (state == null) {
+				return;
+			}
+			changes.forEach((id, row) -> {
+				state.remove(Math.toIntExact(id));
+				if (row != null) {
+					state.add(row);
+				}
+			});
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void beginReload() {
+		building = new State();
+	}
+
+	@Override
+	public void reloadRow(MenuResponse row) {
+		building.add(row);
+	}
+
+	@Override
+	public void endReload(long version) {
+		lock.writeLock().lock();
+		try {
+			building.names.values().forEach(RoaringBitmap::runOptimize);
+			building.restaurants.values().forEach(RoaringBitmap::runOptimize);
+			state = building;
+			building = null;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void abortReload() {
+		building = null;
+	}
+
+	/*
+	 * 색인어 추출
+	 *  - NFKC 정규화(전각/반각 통일) 후 소문자로 바꾸고, 글자/숫자가 아닌 문자를 기준으로 단어를 나눈다.
+	 *  - 단어마다 각 글자와 연속된 두 글자를 색인어로 사용한다.
+	 *  - 검색어는 bigram에 이미 포함된 글자(unigram)를 생략한다. (두 글자 이상 단어는 bigram만 비교)
+	 */
+	static Set<String> tokenize(String text, boolean query) {
+		Set<String> grams = new LinkedHashSet<>();
+		if (text == null) {
+			return grams;
+		}
+		String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+		int[] cps = normalized.codePoints().toArray();
+		int start = 0; // 현재 단어 시작 위치
+		for (int i = 0; i <= cps.length; i++) {
+			if (i < cps.length && Character.isLetterOrDigit(cps[i])) {
+				continue;
+			}
+			for (int j = start; j < i; j++) {
+				if (!query || i - start == 1) {
+					grams.add(new String(cps, j, 1));
+				}
+				if (j + 1 < i) {
+					grams.add(new String(cps, j, 2));
+				}
+			}
+			start = i + 1;
+		}
+		return grams;
+	}
+
+	// 색인 상태 (lock 또는 재적재 스레드 안에서만 접근)
+	private static class State {
+		private final Map<String, RoaringBitmap> names = new HashMap<>();
+		private final Map<String, RoaringBitmap> restaurants = new HashMap<>();
+		// 수정/삭제 시 기존 색인어를 지우기 위한 id별 원문 (식당명, 메뉴명)
+		private final Map<Integer, String[]> texts = new HashMap<>();
+
+		private void add(MenuResponse row) {
+			int id = Math.toIntExact(row.getId());
+			texts.put(id, new String[] { row.getRestaurant(), row.getName() });
+			for (String gram : tokenize(row.getRestaurant(), false)) {
+				restaurants.computeIfAbsent(gram, g -> new RoaringBitmap()).add(id);
+			}
+			for (String gram : tokenize(row.getName(), false)) {
+				names.computeIfAbsent(gram, g -> new RoaringBitmap()).add(id);
+			}
+		}
+
+		private void remove(int id) {
+			String[] text = texts.remove(id);
+			if (text == null) {
+				return;
+			}
+			removePostings(restaurants, tokenize(text[0], false), id);
+			removePostings(names, tokenize(text[1], false), id);
+		}
+
+		private void removePostings(Map<String, RoaringBitmap> postings, Set<String> grams, int id) {
+			for (String gram : grams) {
+				RoaringBitmap ids = postings.get(gram);
+				if (ids != null) {
+					ids.remove(id);
+					if (ids.isEmpty()) {
+						postings.remove(gram);
+					}
+				}
+			}
+		}
+
+		// 한 필드에 모든 색인어가 있는 id
+		private RoaringBitmap matchAll(List<String> grams, Map<String, RoaringBitmap> postings) {
+			RoaringBitmap result = null;
+			for (String gram : grams) {
+				RoaringBitmap ids = postings.get(gram);
+				if (ids == null) {
+					return new RoaringBitmap();
+				}
+				result = result == null ? ids.clone() : RoaringBitmap.and(result, ids);
+			}
+			return result;
+		}
+
+		// 색인어마다 두 필드 중 한 곳에는 있는 id
+		private RoaringBitmap matchAny(List<String> grams) {
+			RoaringBitmap result = null;
+			for (String gram : grams) {
+				RoaringBitmap inName = names.get(gram);
+				RoaringBitmap inRestaurant = restaurants.get(gram);
+				RoaringBitmap ids = inName == null ? inRestaurant
+						: inRestaurant == null ? inName : RoaringBitmap.or(inName, inRestaurant);
+				if (ids == null) {
+					return new RoaringBitmap();
+				}
+				result = result == null ? ids.clone() : RoaringBitmap.and(result, ids);
+			}
+			return result;
+		}
+	}
+
+	@Getter
+	@AllArgsConstructor
+	public static class SearchPage {
+		private final List<Long> ids; // 순위순
+		private final long total;
+	}
+}
@@ -1,38 +1,731 @@
 package com.kh.menu.model.service;
 
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import org.apache.ibatis.executor.BatchResult;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.kh.menu.common.cache.BoundedCache;
+import com.kh.menu.common.cache.CacheStats;
+import com.kh.menu.common.cache.SingleFlight;
+import com.kh.menu.common.cache.SingleFlightStats;
 import com.kh.menu.model.dao.MenuDao;
+import com.kh.menu.model.dto.MenuDto.MenuChange;
+import com.kh.menu.model.dto.MenuDto.MenuFacets;
+import com.kh.menu.model.dto.MenuDto.MenuOperation;
+import com.kh.menu.model.dto.MenuDto.MenuOperationResult;
+import com.kh.menu.model.dto.MenuDto.MenuPage;
+import com.kh.menu.model.dto.MenuDto.MenuPatch;
 import com.kh.menu.model.dto.MenuDto.MenuPost;
+import com.kh.menu.model.dto.MenuDto.MenuPriceStats;
 import com.kh.menu.model.dto.MenuDto.MenuPut;
 import com.kh.menu.model.dto.MenuDto.MenuResponse;
+import com.kh.menu.model.dto.MenuDto.MenuStats;
+import com.kh.menu.model.dto.MenuDto.MenuUpsert;
+import com.kh.menu.model.dto.MenuDto.MenuUpsertResult;
+import com.kh.menu.model.dto.MenuDto.RestaurantMenus;
+import com.kh.menu.model.dto.MenuQuery;
+import com.kh.menu.model.dto.MenuTaste;
+import com.kh.menu.model.dto.MenuType;
+import com.kh.menu.model.event.MenuChangedEvent;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 
 @Service
 public class MenuService {
 	@Autowired
 	private MenuDao dao;
-	
-	public List<MenuResponse> selectMenus(HashMap<String, Object> param) {
-		return dao.selectMenus(param);
+	@Autowired
+	private ApplicationEventPublisher publisher;
+	// 스냅샷 모드(menu.snapshot.enabled=true)에서만 존재. 적재가 끝나면 조회를 DB 대신 스냅샷으로 처리
+	@Autowired(required = false)
+	private MenuSnapshotStore snapshotStore;
+	// 다중값 필터(type=kr,jp), 가격 범위(price) 조회와 필터별 건수 계산용
+	@Autowired
+	private MenuFacetIndex facetIndex;
+	// 식당명/메뉴명 검색용 n-gram 역색인
+	@Autowired
+	private MenuSearchIndex searchIndex;
+	// 가격 통계 (변경 시 증분 갱신)
+	@Autowired
+	private MenuPriceAggregates priceAggregates;
+	/*
+	 * 메뉴 조회 캐시
+	 *  - 메뉴 테이블은 변경은 드물고 조회는 많으므로 단건(id)과 목록(type, taste)을 메모리에 캐싱한다.
+	 *  - 등록/수정/삭제 시 변경된 행과 관련된 항목만 골라서 제거한다.
+	 */
+	private final BoundedCache<Long, MenuResponse> menuCache;
+	private final BoundedCache<MenuQuery, MenuPage> listCache;
+	// 캐시에 없는 같은 id/조회조건의 동시 요청은 DB 조회 한 번의 결과를 같이 받는다
+	private final SingleFlight<Long, MenuResponse> menuFlight = new SingleFlight<>();
+	private final SingleFlight<MenuQuery, MenuPage> listFlight = new SingleFlight<>();
+	/*
+	 * 목록 조회 건수 제한
+	 *  - 전체 테이블을 한번에 List로 만들지 않도록 한 페이지의 최대 건수를 제한한다.
+	 *  - limit을 생략하면 defaultLimit, 지정해도 maxLimit을 넘을 수 없다.
+	 */
+	private final int defaultLimit;
+	private final int maxLimit;
+	/*
+	 * 일괄 처리 설정
+	 *  - batchMaxSize : 한 요청에 포함될 수 있는 최대 작업 수
+	 *  - batchFlushSize : 이 건수만큼 쌓일 때마다 JDBC batch를 전송 (드라이버 버퍼 메모리 제한)
+	 */
+	@Value("${menu.batch.max-size:10000}")
+	private int batchMaxSize;
+	@Value("${menu.batch.flush-size:1000}")
+	private int batchFlushSize;
+
+	public MenuService(
+			@Value("${menu.cache.max-size:10000}") int maxSize,
+			@Value("${menu.cache.list-max-size:256}") int listMaxSize,
+			@Value("${menu.cache.ttl-seconds:60}") long ttlSeconds,
+			@Value("${menu.page.default-limit:100}") int defaultLimit,
+			@Value("${menu.page.max-limit:1000}") int maxLimit) {
+		this.menuCache = new BoundedCache<>(maxSize, ttlSeconds * 1000);
+		this.listCache = new BoundedCache<>(listMaxSize, ttlSeconds * 1000);
+		this.defaultLimit = defaultLimit;
+		this.maxLimit = maxLimit;
+	}
+
+	/**
+	 * keyset(seek) 방식 목록 조회
+	 *  - OFFSET 대신 "ID > after" 조건으로 PK 인덱스를 바로 찾아가므로 몇 번째 페이지든 비용이 같다.
+	 *    가격 정렬은 (PRICE, ID) 인덱스에서 이전 페이지의 마지막 (가격, id) 다음부터 찾는다.
+	 *  - limit + 1건을 조회해서 다음 페이지 존재 여부를 판단한다.
+	 *  - id 순 조회에 다중값 필터나 가격 범위가 포함되면 SQL 대신 비트맵 인덱스(MenuFacetIndex)로 id를 찾는다.
+	 *    (int 범위를 벗어난 id가 있어 인덱스를 쓸 수 없으면 아래 조회로 처리)
+	 * @throws IllegalStateException 비트맵 인덱스 적재 전
+	 */
+	public MenuPage selectMenus(MenuQuery query) {
+		MenuQuery paged = query.withLimit(resolveLimit(query.getLimit()));
+		if (paged.getSort() == MenuQuery.Sort.ID) {
+			if (paged.isMultiValued() && !facetIndex.isIdOutOfRange()) {
+				return selectFromFacetIndex(paged);
+			}
+			MenuSnapshot snapshot = currentSnapshot();
+			if (snapshot != null) {
+				return snapshot.select(paged, paged.getLimit());
+			}
+		}
+		MenuPage page = listCache.get(paged);
+		if (page == null) {
+			long generation = listCache.generation();
+			page = listFlight.execute(paged, generation, () -> loadPage(paged, generation));
+		}
+		return page;
+	}
+
+	// DB에서 한 페이지 조회 후 캐시에 저장
+	private MenuPage loadPage(MenuQuery paged, long generation) {
+		// 버전을 먼저 읽어야 조회 도중 변경이 생겨도 ETag가 데이터보다 최신이 되지 않는다
+		long version = dao.selectTableVersion();
+		int size = paged.getLimit();
+		List<MenuResponse> rows = dao.selectMenus(paged.withLimit(size + 1));
+		Long nextAfter = null;
+		Integer nextAfterPrice = null;
+		if (rows.size() > size) {
+			rows.remove(size);
+			MenuResponse last = rows.get(size - 1);
+			nextAfter = last.getId();
+			nextAfterPrice = paged.getSort() == MenuQuery.Sort.ID ? null : last.getPrice();
+		}
+		MenuPage page = new MenuPage(Collections.unmodifiableList(rows), nextAfter, nextAfterPrice, version);
+		listCache.put(paged, page, generation);
+		return page;
+	}
+
+	/**
+	 * 목록 ETag 비교용 버전 조회
+	 *  - 캐시에 해당 페이지가 있으면 그 페이지를 만들 때의 버전을, 없으면 DB의 테이블 버전을 반환한다.
+	 *  - 목록 조회(SELECT *) 없이 304 응답 여부를 판단할 수 있다.
+	 */
+	public long selectMenusVersion(MenuQuery query) {
+		MenuQuery paged = query.withLimit(resolveLimit(query.getLimit()));
+		if (paged.getSort() == MenuQuery.Sort.ID) {
+			if (paged.isMultiValued() && !facetIndex.isIdOutOfRange()) {
+				return Math.min(facetIndex.version(), currentTableVersion());
+			}
+			MenuSnapshot snapshot = currentSnapshot();
+			if (snapshot != null) {
+				return snapshot.getVersion();
+			}
+		}
+		MenuPage page = listCache.peek(paged);
+		return page != null ? page.getVersion() : dao.selectTableVersion();
+	}
+
+	/**
+	 * 필터별 메뉴 건수 (type, taste, price 다중값 필터 적용)
+	 * @throws IllegalStateException 비트맵 인덱스 적재 전
+	 */
+	public MenuFacets selectFacets(MenuQuery query) {
+		return facetIndex.facets(query);
+	}
+
+	/**
+	 * 변경분 동기화
+	 *  - since 이후에 등록/수정/삭제된 메뉴만 버전 순으로 최대 limit건 반환한다.
+	 *  - 다음 요청 위치는 마지막으로 반환한 변경의 버전 (변경이 없으면 since 그대로)
+	 * @param since 이전 응답의 버전 (null이면 처음부터 전체)
+	 * @return since 이후의 삭제 기록이 이미 정리된 경우 null (since 없이 전체를 다시 받아야 함)
+	 */
+	public ChangePage selectChanges(Long since, Integer limit) {
+		if (since != null && since < dao.selectPrunedVersion()) {
+			return null;
+		}
+		int size = resolveLimit(limit == null ? 0 : limit);
+		// 초기 데이터는 버전이 0이므로 처음 동기화는 -1 이후부터
+		long from = since == null ? -1 : since;
+		List<MenuChange> changes = dao.selectChanges(from, size + 1);
+		boolean hasMore = changes.size() > size;
+		if (hasMore) {
+			changes.remove(size);
+		}
+		long last = changes.isEmpty() ? from : changes.get(changes.size() - 1).getVersion();
+		return new ChangePage(changes, last, hasMore);
+	}
+
+	/**
+	 * 그룹별 최저가/최고가 상위 k개 메뉴 (메모리 집계에서 바로 반환)
+	 * @param by price(최저가 순), -price(최고가 순)
+	 * @param per type, taste, restaurant
+	 * @param restaurant per=restaurant인 경우 조회할 식당명 (필수)
+	 * @throws IllegalArgumentException 정의되지 않은 정렬, 그룹 기준, 범위 밖의 k, restaurant 누락
+	 * @throws IllegalStateException 집계 적재 전
+	 */
+	public Map<String, List<MenuResponse>> selectTop(String by, String per, String restaurant, int k) {
+		MenuQuery.Sort sort = MenuQuery.Sort.of(by);
+		if (sort == MenuQuery.Sort.ID) {
+			throw new IllegalArgumentException("by는 price, -price 중 하나입니다 : " + by);
+		}
+		return priceAggregates.top(per, restaurant, sort == MenuQuery.Sort.PRICE_DESC, k);
+	}
+
+	/**
+	 * 식당별 메뉴 목록 (식당명 순 keyset)
+	 *  - 식당과 메뉴를 한 번의 쿼리로 조회해서 식당마다 묶는다. (식당마다 메뉴를 따로 조회하지 않음)
+	 *  - limit은 식당 수. limit + 1개를 조회해서 다음 페이지 존재 여부를 판단한다.
+	 */
+	public RestaurantPage selectRestaurants(String after, Integer limit) {
+		int size = resolveLimit(limit == null ? 0 : limit);
+		List<RestaurantMenus> restaurants = dao.selectRestaurants(after, size + 1);
+		String nextAfter = null;
+		if (restaurants.size() > size) {
+			restaurants.remove(size);
+			nextAfter = restaurants.get(size - 1).getRestaurant();
+		}
+		return new RestaurantPage(restaurants, nextAfter);
+	}
+
+	// 메뉴가 없는 식당이면 null
+	public RestaurantMenus selectRestaurant(String restaurant) {
+		return dao.selectRestaurant(restaurant);
+	}
+
+	/**
+	 * 전체, 메뉴타입별, 맛별 가격 통계
+	 * @throws IllegalStateException 집계 적재 전
+	 */
+	public MenuStats selectStats() {
+		return priceAggregates.stats();
+	}
+
+	/**
+	 * 식당별 가격 통계
+	 * @throws IllegalStateException 집계 적재 전
+	 */
+	public Map<String, MenuPriceStats> selectRestaurantStats() {
+		return priceAggregates.restaurantStats();
+	}
+
+	/**
+	 * 식당명/메뉴명 검색 (순위순, offset 페이지)
+	 *  - 색인에서 id만 찾고, 해당 페이지의 행만 조회한다.
+	 * @return 검색 결과 한 페이지와 전체 건수
+	 * @throws IllegalStateException 검색 색인 적재 전
+	 */
+	public MenuSearchResult searchMenus(String query, int offset, Integer limit) {
+		MenuSearchIndex.SearchPage found = searchIndex.search(query, offset, resolveLimit(limit == null ? 0 : limit));
+		Map<Long, MenuResponse> rows = new HashMap<>();
+		MenuSnapshot snapshot = currentSnapshot();
+		if (snapshot != null) {
+			for (Long id : found.getIds()) {
+				rows.put(id, snapshot.get(id));
+			}
+		} else {
+			for (MenuResponse row : dao.selectMenusByIds(found.getIds())) {
+				rows.put(row.getId(), row);
+			}
+		}
+		// 색인의 순위 순서대로 (그 사이 삭제된 행은 제외)
+		List<MenuResponse> menus = new ArrayList<>(found.getIds().size());
+		for (Long id : found.getIds()) {
+			MenuResponse row = rows.get(id);
+			if (row != null) {
+				menus.add(row);
+			}
+		}
+		return new MenuSearchResult(menus, found.getTotal());
+	}
+
+	/**
+	 * 여러 메뉴 한 번에 조회 (장바구니, 즐겨찾기 화면용)
+	 *  - 캐시에 있는 메뉴는 그대로 사용하고, 나머지만 IN 목록 쿼리로 조회해서 캐시에 저장한다.
+	 *  - 요청한 id 순서대로 반환한다. 중복 id는 한 번만, 없는 id는 결과에서 빠진다.
+	 * @throws IllegalArgumentException id가 없거나 maxLimit개를 넘는 경우
+	 */
+	public List<MenuResponse> selectMenusByIds(List<Long> ids) {
+		if (ids.isEmpty() || ids.size() > maxLimit) {
+			throw new IllegalArgumentException("id는 1개 이상 " + maxLimit + "개 이하입니다 : " + ids.size());
+		}
+		Map<Long, MenuResponse> found = new LinkedHashMap<>();
+		MenuSnapshot snapshot = currentSnapshot();
+		List<Long> misses = new ArrayList<>();
+		for (Long id : ids) {
+			if (id == null || found.containsKey(id)) {
+				continue;
+			}
+			MenuResponse menu = snapshot != null ? snapshot.get(id) : menuCache.get(id);
+			found.put(id, menu); // 순서 유지용. 못 찾은 id는 null로 자리만 잡아둔다
+			if (menu == null && snapshot == null) {
+				misses.add(id);
+			}
+		}
+		if (!misses.isEmpty()) {
+			long generation = menuCache.generation();
+			for (MenuResponse row : dao.selectMenusByIds(misses)) {
+				found.put(row.getId(), row);
+				menuCache.put(row.getId(), row, generation);
+			}
+		}
+		List<MenuResponse> result = new ArrayList<>(found.size());
+		for (MenuResponse menu : found.values()) {
+			if (menu != null) {
+				result.add(menu);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 단건 ETag 비교용 버전 조회 (메뉴가 없으면 null)
+	 */
+	public Long selectMenuVersion(long id) {
+		MenuSnapshot snapshot = currentSnapshot();
+		if (snapshot != null) {
+			MenuResponse menu = snapshot.get(id);
+			return menu != null ? Long.valueOf(menu.getVersion()) : null;
+		}
+		MenuResponse menu = menuCache.peek(id);
+		return menu != null ? Long.valueOf(menu.getVersion()) : dao.selectMenuVersion(id);
+	}
+
+	/**
+	 * 전체 목록 스트리밍 조회 (캐시를 거치지 않음)
+	 *  - 조회된 행을 바로 consumer로 넘기므로 목록 크기와 상관없이 메모리 사용량이 일정하다.
+	 */
+	public void streamMenus(MenuQuery query, Consumer<MenuResponse> consumer) {
+		dao.streamMenus(query, consumer);
 	}
 
 	public int insertMenu(MenuPost menu) {
-		return dao.insertMenu(menu);
+		int result = dao.insertMenu(menu);
+		if (result > 0) {
+			evictLists(menu.getType(), menu.getTaste(), menu.getPrice());
+			publisher.publishEvent(new MenuChangedEvent(List.of(menu.getId())));
+		}
+		return result;
 	}
 
 	public MenuResponse selectMenu(long id) {
-		return dao.selectMenu(id);
+		MenuSnapshot snapshot = currentSnapshot();
+		if (snapshot != null) {
+			return snapshot.get(id);
+		}
+		MenuResponse menu = menuCache.get(id);
+		if (menu == null) {
+			long generation = menuCache.generation();
+			menu = menuFlight.execute(id, generation, () -> {
+				MenuResponse row = dao.selectMenu(id);
+				if (row != null) {
+					menuCache.put(id, row, generation);
+				}
+				return row;
+			});
+		}
+		return menu;
+	}
+
+	// DB 조회 없이(캐시나 스냅샷에서) 응답할 수 있는 메뉴인지 (캐시 예열 반복 대상 선별용)
+	public boolean isMenuCached(long id) {
+		MenuSnapshot snapshot = currentSnapshot();
+		return snapshot != null ? snapshot.get(id) != null : menuCache.peek(id) != null;
+	}
+
+	// DB 조회 없이 응답할 수 있는 목록 조건인지 (selectMenus와 같은 순서로 판단)
+	public boolean isListCached(MenuQuery query) {
+		MenuQuery paged = query.withLimit(resolveLimit(query.getLimit()));
+		MenuSnapshot snapshot = currentSnapshot();
+		if (paged.getSort() == MenuQuery.Sort.ID) {
+			if (paged.isMultiValued() && !facetIndex.isIdOutOfRange()) {
+				return snapshot != null; // 스냅샷이 없으면 인덱스로 찾은 행을 매번 DB에서 읽는다
+			}
+			if (snapshot != null) {
+				return true;
+			}
+		}
+		return listCache.peek(paged) != null;
 	}
 
 	public int updateMenu(MenuPut menu) {
-		return dao.updateMenu(menu);
+		// 수정 전 type/taste가 속해있던 목록도 지워야 하므로 기존 행을 먼저 조회
+		MenuResponse before = dao.selectMenu(menu.getId());
+		int result = dao.updateMenu(menu);
+		if (result > 0) {
+			menuCache.invalidate(menu.getId());
+			evictLists(menu.getType(), menu.getTaste(), menu.getPrice());
+			if (before != null) {
+				evictLists(before.getType(), before.getTaste(), before.getPrice());
+			}
+			publisher.publishEvent(new MenuChangedEvent(List.of(menu.getId())));
+		}
+		return result;
+	}
+
+	/**
+	 * 부분수정 (전달된 항목만 수정)
+	 * @throws IllegalArgumentException 수정할 항목이 없거나 type/taste가 잘못된 경우
+	 */
+	public int patchMenu(MenuPatch menu) {
+		if (menu.getRestaurant() == null && menu.getName() == null && menu.getPrice() == null
+				&& menu.getType() == null && menu.getTaste() == null) {
+			throw new IllegalArgumentException("수정할 항목이 없습니다.");
+		}
+		if (menu.getType() != null && MenuType.of(menu.getType()) == null
+				|| menu.getTaste() != null && MenuTaste.of(menu.getTaste()) == null) {
+			throw new IllegalArgumentException("type/taste가 잘못되었습니다.");
+		}
+		MenuResponse before = dao.selectMenu(menu.getId());
+		if (before == null) {
+			return 0;
+		}
+		int result = dao.patchMenu(menu);
+		if (result > 0) {
+			menuCache.invalidate(menu.getId());
+			evictLists(before.getType(), before.getTaste(), before.getPrice());
+			evictLists(menu.getType() != null ? menu.getType() : before.getType(),
+					menu.getTaste() != null ? menu.getTaste() : before.getTaste(),
+					menu.getPrice() != null ? menu.getPrice() : before.getPrice());
+			publisher.publishEvent(new MenuChangedEvent(List.of(menu.getId())));
+		}
+		return result;
 	}
 
 	public int deleteMenu(long id) {
-		return dao.deleteMenu(id);
+		MenuResponse before = dao.selectMenu(id);
+		int result = dao.deleteMenu(id);
+		if (result > 0) {
+			menuCache.invalidate(id);
+			if (before != null) {
+				evictLists(before.getType(), before.getTaste(), before.getPrice());
+			} else {
+				listCache.invalidateAll();
+			}
+			publisher.publishEvent(new MenuChangedEvent(List.of(id)));
+		}
+		return result;
+	}
+
+	/**
+	 * 등록/수정/삭제 일괄 처리
+	 *  - 하나의 트랜잭션, BATCH 실행기로 처리하므로 건마다 HTTP 요청/커밋을 하지 않는다.
+	 *  - 하나라도 실패(제약조건 위반 등)하면 전체 롤백
+	 * @return 요청 순서대로 처리결과 (create는 생성된 id 포함)
+	 * @throws IllegalArgumentException op 값이 잘못되었거나 최대 건수를 넘은 경우
+	 */
+	@Transactional
+	public List<MenuOperationResult> applyBatch(List<MenuOperation> ops) {
+		if (ops.size() > batchMaxSize) {
+			throw new IllegalArgumentException("일괄 처리는 최대 " + batchMaxSize + "건까지 가능합니다.");
+		}
+		// 배치 결과(BatchResult)의 파라미터 객체로 요청 순번을 찾기 위한 맵
+		Map<MenuOperation, Integer> indexes = new IdentityHashMap<>();
+		MenuOperationResult[] results = new MenuOperationResult[ops.size()];
+		for (int i = 0; i < ops.size(); i++) {
+			MenuOperation op = ops.get(i);
+			if (op == null || op.getOp() == null) {
+				throw new IllegalArgumentException(i + "번째 작업의 op가 없습니다.");
+			}
+			switch (op.getOp()) {
+				case MenuOperation.CREATE -> dao.batchInsert(op);
+				case MenuOperation.UPDATE -> dao.batchUpdate(op);
+				case MenuOperation.DELETE -> dao.batchDelete(op);
+				default -> throw new IllegalArgumentException(i + "번째 작업의 op가 잘못되었습니다 : " + op.getOp());
+			}
+			indexes.put(op, i);
+			if ((i + 1) % batchFlushSize == 0) {
+				collectResults(dao.flushBatch(), indexes, results);
+			}
+		}
+		collectResults(dao.flushBatch(), indexes, results);
+		
+		// 커밋이 끝난 뒤에 캐시를 비워야 커밋 전 데이터가 다시 캐싱되지 않는다
+		List<Long> changedIds = new ArrayList<>();
+		for (MenuOperationResult result : results) {
+			if (!MenuOperationResult.NOT_FOUND.equals(result.getStatus())) {
+				changedIds.add(result.getId());
+			}
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				changedIds.forEach(menuCache::invalidate);
+				listCache.invalidateAll();
+			}
+		});
+		// 리스너에는 커밋 이후에 전달된다 (MenuChangeDispatcher)
+		publisher.publishEvent(new MenuChangedEvent(changedIds));
+		return List.of(results);
+	}
+
+	/**
+	 * 자연키(restaurant, name, taste) 기준 등록/수정 (MERGE 1회)
+	 *  - 같은 키를 동시에 처음 등록하면 한쪽은 유일키 위반이 나므로, 한 번 더 실행해서 수정으로 처리한다.
+	 * @throws IllegalArgumentException 필수값 누락, 정의되지 않은 type/taste
+	 */
+	public MenuUpsertResult upsertMenu(MenuUpsert menu) {
+		validateUpsert(menu, 0);
+		MenuUpsertResult result;
+		try {
+			result = dao.upsertMenu(menu);
+		} catch (DuplicateKeyException e) {
+			result = dao.upsertMenu(menu);
+		}
+		if (!MenuUpsertResult.UNCHANGED.equals(result.getStatus())) {
+			menuCache.invalidate(result.getId());
+			// 수정된 경우 기존 type은 알 수 없으므로 목록 캐시는 전체 제거
+			if (MenuUpsertResult.INSERTED.equals(result.getStatus())) {
+				evictLists(menu.getType(), menu.getTaste(), menu.getPrice());
+			} else {
+				listCache.invalidateAll();
+			}
+			publisher.publishEvent(new MenuChangedEvent(List.of(result.getId())));
+		}
+		return result;
+	}
+
+	/**
+	 * 자연키 기준 일괄 등록/수정
+	 *  - MERGE를 BATCH 실행기로 모아서 전송하고, 결과 id는 키 목록으로 한 번에 조회한다.
+	 *  - 하나의 트랜잭션. 하나라도 실패하면 전체 롤백
+	 *  - 처리 도중 다른 요청에서 삭제된 메뉴는 deleted로 반환한다. (id 0)
+	 * @return 요청 순서대로 처리결과
+	 * @throws IllegalArgumentException 필수값 누락, 정의되지 않은 type/taste, 최대 건수 초과
+	 */
+	@Transactional
+	public List<MenuUpsertResult> upsertMenus(List<MenuUpsert> menus) {
+		if (menus.size() > batchMaxSize) {
+			throw new IllegalArgumentException("일괄 처리는 최대 " + batchMaxSize + "건까지 가능합니다.");
+		}
+		for (int i = 0; i < menus.size(); i++) {
+			validateUpsert(menus.get(i), i);
+		}
+		long[] newIds = new long[menus.size()];
+		int[] counts = new int[menus.size()];
+		int flushed = 0;
+		for (int i = 0; i < menus.size(); i++) {
+			newIds[i] = dao.batchUpsert(menus.get(i));
+			if ((i + 1) % batchFlushSize == 0) {
+				flushed = collectCounts(dao.flushBatch(), counts, flushed);
+			}
+		}
+		collectCounts(dao.flushBatch(), counts, flushed);
+		Map<List<String>, Long> ids = dao.selectIdsByKeys(menus);
+		
+		List<MenuUpsertResult> results = new ArrayList<>(menus.size());
+		List<Long> changedIds = new ArrayList<>();
+		for (int i = 0; i < menus.size(); i++) {
+			MenuUpsert menu = menus.get(i);
+			Long id = ids.get(List.of(menu.getRestaurant(), menu.getName(), menu.getTaste()));
+			if (id == null) {
+				// 변경 없는 MERGE는 행을 잠그지 않으므로, 조회 전에 다른 요청의 삭제가 커밋될 수 있다
+				results.add(new MenuUpsertResult(i, 0, MenuUpsertResult.DELETED));
+				continue;
+			}
+			// SUCCESS_NO_INFO : 드라이버가 건별 결과를 주지 않는 경우 수정된 것으로 간주
+			String status = id == newIds[i] ? MenuUpsertResult.INSERTED
+					: counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO ? MenuUpsertResult.UPDATED
+					: MenuUpsertResult.UNCHANGED;
+			results.add(new MenuUpsertResult(i, id, status));
+			if (!MenuUpsertResult.UNCHANGED.equals(status)) {
+				changedIds.add(id);
+			}
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				changedIds.forEach(menuCache::invalidate);
+				listCache.invalidateAll();
+			}
+		});
+		publisher.publishEvent(new MenuChangedEvent(changedIds));
+		return results;
+	}
+
+	// 한 종류의 구문만 batch에 있으므로 결과는 요청 순서와 같다
+	private int collectCounts(List<BatchResult> batchResults, int[] counts, int from) {
+		for (BatchResult batchResult : batchResults) {
+			for (int count : batchResult.getUpdateCounts()) {
+				counts[from++] = count;
+			}
+		}
+		return from;
+	}
+
+	private void validateUpsert(MenuUpsert menu, int index) {
+		if (menu == null || menu.getRestaurant() == null || menu.getRestaurant().isBlank()
+				|| menu.getName() == null || menu.getName().isBlank()) {
+			throw new IllegalArgumentException(index + "번째 메뉴의 식당명, 메뉴명은 필수입니다.");
+		}
+		if (MenuType.of(menu.getType()) == null || MenuTaste.of(menu.getTaste()) == null) {
+			throw new IllegalArgumentException(index + "번째 메뉴의 type/taste가 잘못되었습니다.");
+		}
+	}
+
+	private void collectResults(List<BatchResult> batchResults, Map<MenuOperation, Integer> indexes,
+			MenuOperationResult[] results) {
+		for (BatchResult batchResult : batchResults) {
+			List<Object> params = batchResult.getParameterObjects();
+			int[] counts = batchResult.getUpdateCounts();
+			for (int i = 0; i < params.size(); i++) {
+				MenuOperation op = (MenuOperation) params.get(i);
+				int index = indexes.get(op);
+				// SUCCESS_NO_INFO : 드라이버가 건별 결과를 주지 않는 경우 성공으로 간주
+				boolean applied = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+				results[index] = new MenuOperationResult(index, op.getOp(), op.getId(), statusOf(op, applied));
+			}
+		}
+	}
+
+	private String statusOf(MenuOperation op, boolean applied) {
+		if (!applied) {
+			return MenuOperationResult.NOT_FOUND;
+		}
+		return switch (op.getOp()) {
+			case MenuOperation.CREATE -> MenuOperationResult.CREATED;
+			case MenuOperation.UPDATE -> MenuOperationResult.UPDATED;
+			default -> MenuOperationResult.DELETED;
+		};
+	}
+
+	public Map<String, CacheStats> cacheStats() {
+		Map<String, CacheStats> stats = new LinkedHashMap<>();
+		stats.put("menu", menuCache.stats());
+		stats.put("list", listCache.stats());
+		return stats;
+	}
+
+	public Map<String, SingleFlightStats> coalescingStats() {
+		Map<String, SingleFlightStats> stats = new LinkedHashMap<>();
+		stats.put("menu", menuFlight.stats());
+		stats.put("list", listFlight.stats());
+		return stats;
+	}
+
+	public MenuSnapshotStore.Stats snapshotStats() {
+		return snapshotStore != null ? snapshotStore.stats() : null;
+	}
+
+	private MenuSnapshot currentSnapshot() {
+		return snapshotStore != null ? snapshotStore.current() : null;
+	}
+
+	/*
+	 * 비트맵 인덱스로 찾은 id의 행만 조회 (스냅샷 모드면 스냅샷에서)
+	 *  - 인덱스 갱신과 DB 커밋 사이의 짧은 시간 동안 삭제된 행은 결과에서 빠질 수 있다.
+	 *  - 목록 캐시는 사용하지 않는다. (필터 조합이 많고, 인덱스 조회 자체가 메모리 연산)
+	 */
+	private MenuPage selectFromFacetIndex(MenuQuery query) {
+		// 버전을 먼저 읽어야 조회 도중 변경이 생겨도 ETag가 데이터보다 최신이 되지 않는다
+		long tableVersion = currentTableVersion();
+		int size = query.getLimit();
+		MenuFacetIndex.IdPage idPage = facetIndex.select(query, size + 1);
+		List<Long> ids = idPage.getIds();
+		Long nextAfter = null;
+		if (ids.size() > size) {
+			ids = ids.subList(0, size);
+			nextAfter = ids.get(size - 1);
+		}
+		List<MenuResponse> rows;
+		MenuSnapshot snapshot = currentSnapshot();
+		if (snapshot != null) {
+			rows = new ArrayList<>(ids.size());
+			for (Long id : ids) {
+				MenuResponse row = snapshot.get(id);
+				if (row != null) {
+					rows.add(row);
+				}
+			}
+		} else {
+			rows = dao.selectMenusByIds(ids);
+			rows.sort(Comparator.comparingLong(MenuResponse::getId));
+		}
+		return new MenuPage(Collections.unmodifiableList(rows), nextAfter, null,
+				Math.min(idPage.getVersion(), tableVersion));
+	}
+
+	private long currentTableVersion() {
+		MenuSnapshot snapshot = currentSnapshot();
+		return snapshot != null ? snapshot.getVersion() : dao.selectTableVersion();
+	}
+
+	// 0이면 기본값, 지정해도 maxLimit을 넘을 수 없다
+	private int resolveLimit(int limit) {
+		return limit == 0 ? defaultLimit : Math.min(limit, maxLimit);
+	}
+
+	// 해당 type/taste/price 행이 포함될 수 있는 목록 캐시만 제거
+	private void evictLists(String type, String taste, int price) {
+		listCache.invalidateIf(query -> query.matches(type, taste, price));
+	}
+
+	@Getter
+	@AllArgsConstructor
+	public static class ChangePage {
+		private final List<MenuChange> changes;
+		private final long lastVersion;
+		private final boolean hasMore;
+	}
+
+	@Getter
+	@AllArgsConstructor
+	public static class RestaurantPage {
+		private final List<RestaurantMenus> restaurants;
+		private final String nextAfter; // 마지막 페이지면 null
+	}
+
+	@Getter
+	@AllArgsConstructor
+	public static class MenuSearchResult {
+		private final List<MenuResponse> menus;
+		private final long total;
 	}
 }
@@ -0,0 +1,409 @@
+package com.kh.menu.model.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.kh.menu.model.dto.MenuDto.MenuPage;
+import com.kh.menu.model.dto.MenuDto.MenuResponse;
+import com.kh.menu.model.dto.MenuQuery;
+import com.kh.menu.model.dto.MenuTaste;
+import com.kh.menu.model.dto.MenuType;
+
+/*
+ * MENU 테이블 전체의 불변 스냅샷
+ *  - 행 객체 대신 컬럼별 배열(id 오름차순)로 보관한다. id는 long[], 가격은 int[],
+ *    type/taste는 enum 순번(byte)으로 저장해서 행마다 객체/문자열을 만들지 않는다.
+ *  - 식당명, 메뉴명 문자열은 스냅샷 안에서 같은 값이면 하나의 인스턴스를 공유한다.
+ *  - 한 번 만들어진 스냅샷은 수정하지 않는다. 변경이 생기면 apply()로 새 스냅샷을 만든다. (copy-on-write)
+ *    따라서 읽는 쪽은 락 없이 참조만 얻어서 사용하면 된다.
+ *  - 변경분은 전체(base)를 다시 만들지 않고 작은 정렬 배열(overlay)에 모아둔다. 조회는 두 배열을 id 순으로 합쳐서 읽는다.
+ *    overlay가 base의 1/64(최소 64행)를 넘으면 한 번에 base로 합친다. (변경 1건당 복사량은 overlay 크기)
+ *    overlay 행의 문자열은 공유하지 않을 수 있으며, 재조정(전체 재적재) 때 다시 공유된다.
+ */
+public final class MenuSnapshot {
+	private static final byte DELETED = -1; // overlay에서 삭제된 행 (types 값)
+	private static final int MIN_OVERLAY = 64;
+
+	private final Columns base; // 삭제 표시 없음
+	private final Columns overlay; // base보다 우선. 삭제 표시 포함
+	private final int size;
+	private final long version; // 스냅샷 버전 (목록 ETag용)
+
+	private MenuSnapshot(Columns base, Columns overlay, long version) {
+		this.base = base;
+		this.overlay = overlay;
+		this.version = version;
+		int n = base.length;
+		for (int j = 0; j < overlay.length; j++) {
+			boolean existing = base.indexOf(overlay.ids[j]) >= 0;
+			boolean deleted = overlay.types[j] == DELETED;
+			if (existing && deleted) {
+				n--;
+			} else if (!existing && !deleted) {
+				n++;
+			}
+		}
+		this.size = n;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	// 없으면 null
+	public MenuResponse get(long id) {
+		int j = overlay.indexOf(id);
+		if (j >= 0) {
+			return overlay.types[j] == DELETED ? null : overlay.toResponse(j);
+		}
+		int i = base.indexOf(id);
+		return i >= 0 ? base.toResponse(i) : null;
+	}
+
+	/**
+	 * id 순 keyset 조회 (query의 정렬은 사용하지 않음)
+	 */
+	public MenuPage select(MenuQuery query, int limit) {
+		int typeMask = mask(query.getTypes());
+		int tasteMask = mask(query.getTastes());
+		int minPrice = query.getMinPrice();
+		int maxPrice = query.getMaxPrice();
+		int i = 0, j = 0;
+		if (query.getAfter() != null) {
+			i = base.after(query.getAfter());
+			j = overlay.after(query.getAfter());
+		}
+		List<MenuResponse> rows = new ArrayList<>(Math.min(limit, size));
+		Long nextAfter = null;
+		while (i < base.length || j < overlay.length) {
+			Columns from;
+			int k;
+			if (j == overlay.length || (i < base.length && base.ids[i] < overlay.ids[j])) {
+				from = base;
+				k = i++;
+			} else {
+				if (i < base.length && base.ids[i] == overlay.ids[j]) {
+					i++; // base 행은 overlay 행으로 대체
+				}
+				from = overlay;
+				k = j++;
+				if (from.types[k] == DELETED) {
+					continue;
+				}
+			}
+			if ((typeMask >>> from.types[k] & 1) != 0 && (tasteMask >>> from.tastes[k] & 1) != 0
+					&& from.prices[k] >= minPrice && from.prices[k] <= maxPrice) {
+				if (rows.size() == limit) {
+					// 조건에 맞는 행이 더 있으면 다음 페이지 존재
+					nextAfter = rows.get(limit - 1).getId();
+					break;
+				}
+				rows.add(from.toResponse(k));
+			}
+		}
+		return new MenuPage(Collections.unmodifiableList(rows), nextAfter, null, version);
+	}
+
+	// enum 순번 비트 집합 (null이면 전체)
+	private static int mask(Set<? extends Enum<?>> values) {
+		if (values == null) {
+			return -1;
+		}
+		int mask = 0;
+		for (Enum<?> value : values) {
+			mask |= 1 << value.ordinal();
+		}
+		return mask;
+	}
+
+	/**
+	 * 변경 반영한 새 스냅샷 생성
+	 *  - 기존 overlay와 변경분을 합친 새 overlay를 만든다. 기준 크기를 넘으면 base로 합친다.
+	 * @param changes id별 현재 행 (null이면 삭제)
+	 * @throws IllegalStateException type/taste가 enum에 정의되지 않은 행
+	 */
+	public MenuSnapshot apply(Map<Long, MenuResponse> changes, long newVersion) {
+		long[] changedIds = changes.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+		Columns merged = new Columns(overlay.length + changedIds.length);
+		int j = 0, c = 0;
+		while (j < overlay.length || c < changedIds.length) {
+			if (c == changedIds.length || (j < overlay.length && overlay.ids[j] < changedIds[c])) {
+				merged.copy(overlay, j++);
+			} else {
+				if (j < overlay.length && overlay.ids[j] == changedIds[c]) {
+					j++; // 기존 overlay 행은 변경된 행으로 대체
+				}
+				long id = changedIds[c++];
+				MenuResponse row = changes.get(id);
+				if (row == null) {
+					merged.addDeleted(id);
+				} else {
+					// 수정 전 행과 같은 문자열이면 기존 인스턴스를 그대로 사용
+					MenuResponse previous = get(id);
+					merged.add(row, previous);
+				}
+			}
+		}
+		if (merged.length > Math.max(MIN_OVERLAY, base.length >>> 6)) {
+			return new MenuSnapshot(compact(base, merged), Columns.EMPTY, newVersion);
+		}
+		return new MenuSnapshot(base, merged, newVersion);
+	}
+
+	// overlay를 base에 합친 새 base. 변경되지 않은 구간은 배열 단위로 복사한다
+	private static Columns compact(Columns base, Columns overlay) {
+		Columns result = new Columns(base.length + overlay.length);
+		int i = 0;
+		for (int j = 0; j < overlay.length; j++) {
+			int pos = Arrays.binarySearch(base.ids, i, base.length, overlay.ids[j]);
+			int end = pos >= 0 ? pos : -pos - 1;
+			result.copyRange(base, i, end - i);
+			i = pos >= 0 ? pos + 1 : end;
+			if (overlay.types[j] != DELETED) {
+				result.copy(overlay, j);
+			}
+		}
+		result.copyRange(base, i, base.length - i);
+		return result.trim();
+	}
+
+	// overlay를 합친 컬럼 (재조정 비교, 메모리 추정용)
+	private Columns compacted() {
+		return overlay.length == 0 ? base : compact(base, overlay);
+	}
+
+	// 다른 스냅샷과 내용이 다른 행 수 (재조정 시 누락된 변경 확인용)
+	public int countDifferences(MenuSnapshot other) {
+		Columns a = compacted(), b = other.compacted();
+		int diff = 0, i = 0, j = 0;
+		while (i < a.length && j < b.length) {
+			if (a.ids[i] < b.ids[j]) {
+				diff++;
+				i++;
+			} else if (a.ids[i] > b.ids[j]) {
+				diff++;
+				j++;
+			} else {
+				if (!a.sameRow(i, b, j)) {
+					diff++;
+				}
+				i++;
+				j++;
+			}
+		}
+		return diff + (a.length - i) + (b.length - j);
+	}
+
+	/**
+	 * 메모리 사용량 추정 (byte, 압축 oop 기준)
+	 *  - 배열: 헤더 16 + 원소 크기 * 길이
+	 *  - 문자열: 스냅샷 안에서 서로 다른 인스턴스만 계산. String 객체 24 + byte[] 헤더 16 + 내용
+	 *    (한글이 포함되면 UTF-16으로 글자당 2byte)
+	 */
+	public long estimatedBytes() {
+		Map<String, Boolean> seen = new IdentityHashMap<>();
+		return base.estimatedBytes(seen) + overlay.estimatedBytes(seen);
+	}
+
+	private static long stringBytes(String s, Map<String, Boolean> seen) {
+		if (s == null || seen.put(s, Boolean.TRUE) != null) {
+			return 0;
+		}
+		boolean latin1 = s.chars().allMatch(c -> c < 256);
+		return 24 + align(16 + (long) s.length() * (latin1 ? 1 : 2));
+	}
+
+	private static long align(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+
+	public static MenuSnapshot empty(long version) {
+		return new Builder(0).build(version);
+	}
+
+	/*
+	 * 컬럼별 배열 묶음 (id 오름차순)
+	 *  - 만드는 동안에만 변경하고, 스냅샷에 담긴 뒤에는 수정하지 않는다.
+	 */
+	private static final class Columns {
+		private static final Columns EMPTY = new Columns(0);
+
+		private long[] ids;
+		private String[] restaurants;
+		private String[] names;
+		private int[] prices;
+		private byte[] types;
+		private byte[] tastes;
+		private long[] versions;
+		private int length;
+
+		private Columns(int capacity) {
+			ids = new long[capacity];
+			restaurants = new String[capacity];
+			names = new String[capacity];
+			prices = new int[capacity];
+			types = new byte[capacity];
+			tastes = new byte[capacity];
+			versions = new long[capacity];
+		}
+
+		// 배열 뒤쪽의 남는 칸은 제외하고 검색
+		private int indexOf(long id) {
+			return Arrays.binarySearch(ids, 0, length, id);
+		}
+
+		// id 다음 위치
+		private int after(long id) {
+			int pos = indexOf(id);
+			return pos >= 0 ? pos + 1 : -pos - 1;
+		}
+
+		private void add(MenuResponse row, MenuResponse previous) {
+			MenuType type = MenuType.of(row.getType());
+			MenuTaste taste = MenuTaste.of(row.getTaste());
+			if (type == null || taste == null) {
+				throw new IllegalStateException("스냅샷에 담을 수 없는 메뉴 type/taste : " + row);
+			}
+			ensureCapacity();
+			ids[length] = row.getId();
+			restaurants[length] = previous != null && Objects.equals(previous.getRestaurant(), row.getRestaurant())
+					? previous.getRestaurant() : row.getRestaurant();
+			names[length] = previous != null && Objects.equals(previous.getName(), row.getName())
+					? previous.getName() : row.getName();
+			prices[length] = row.getPrice();
+			types[length] = (byte) type.ordinal();
+			tastes[length] = (byte) taste.ordinal();
+			versions[length] = row.getVersion();
+			length++;
+		}
+
+		private void addDeleted(long id) {
+			ensureCapacity();
+			ids[length] = id;
+			restaurants[length] = null;
+			names[length] = null;
+			types[length] = DELETED;
+			length++;
+		}
+
+		private void copy(Columns from, int i) {
+			copyRange(from, i, 1);
+		}
+
+		private void copyRange(Columns from, int start, int count) {
+			if (count <= 0) {
+				return;
+			}
+			System.arraycopy(from.ids, start, ids, length, count);
+			System.arraycopy(from.restaurants, start, restaurants, length, count);
+			System.arraycopy(from.names, start, names, length, count);
+			System.arraycopy(from.prices, start, prices, length, count);
+			System.arraycopy(from.types, start, types, length, count);
+			System.arraycopy(from.tastes, start, tastes, length, count);
+			System.arraycopy(from.versions, start, versions, length, count);
+			length += count;
+		}
+
+		private void ensureCapacity() {
+			if (length == ids.length) {
+				int capacity = Math.max(ids.length * 2, 16);
+				ids = Arrays.copyOf(ids, capacity);
+				restaurants = Arrays.copyOf(restaurants, capacity);
+				names = Arrays.copyOf(names, capacity);
+				prices = Arrays.copyOf(prices, capacity);
+				types = Arrays.copyOf(types, capacity);
+				tastes = Arrays.copyOf(tastes, capacity);
+				versions = Arrays.copyOf(versions, capacity);
+			}
+		}
+
+		// 남는 칸 제거
+		private Columns trim() {
+			if (length < ids.length) {
+				ids = Arrays.copyOf(ids, length);
+				restaurants = Arrays.copyOf(restaurants, length);
+				names = Arrays.copyOf(names, length);
+				prices = Arrays.copyOf(prices, length);
+				types = Arrays.copyOf(types, length);
+				tastes = Arrays.copyOf(tastes, length);
+				versions = Arrays.copyOf(versions, length);
+			}
+			return this;
+		}
+
+		private boolean sameRow(int i, Columns other, int j) {
+			return prices[i] == other.prices[j]
+					&& types[i] == other.types[j]
+					&& tastes[i] == other.tastes[j]
+					&& versions[i] == other.versions[j]
+					&& Objects.equals(restaurants[i], other.restaurants[j])
+					&& Objects.equals(names[i], other.names[j]);
+		}
+
+		private MenuResponse toResponse(int i) {
+			return new MenuResponse(ids[i], restaurants[i], names[i], prices[i],
+					MenuType.ofOrdinal(types[i]).getCode(), MenuTaste.ofOrdinal(tastes[i]).getCode(), versions[i]);
+		}
+
+		private long estimatedBytes(Map<String, Boolean> seen) {
+			int n = ids.length;
+			long bytes = align(16 + 8L * n) * 2 // ids, versions
+					+ align(16 + 4L * n) // prices
+					+ align(16 + (long) n) * 2 // types, tastes
+					+ align(16 + 4L * n) * 2; // restaurants, names 참조 배열
+			for (int i = 0; i < length; i++) {
+				bytes += stringBytes(restaurants[i], seen) + stringBytes(names[i], seen);
+			}
+			return bytes;
+		}
+	}
+
+	/*
+	 * 스냅샷 생성기 (id 오름차순으로 add 해야 한다)
+	 *  - type/taste가 enum에 정의되지 않은 값이면 IllegalStateException
+	 */
+	public static class Builder {
+		private final Columns columns;
+		private final Map<String, String> strings = new HashMap<>();
+
+		public Builder(int capacity) {
+			columns = new Columns(Math.max(capacity, 16));
+		}
+
+		public Builder add(MenuResponse row) {
+			int size = columns.length;
+			if (size > 0 && columns.ids[size - 1] >= row.getId()) {
+				throw new IllegalStateException("id 오름차순이 아닙니다 : " + row.getId());
+			}
+			columns.add(row, null);
+			columns.restaurants[size] = intern(row.getRestaurant());
+			columns.names[size] = intern(row.getName());
+			return this;
+		}
+
+		private String intern(String s) {
+			if (s == null) {
+				return null;
+			}
+			String existing = strings.putIfAbsent(s, s);
+			return existing != null ? existing : s;
+		}
+
+		public MenuSnapshot build(long version) {
+			Columns built = new Columns(columns.length);
+			built.copyRange(columns, 0, columns.length);
+			return new MenuSnapshot(built, Columns.EMPTY, version);
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package com.kh.menu.model.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.kh.menu.model.dto.MenuDto.MenuResponse;
+import com.kh.menu.model.event.MenuChangeDispatcher;
+import com.kh.menu.model.event.MenuChangeListener;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * 메뉴 스냅샷 모드 (menu.snapshot.enabled=true 인 경우에만 등록)
+ *  - MENU 테이블 전체를 MenuSnapshot으로 메모리에 올려두고 MenuService의 조회를 DB 없이 처리한다.
+ *  - 변경 통지를 받으면 새 스냅샷을 만들어 volatile 필드 하나로 교체한다. 읽는 쪽은 락이 필요 없다.
+ *  - 스냅샷 버전은 dispatcher가 전달한 행 버전(테이블 버전)이므로 DB 조회와 같은 ETag가 된다.
+ *  - 주기적으로 DB 전체를 다시 읽어 스냅샷과 비교(재조정)하고, 차이가 있으면 로그를 남기고 교체한다.
+ *    (다른 서버에서 직접 수정한 경우 등 통지를 받지 못한 변경 보정)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "menu.snapshot.enabled", havingValue = "true")
+public class MenuSnapshotStore implements MenuChangeListener {
+	@Autowired
+	private MenuChangeDispatcher dispatcher;
+	private volatile MenuSnapshot snapshot; // 최초 적재 전에는 null
+	private MenuSnapshot.Builder builder; // 재적재 중인 새 스냅샷
+	private volatile long lastReloadMillis;
+	private volatile int lastDrift;
+
+	// 최초 적재 전이면 null
+	public MenuSnapshot current() {
+		return snapshot;
+	}
+
+	@Scheduled(fixedDelayString = "${menu.snapshot.reconcile-interval-ms:300000}",
+			initialDelayString = "${menu.snapshot.reconcile-interval-ms:300000}")
+	public void reconcile() {
+		try {
+			dispatcher.reload(List.of(this));
+		} catch (RuntimeException e) {
+			log.error("menu snapshot reconcile failed", e);
+		}
+	}
+
+	@Override
+	public void menusChanged(Map<Long, MenuResponse> changes, long version) {
+		MenuSnapshot current = snapshot;
+		if (current != null) {
+			try {
+				snapshot = current.apply(changes, version);
+			} catch (IllegalStateException e) {
+				// 스냅샷에 담을 수 없는 행이 생기면 다음 재조정까지 DB 조회로 전환
+				log.error("menu snapshot disabled until next reconcile", e);
+				snapshot = null;
+			}
+		}
+	}
+
+	@Override
+	public void beginReload() {
+		builder = new MenuSnapshot.Builder(snapshot == null ? 1024 : snapshot.size());
+	}
+
+	@Override
+	public void reloadRow(MenuResponse row) {
+		builder.add(row);
+	}
+
+	@Override
+	public void endReload(long version) {
+		MenuSnapshot reloaded = builder.build(version);
+		builder = null;
+		MenuSnapshot previous = snapshot;
+		if (previous != null) {
+			lastDrift = previous.countDifferences(reloaded);
+			if (lastDrift > 0) {
+				log.warn("menu snapshot drift : {} rows differed from DB", lastDrift);
+			}
+		}
+		lastReloadMillis = System.currentTimeMillis();
+		snapshot = reloaded;
+	}
+
+	@Override
+	public void abortReload() {
+		builder = null;
+	}
+
+	public Stats stats() {
+		MenuSnapshot current = snapshot;
+		if (current == null) {
+			return new Stats(false, 0, 0, 0, 0, 0, lastReloadMillis, lastDrift);
+		}
+		long bytes = current.estimatedBytes();
+		int rows = current.size();
+		long perRow = rows == 0 ? 0 : bytes / rows;
+		return new Stats(true, current.getVersion(), rows, bytes, perRow, perRow * 100_000,
+				lastReloadMillis, lastDrift);
+	}
+
+	// 스냅샷 상태 및 메모리 사용량 추정치
+	@Data
+	@AllArgsConstructor
+	public static class Stats {
+		private boolean loaded;
+		private long version;
+		private int rows;
+		private long estimatedBytes;
+		private long bytesPerRow;
+		private long estimatedBytesPer100k; // 메뉴 10만건 기준 예상 사용량
+		private long lastReloadMillis;
+		private int lastDrift; // 마지막 재조정 때 DB와 달랐던 행 수
+	}
+}
@@ -0,0 +1,45 @@
+package com.kh.menu.model.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kh.menu.model.dao.MenuDao;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * 삭제 기록(MENU_TOMBSTONE) 보관 기간 정리
+ *  - retentionDays가 지난 삭제 기록을 지우고, 지운 기록의 최대 버전을 MENU_VERSION.PRUNED_VERSION에 남긴다.
+ *  - 변경분 조회의 since가 PRUNED_VERSION보다 작으면 삭제를 놓칠 수 있으므로 410으로 전체 재동기화를 요구한다.
+ *  - 삭제는 날짜가 아니라 버전 기준으로 하므로, 조회와 삭제 사이에 기간이 지난 기록은 다음 주기에 정리된다.
+ */
+@Slf4j
+@Component
+public class MenuTombstonePruner {
+	private final MenuDao dao;
+	private final int retentionDays;
+
+	public MenuTombstonePruner(MenuDao dao,
+			@Value("${menu.tombstone.retention-days:30}") int retentionDays) {
+		if (retentionDays <= 0) {
+			throw new IllegalArgumentException("retentionDays는 양수여야 합니다.");
+		}
+		this.dao = dao;
+		this.retentionDays = retentionDays;
+	}
+
+	@Transactional
+	@Scheduled(fixedDelayString = "${menu.tombstone.prune-interval-ms:3600000}",
+			initialDelayString = "${menu.tombstone.prune-interval-ms:3600000}")
+	public void prune() {
+		Long version = dao.selectExpiredTombstoneVersion(retentionDays);
+		if (version == null) {
+			return;
+		}
+		dao.updatePrunedVersion(version);
+		int deleted = dao.deleteTombstones(version);
+		log.info("menu tombstones pruned : {} rows, up to version {}", deleted, version);
+	}
+}
@@ -1,6 +1,7 @@
 package com.kh.menu.security.controller;
 
 import java.time.Duration;
+import java.util.List;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -10,11 +11,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.kh.menu.common.bloom.BloomFilterStats;
 import com.kh.menu.security.model.dto.AuthDto.AuthResult;
 import com.kh.menu.security.model.dto.AuthDto.LoginRequest;
 import com.kh.menu.security.model.dto.AuthDto.User;
@@ -41,14 +45,12 @@ public class AuthController {
 	 */
 	@PostMapping("/login")
 	public ResponseEntity<AuthResult> login(@RequestBody LoginRequest req) {
-		// 1) 사용자가 존재하는지 확인
-		boolean exists = service.existsByEmail(req.getEmail());
-		if (!exists) {
-			System.out.println(ResponseEntity.notFound().build());
-			return ResponseEntity.notFound().build(); 
-		}
 		try {
+			// 사용자 조회와 비밀번호 확인을 한 번에 (존재하지 않는 사용자면 null)
 			AuthResult result = service.login(req.getEmail(), req.getPassword());
+			if (result == null) {
+				return ResponseEntity.notFound().build();
+			}
 			// refreshToken은 http-only 쿠키로 설정하여 반환
 			ResponseCookie refreshCookie = ResponseCookie
 					.from(REFRESH_COOKIE, result.getRefreshToken())
@@ -105,6 +107,7 @@ public class AuthController {
 		// 1. 클라이언트의 헤더에서 id값 추출
 		String accessToken = resolveAccessToken(request);
 		long userId = jwt.getUserId(accessToken);
+		service.evictProfile(userId);
 		// 2. db에서 사용자의 카카오 access token 조회
 		String kakaoAccessToken = service.getKakaoAccessToken(userId);
 		if (kakaoAccessToken != null) {
@@ -125,6 +128,34 @@ public class AuthController {
 				.build();
 	}
 	
+	/*
+	 * 권한 변경 (관리자 전용, SecurityConfig)
+	 *  - 사용자의 권한을 roles(ROLE_USER, ROLE_ADMIN 등)로 교체한다.
+	 *  - 변경 전에 발급된 access token은 401로 거절되고, 클라이언트는 /auth/refresh로 새 권한이 담긴 토큰을 받는다.
+	 *  - roles가 비어 있거나 ROLE_로 시작하지 않는 값이 있으면 400, 없는 사용자면 404
+	 */
+	@PutMapping("/users/{userId}/roles")
+	public ResponseEntity<Void> changeRoles(@PathVariable long userId, @RequestBody List<String> roles) {
+		if (roles == null || roles.isEmpty()) {
+			return ResponseEntity.badRequest().build();
+		}
+		for (String role : roles) {
+			if (role == null || !role.startsWith("ROLE_") || role.length() == "ROLE_".length()) {
+				return ResponseEntity.badRequest().build();
+			}
+		}
+		if (service.changeRoles(userId, roles) > 0) {
+			return ResponseEntity.noContent().build();
+		}
+		return ResponseEntity.notFound().build();
+	}
+	
+	// 가입된 이메일 필터 통계 (오탐률 모니터링)
+	@GetMapping("/email-filter/stats")
+	public ResponseEntity<BloomFilterStats> emailFilterStats() {
+		return ResponseEntity.ok(service.emailFilterStats());
+	}
+	
 	@GetMapping("/me")
 	public ResponseEntity<User> getUserInfo(HttpServletRequest req) {
 		// 1. 요청 헤더에서 jwt 토큰 추출
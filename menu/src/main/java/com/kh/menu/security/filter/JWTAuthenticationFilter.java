@@ -1,15 +1,14 @@
 package com.kh.menu.security.filter;
 
 import java.io.IOException;
-import java.util.List;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.kh.menu.security.model.provider.JWTProvider;
+import com.kh.menu.security.model.provider.JWTProvider.AccessToken;
 
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
@@ -33,21 +32,18 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
 		String header = request.getHeader("Authorization");
 		if (header != null && header.startsWith("Bearer ")) {
 			try {
-				// 2) 토큰에서 userId 추출
+				// 2) 토큰에서 userId, 권한 추출
 				String token = header.substring(7).trim();
-				long userId = jwt.getUserId(token);
-				log.debug("userId : {}", userId);
+				AccessToken access = jwt.verify(token);
+				log.debug("userId : {}", access.getUserId());
 				
 				UsernamePasswordAuthenticationToken authToken
-				= new UsernamePasswordAuthenticationToken(userId, null,
-					List.of(new SimpleGrantedAuthority("ROLE_USER"))
-					// payload에 롤정보 같이보내거나
-					// db에서 가져오거나 (하드드라이브에 저장돼서 성능이 안좋음)
-					// 실무? inMemoryDB 메모리 내부에 db 설치해서 유저정보 담아서 select 해옴 x1000
+				= new UsernamePasswordAuthenticationToken(access.getUserId(), null,
+					access.getAuthorities() // payload의 rol 클레임 (DB 조회 없음)
 				);
 				// 인증처리 끗.
 				SecurityContextHolder.getContext().setAuthentication(authToken);
-			} catch(ExpiredJwtException e) {
+			} catch(ExpiredJwtException e) { // 만료 또는 권한 변경 -> 클라이언트가 /auth/refresh로 재발급
 				SecurityContextHolder.clearContext(); // 인증정보 지우기
 				response.sendError(HttpServletResponse.SC_UNAUTHORIZED); // 401 상태
 				return;
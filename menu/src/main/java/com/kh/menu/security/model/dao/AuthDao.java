@@ -1,8 +1,11 @@
 package com.kh.menu.security.model.dao;
 
+import java.util.function.Consumer;
+
 import org.mybatis.spring.SqlSessionTemplate;
 import org.springframework.stereotype.Repository;
 
+import com.kh.menu.common.id.IdAllocator;
 import com.kh.menu.security.model.dto.AuthDto.User;
 import com.kh.menu.security.model.dto.AuthDto.UserAuthority;
 import com.kh.menu.security.model.dto.AuthDto.UserCredential;
@@ -14,12 +17,23 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AuthDao {
 	private final SqlSessionTemplate session;
+	private final IdAllocator userIdAllocator;
 
 	public User findUserByEmail(String email) {
 		return session.selectOne("auth.findUserByEmail", email);
 	}
 
+	public int countUsers() {
+		return session.selectOne("auth.countUsers");
+	}
+
+	// 가입된 이메일을 List로 모으지 않고 한 건씩 consumer에게 전달
+	public void streamEmails(Consumer<String> consumer) {
+		session.select("auth.selectEmails", context -> consumer.accept((String) context.getResultObject()));
+	}
+
 	public void insertUser(User user) {
+		user.setId(userIdAllocator.nextId());
 		session.insert("auth.insertUser", user);
 	}
 
@@ -31,6 +45,10 @@ public class AuthDao {
 		session.insert("auth.insertUserRole", auth);
 	}
 
+	public int deleteUserRoles(long userId) {
+		return session.delete("auth.deleteUserRoles", userId);
+	}
+
 	public User findUserByUserId(Long userId) {
 		return session.selectOne("auth.findUserByUserId", userId);
 	}
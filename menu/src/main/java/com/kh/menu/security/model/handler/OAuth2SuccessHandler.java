@@ -31,7 +31,7 @@ public class OAuth2SuccessHandler implements AuthenticationSuccessHandler {
 			Authentication authentication) throws IOException, ServletException {
 		CustomOAuth2User oauth2User = (CustomOAuth2User) authentication.getPrincipal();
 		long id = (long) oauth2User.getUserId();
-		String accessToken = jwt.createAccessToken(id, 30);
+		String accessToken = jwt.createAccessToken(id, oauth2User.getRoles(), 30);
 		String refreshToken = jwt.createRefreshToken(id, 7);
 		ResponseCookie cookie = ResponseCookie
 				.from(AuthController.REFRESH_COOKIE, refreshToken)
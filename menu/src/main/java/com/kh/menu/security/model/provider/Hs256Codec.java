@@ -0,0 +1,315 @@
+package com.kh.menu.security.model.provider;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import javax.crypto.Mac;
+
+/*
+ * HS256 + {sub, rol, iat, exp} 전용 JWT 인코더/디코더
+ *  - JWTProvider가 발급하는 토큰은 헤더 {"alg":"HS256"}, 페이로드 {"sub":"id","rol":"USER,ADMIN","iat":초,"exp":초} 형태로 고정이다.
+ *    rol은 없을 수 있고(refresh token, 이전에 발급된 access token), 값은 영문 대문자/숫자/_/,로만 구성된다.
+ *    jjwt의 범용 빌더/파서(클레임 Map, Jackson 직렬화, Base64 문자열 변환) 대신 이 형태만 바이트 단위로 직접 처리한다.
+ *  - jjwt로 만든 토큰과 바이트 단위로 같은 토큰을 만들고, jjwt로 만든 토큰을 그대로 읽는다. (호환)
+ *  - Mac과 작업용 버퍼는 스레드마다 하나씩 만들어서 재사용한다. 디코딩은 결과 객체 외에는 할당하지 않는다.
+ *  - 서명 비교는 MessageDigest.isEqual(비교 시간이 내용과 무관)로 한다.
+ *  - 형태가 다르거나, 서명이 맞지 않거나, 만료된 토큰은 null을 반환한다.
+ *    호출하는 쪽은 jjwt로 다시 검증해서 jjwt와 같은 예외(ExpiredJwtException 등)가 발생하게 한다.
+ */
+final class Hs256Codec {
+	// {"alg":"HS256"}
+	private static final byte[] HEADER = "eyJhbGciOiJIUzI1NiJ9".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] SUB = "{\"sub\":\"".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] ROL = "\",\"rol\":\"".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] IAT = "\",\"iat\":".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] EXP = ",\"exp\":".getBytes(StandardCharsets.US_ASCII);
+	private static final int SIGNATURE_LENGTH = 32;
+	private static final int MAX_TOKEN_LENGTH = 512; // 이 형태의 토큰은 200자 안팎
+	private static final int MAX_ROLES_LENGTH = 128;
+	private static final int MAX_DIGITS = 18; // long 범위 안에서 overflow 없이 읽을 수 있는 자릿수
+
+	private static final byte[] ENCODE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+			.getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] DECODE = new byte[128];
+
+	static {
+		Arrays.fill(DECODE, (byte) -1);
+		for (int i = 0; i < ENCODE.length; i++) {
+			DECODE[ENCODE[i]] = (byte) i;
+		}
+	}
+
+	private final ThreadLocal<Scratch> scratch;
+
+	Hs256Codec(Key key) {
+		this.scratch = ThreadLocal.withInitial(() -> new Scratch(key));
+	}
+
+	// roles가 null이면 rol 클레임 없음. supports(roles)가 아닌 값은 호출하는 쪽에서 jjwt로 발급
+	String encode(long subject, String roles, long issuedAt, long expiresAt) {
+		Scratch s = scratch.get();
+		byte[] json = s.json;
+		int n = put(json, 0, SUB);
+		n = putDigits(json, n, subject);
+		if (roles != null) {
+			n = put(json, n, ROL);
+			for (int i = 0; i < roles.length(); i++) {
+				json[n++] = (byte) roles.charAt(i);
+			}
+		}
+		n = put(json, n, IAT);
+		n = putDigits(json, n, issuedAt);
+		n = put(json, n, EXP);
+		n = putDigits(json, n, expiresAt);
+		json[n++] = '}';
+
+		byte[] out = s.token;
+		int len = put(out, 0, HEADER);
+		out[len++] = '.';
+		len = encodeBase64(json, n, out, len);
+		s.mac.update(out, 0, len);
+		try {
+			s.mac.doFinal(s.expected, 0);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+		out[len++] = '.';
+		len = encodeBase64(s.expected, SIGNATURE_LENGTH, out, len);
+		return new String(out, 0, len, StandardCharsets.ISO_8859_1);
+	}
+
+	// JSON 이스케이프가 필요 없고 버퍼에 들어가는 rol 값인지
+	static boolean supports(String roles) {
+		if (roles == null) {
+			return true;
+		}
+		if (roles.length() > MAX_ROLES_LENGTH) {
+			return false;
+		}
+		for (int i = 0; i < roles.length(); i++) {
+			if (!isRoleChar(roles.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isRoleChar(int c) {
+		return c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_' || c == ',';
+	}
+
+	// 서명이 맞고 만료되지 않은 {sub, rol?, iat, exp} 토큰이면 페이로드, 아니면 null
+	Payload decode(String token, long nowMillis) {
+		int length = token.length();
+		if (length > MAX_TOKEN_LENGTH || length <= HEADER.length || token.charAt(HEADER.length) != '.') {
+			return null;
+		}
+		int dot = token.indexOf('.', HEADER.length + 1);
+		if (dot < 0 || token.indexOf('.', dot + 1) >= 0) {
+			return null;
+		}
+		Scratch s = scratch.get();
+		byte[] signed = s.token;
+		for (int i = 0; i < dot; i++) {
+			char c = token.charAt(i);
+			if (c > 127 || i < HEADER.length && c != HEADER[i]) {
+				return null;
+			}
+			signed[i] = (byte) c;
+		}
+		if (decodeBase64(token, dot + 1, length, s.signature) != SIGNATURE_LENGTH) {
+			return null;
+		}
+		s.mac.update(signed, 0, dot);
+		try {
+			s.mac.doFinal(s.expected, 0);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+		if (!MessageDigest.isEqual(s.expected, s.signature)) {
+			return null;
+		}
+		int n = decodeBase64(token, HEADER.length + 1, dot, s.json);
+		if (n < 0) {
+			return null;
+		}
+		return parsePayload(s.json, n, nowMillis);
+	}
+
+	// {"sub":"숫자","rol":"역할","iat":숫자,"exp":숫자} ("rol" 생략 가능) 외의 형태는 null
+	private static Payload parsePayload(byte[] json, int n, long nowMillis) {
+		int p = expect(json, 0, n, SUB);
+		long subject = 0;
+		int start = p;
+		while (p >= 0 && p < n && json[p] >= '0' && json[p] <= '9' && p - start < MAX_DIGITS) {
+			subject = subject * 10 + (json[p++] - '0');
+		}
+		if (p == start) {
+			return null;
+		}
+		String roles = null;
+		int rol = expect(json, p, n, ROL);
+		if (rol >= 0) {
+			p = rol;
+			while (p < n && isRoleChar(json[p])) {
+				p++;
+			}
+			roles = new String(json, rol, p - rol, StandardCharsets.US_ASCII);
+		}
+		p = expect(json, p, n, IAT);
+		long issuedAt = 0;
+		start = p;
+		while (p >= 0 && p < n && json[p] >= '0' && json[p] <= '9' && p - start < MAX_DIGITS) {
+			issuedAt = issuedAt * 10 + (json[p++] - '0');
+		}
+		if (p == start) {
+			return null;
+		}
+		p = expect(json, p, n, EXP);
+		long expiresAt = 0;
+		start = p;
+		while (p >= 0 && p < n && json[p] >= '0' && json[p] <= '9' && p - start < MAX_DIGITS) {
+			expiresAt = expiresAt * 10 + (json[p++] - '0');
+		}
+		if (p < 0 || p == start || p != n - 1 || json[p] != '}') {
+			return null;
+		}
+		// jjwt와 같은 기준 : 현재 시각이 exp를 지나면 만료
+		if (nowMillis > expiresAt * 1000) {
+			return null;
+		}
+		return new Payload(subject, roles, issuedAt, expiresAt);
+	}
+
+	// p부터 literal이 있으면 그 다음 위치, 없으면 -1
+	private static int expect(byte[] json, int p, int n, byte[] literal) {
+		if (p < 0 || p + literal.length > n) {
+			return -1;
+		}
+		for (int i = 0; i < literal.length; i++) {
+			if (json[p + i] != literal[i]) {
+				return -1;
+			}
+		}
+		return p + literal.length;
+	}
+
+	private static int put(byte[] dst, int p, byte[] src) {
+		System.arraycopy(src, 0, dst, p, src.length);
+		return p + src.length;
+	}
+
+	private static int putDigits(byte[] dst, int p, long value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("음수는 사용할 수 없습니다 : " + value);
+		}
+		int digits = 1;
+		for (long v = value / 10; v > 0; v /= 10) {
+			digits++;
+		}
+		for (int i = p + digits - 1; i >= p; i--) {
+			dst[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+		return p + digits;
+	}
+
+	// 패딩 없는 Base64URL
+	private static int encodeBase64(byte[] src, int n, byte[] dst, int p) {
+		int i = 0;
+		for (; i + 3 <= n; i += 3) {
+			int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+			dst[p++] = ENCODE[bits >>> 18];
+			dst[p++] = ENCODE[bits >>> 12 & 0x3F];
+			dst[p++] = ENCODE[bits >>> 6 & 0x3F];
+			dst[p++] = ENCODE[bits & 0x3F];
+		}
+		if (n - i == 1) {
+			int bits = (src[i] & 0xFF) << 16;
+			dst[p++] = ENCODE[bits >>> 18];
+			dst[p++] = ENCODE[bits >>> 12 & 0x3F];
+		} else if (n - i == 2) {
+			int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8;
+			dst[p++] = ENCODE[bits >>> 18];
+			dst[p++] = ENCODE[bits >>> 12 & 0x3F];
+			dst[p++] = ENCODE[bits >>> 6 & 0x3F];
+		}
+		return p;
+	}
+
+	// 패딩 없는 Base64URL. 잘못된 문자나 길이, dst보다 긴 경우, 마지막 문자의 남는 비트가 0이 아닌 경우 -1
+	// (남는 비트를 무시하면 서명 끝 문자만 다른 여러 토큰이 같은 토큰으로 검증된다)
+	private static int decodeBase64(String src, int from, int to, byte[] dst) {
+		int chars = to - from;
+		if (chars % 4 == 1 || chars / 4 * 3 + Math.max(chars % 4 - 1, 0) > dst.length) {
+			return -1;
+		}
+		int p = 0;
+		int bits = 0;
+		int count = 0;
+		for (int i = from; i < to; i++) {
+			char c = src.charAt(i);
+			int v = c < 128 ? DECODE[c] : -1;
+			if (v < 0) {
+				return -1;
+			}
+			bits = bits << 6 | v;
+			if (++count == 4) {
+				dst[p++] = (byte) (bits >> 16);
+				dst[p++] = (byte) (bits >> 8);
+				dst[p++] = (byte) bits;
+				bits = 0;
+				count = 0;
+			}
+		}
+		if (count == 3) {
+			if ((bits & 0x3) != 0) {
+				return -1;
+			}
+			dst[p++] = (byte) (bits >> 10);
+			dst[p++] = (byte) (bits >> 2);
+		} else if (count == 2) {
+			if ((bits & 0xF) != 0) {
+				return -1;
+			}
+			dst[p++] = (byte) (bits >> 4);
+		}
+		return p;
+	}
+
+	// 검증된 페이로드 (시간은 초 단위)
+	static final class Payload {
+		final long subject;
+		final String roles; // rol 클레임이 없으면 null
+		final long issuedAt;
+		final long expiresAt;
+
+		private Payload(long subject, String roles, long issuedAt, long expiresAt) {
+			this.subject = subject;
+			this.roles = roles;
+			this.issuedAt = issuedAt;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	// 스레드별 Mac과 작업용 버퍼
+	private static final class Scratch {
+		private final Mac mac;
+		private final byte[] token = new byte[MAX_TOKEN_LENGTH];
+		private final byte[] json = new byte[MAX_TOKEN_LENGTH];
+		private final byte[] signature = new byte[SIGNATURE_LENGTH];
+		private final byte[] expected = new byte[SIGNATURE_LENGTH];
+
+		private Scratch(Key key) {
+			try {
+				mac = Mac.getInstance("HmacSHA256");
+				mac.init(key);
+			} catch (GeneralSecurityException e) {
+				throw new IllegalStateException("HmacSHA256을 사용할 수 없습니다.", e);
+			}
+		}
+	}
+}
@@ -1,15 +1,29 @@
 package com.kh.menu.security.model.provider;
 
 import java.security.Key; // 암호화 서명이 완료된 키 객체만 보관
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import lombok.Getter;
 
 /*
  * #1. JWT
@@ -42,22 +56,89 @@ import io.jsonwebtoken.security.Keys;
 public class JWTProvider {
 	private final Key key;
 	private final Key refreshKey;
+	// 파서는 만든 뒤에 상태가 바뀌지 않으므로(thread-safe) 한 번만 만들어서 재사용
+	private final JwtParser parser;
+	private final JwtParser refreshParser;
+	// 직접 발급한 {sub, rol, iat, exp} 형태의 토큰 발급/검증 (그 외 형태나 검증 실패 시 jjwt 파서로 다시 검증)
+	private final Hs256Codec codec;
+	private final Hs256Codec refreshCodec;
+	/*
+	 * 검증된 access token 캐시
+	 *  - 같은 토큰이 만료 전까지 매 요청마다 전달되므로, 한 번 검증한 토큰은 서명 검증과 JSON 파싱을 생략한다.
+	 *  - 필터가 모든 요청에서 조회하므로 락 없는 ConcurrentHashMap을 사용한다.
+	 *  - 키는 토큰 전체의 SHA-256(TokenDigest)이다. 토큰 문자열은 보관하지 않는다. (힙 덤프 등에 노출 방지)
+	 *    요청마다 헤더에서 새 문자열을 받으므로 문자열을 키로 써도 조회마다 토큰 전체를 해시하게 된다. (JWTFilterBenchmark 참고)
+	 *  - 항목마다 토큰의 만료시간을 저장하고, 만료된 항목은 사용하지 않고 다시 검증한다. (ExpiredJwtException)
+	 *  - 최대 크기에 도달하면 한 스레드만 정리한다. 만료된 항목을 먼저 지우고, 그래도 많으면 임의의 1/4을 지운다.
+	 *    (지워진 토큰은 다음 요청에서 다시 검증될 뿐이므로 LRU 순서를 유지하지 않는다)
+	 */
+	private final ConcurrentHashMap<TokenDigest, AccessToken> verified = new ConcurrentHashMap<>();
+	private final int verifiedCacheSize;
+	private final AtomicBoolean evicting = new AtomicBoolean();
+	/*
+	 * 권한(rol 클레임)
+	 *  - access token에 "ROLE_" 접두어를 뺀 역할 이름을 ,로 이어서 담는다. (ROLE_USER, ROLE_ADMIN -> "USER,ADMIN")
+	 *    필터는 DB 조회 없이 클레임으로 권한을 만든다. "ROLE_"로 시작하지 않는 권한은 담지 않는다.
+	 *  - 같은 클레임 값은 같은 권한 목록(변경 불가)을 재사용한다. 역할 조합은 몇 가지뿐이므로 maxRoleSets개까지만 저장
+	 *  - rol 클레임이 없는 토큰(이 기능 이전에 발급된 토큰)은 기존과 같이 ROLE_USER
+	 */
+	public static final String ROLES_CLAIM = "rol";
+	private static final String ROLE_PREFIX = "ROLE_";
+	private static final List<GrantedAuthority> DEFAULT_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+	private static final int MAX_ROLE_SETS = 256;
+	private final Map<String, List<GrantedAuthority>> authorities = new ConcurrentHashMap<>();
+	/*
+	 * 권한 변경 시각 (userId -> 초)
+	 *  - 권한이 바뀐 사용자의 변경 전에 발급된 access token은 만료된 토큰과 같이 처리(401)해서, 클라이언트가 refresh로
+	 *    새 권한이 담긴 토큰을 다시 받게 한다.
+	 *  - 토큰의 iat가 초 단위이므로 iat가 변경 시각 이하인 토큰을 거절한다. (변경과 같은 초에 발급된 이전 권한 토큰 포함)
+	 *    대신 변경 이후 발급하는 토큰은 iat를 변경 시각 + 1초 이상으로 설정해서, 같은 초에 refresh로 받은 토큰이 거절되지 않게 한다.
+	 *  - access token 유효시간(retention)이 지난 항목은 더 이상 필요 없으므로 다음 변경 시 제거한다.
+	 *  - 서버 메모리에만 저장하므로 서버가 여러 대이면 각 서버에 알려야 한다.
+	 */
+	private final Map<Long, Long> rolesChangedAt = new ConcurrentHashMap<>();
+	private final long rolesChangedRetentionSeconds;
 	
 	public JWTProvider(
 			// 토큰 서명에 사용할 인코딩 된 키 값
 			@Value("${jwt.secret}") String secretBase64,
-			@Value("${jwt.refresh-secret}") String refreshSecretBase64) { 
+			@Value("${jwt.refresh-secret}") String refreshSecretBase64,
+			@Value("${jwt.verified-cache-size:10000}") int verifiedCacheSize,
+			// access token 최대 유효시간 이상
+			@Value("${jwt.roles-changed-retention-minutes:30}") long rolesChangedRetentionMinutes) { 
 		this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretBase64));
 		this.refreshKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(refreshSecretBase64));
+		this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+		this.refreshParser = Jwts.parserBuilder().setSigningKey(refreshKey).build();
+		this.codec = new Hs256Codec(key);
+		this.refreshCodec = new Hs256Codec(refreshKey);
+		this.verifiedCacheSize = verifiedCacheSize;
+		this.rolesChangedRetentionSeconds = rolesChangedRetentionMinutes * 60;
 	}
 	
-	public String createAccessToken(long id, int minutes) {
-		Date now = new Date();
+	// roles : AuthDto.User.roles (ROLE_USER, ...)
+	public String createAccessToken(long id, List<String> roles, int minutes) {
+		return createAccessToken(id, roles, minutes, issuedAt(id));
+	}
+
+	/**
+	 * DB에서 권한을 다시 읽어서 발급하는 경우 (refresh)
+	 * @param issuedAt 권한을 조회하기 전에 issuedAt(id)로 받은 값.
+	 *  조회 도중 권한이 변경되면 이 값이 변경 시각 이하가 되어, 이전 권한이 담긴 토큰은 거절된다.
+	 */
+	public String createAccessToken(long id, List<String> roles, int minutes, long issuedAt) {
+		String rol = compactRoles(roles);
+		long now = System.currentTimeMillis();
+		long expiresAt = (now + (1000L * 60 * minutes)) / 1000;
+		if (Hs256Codec.supports(rol)) {
+			// jjwt 빌더와 같은 토큰 : sub(id), rol(권한), iat(발행시간), exp(만료시간), 시간은 초 단위, HS256 서명
+			return codec.encode(id, rol, issuedAt, expiresAt);
+		}
 		return Jwts.builder()
 				.setSubject(String.valueOf(id)) // 페이로드 sub에 저장할 id
-				.setIssuedAt(now) // 토큰 발행시간
-				//.setExpiration(new Date(now.getTime() + (10000))) // 만료 시간
-				.setExpiration(new Date(now.getTime() + (1000L * 60 * minutes))) // 만료 시간
+				.claim(ROLES_CLAIM, rol)
+				.setIssuedAt(new Date(issuedAt * 1000)) // 토큰 발행시간
+				.setExpiration(new Date(expiresAt * 1000)) // 만료 시간
 				.signWith(key, SignatureAlgorithm.HS256) // 서명에 사용할 키 값과 알고리즘
 				.compact();
 	}
@@ -69,34 +150,155 @@ public class JWTProvider {
 	 *  - 자동 로그인 기능도 만들 수 있음!
 	 */
 	public String createRefreshToken(long id, int i) {
-		Date now = new Date();
-		return Jwts.builder()
-				.setSubject(String.valueOf(id))
-				.setIssuedAt(now)
-				.setExpiration(new Date(System.currentTimeMillis() + (1000 * 60 * 60 * 24 * i)))
-				.signWith(refreshKey, SignatureAlgorithm.HS256) // 보안상 키 달라야 함
-				.compact();
+		long now = System.currentTimeMillis();
+		return refreshCodec.encode(id, null, now / 1000, (now + (1000L * 60 * 60 * 24 * i)) / 1000); // 보안상 키 달라야 함
 	}
 	
 	public long getUserId(String token) {
-		return Long.valueOf(
-				Jwts.parserBuilder()
-					.setSigningKey(key)
-					.build()
-					.parseClaimsJws(token) // 토큰에서 payload 데이터만 가져옴
-					.getBody()
-					.getSubject()
-				);
+		return verify(token).getUserId();
+	}
+
+	/**
+	 * access token 검증
+	 * @throws ExpiredJwtException 만료되었거나, 발급 이후 권한이 변경된 토큰
+	 * @throws JwtException 서명 불일치 등 유효하지 않은 토큰
+	 */
+	public AccessToken verify(String token) {
+		long now = System.currentTimeMillis();
+		TokenDigest digest = TokenDigest.of(token);
+		AccessToken access = verified.get(digest);
+		if (access == null || access.expiresAt <= now) {
+			access = parse(token, now);
+			if (access.expiresAt > 0) {
+				if (verified.size() >= verifiedCacheSize) {
+					evict(now);
+				}
+				verified.put(digest, access);
+			}
+		}
+		if (!rolesChangedAt.isEmpty()) {
+			Long changedAt = rolesChangedAt.get(access.userId);
+			if (changedAt != null && access.issuedAt <= changedAt) {
+				throw new ExpiredJwtException(null, null, "권한이 변경되어 토큰 재발급이 필요합니다.");
+			}
+		}
+		return access;
+	}
+
+	/*
+	 * 사용자의 기존 access token을 무효화 (권한 변경이 커밋된 후 호출)
+	 *  - 변경 시각은 이전 변경 시각보다 항상 크게 기록한다. 같은 초에 두 번 바뀌어도 첫 변경 이후 발급된 토큰(iat = 첫 변경 + 1)이 거절된다.
+	 */
+	public void rolesChanged(long userId) {
+		long now = System.currentTimeMillis() / 1000;
+		rolesChangedAt.values().removeIf(changedAt -> changedAt < now - rolesChangedRetentionSeconds);
+		rolesChangedAt.merge(userId, now, (previous, current) -> Math.max(current, previous + 1));
+	}
+
+	// 지금 발급하는 토큰의 iat (초). 권한 변경과 같은 초(또는 그 이전)이면 변경 시각 다음 초
+	public long issuedAt(long userId) {
+		long now = System.currentTimeMillis() / 1000;
+		if (rolesChangedAt.isEmpty()) {
+			return now;
+		}
+		Long changedAt = rolesChangedAt.get(userId);
+		return changedAt != null && now <= changedAt ? changedAt + 1 : now;
+	}
+
+	private AccessToken parse(String token, long now) {
+		Hs256Codec.Payload payload = codec.decode(token, now);
+		if (payload != null) {
+			return new AccessToken(payload.subject, payload.issuedAt, payload.expiresAt * 1000,
+					authorities(payload.roles));
+		}
+		// 만료, 서명 불일치, 다른 형태의 토큰 : jjwt가 검증하고 예외를 발생시킨다
+		Claims claims = parser
+				.parseClaimsJws(token) // 토큰에서 payload 데이터만 가져옴
+				.getBody();
+		return new AccessToken(
+				Long.valueOf(claims.getSubject()),
+				claims.getIssuedAt() == null ? 0 : claims.getIssuedAt().getTime() / 1000,
+				claims.getExpiration() == null ? 0 : claims.getExpiration().getTime(),
+				authorities(claims.get(ROLES_CLAIM, String.class)));
+	}
+
+	private static String compactRoles(List<String> roles) {
+		StringJoiner rol = new StringJoiner(",");
+		if (roles != null) {
+			for (String role : roles) {
+				if (role != null && role.startsWith(ROLE_PREFIX) && role.length() > ROLE_PREFIX.length()) {
+					rol.add(role.substring(ROLE_PREFIX.length()));
+				}
+			}
+		}
+		return rol.toString();
+	}
+
+	private List<GrantedAuthority> authorities(String rol) {
+		if (rol == null) {
+			return DEFAULT_AUTHORITIES;
+		}
+		List<GrantedAuthority> cached = authorities.get(rol);
+		if (cached != null) {
+			return cached;
+		}
+		List<GrantedAuthority> list = new ArrayList<>();
+		for (String role : rol.split(",")) {
+			if (!role.isEmpty()) {
+				list.add(new SimpleGrantedAuthority(ROLE_PREFIX + role));
+			}
+		}
+		list = List.copyOf(list);
+		if (authorities.size() < MAX_ROLE_SETS) {
+			authorities.putIfAbsent(rol, list);
+		}
+		return list;
 	}
 	
 	public long parseRefresh(String token) {
+		Hs256Codec.Payload payload = refreshCodec.decode(token, System.currentTimeMillis());
+		if (payload != null) {
+			return payload.subject;
+		}
 		return Long.valueOf(
-				Jwts.parserBuilder()
-				.setSigningKey(refreshKey)
-				.build()
+				refreshParser
 				.parseClaimsJws(token)
 				.getBody()
 				.getSubject()
 				);
 	}
+
+	// 다른 스레드가 정리 중이면 기다리지 않고 넘어간다
+	private void evict(long now) {
+		if (!evicting.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			verified.values().removeIf(access -> access.expiresAt <= now);
+			int excess = verified.size() - verifiedCacheSize * 3 / 4;
+			Iterator<TokenDigest> it = verified.keySet().iterator();
+			while (excess-- > 0 && it.hasNext()) {
+				it.next();
+				it.remove();
+			}
+		} finally {
+			evicting.set(false);
+		}
+	}
+
+	// 검증된 access token
+	@Getter
+	public static class AccessToken {
+		private final long userId;
+		private final long issuedAt; // 토큰 iat (초)
+		private final long expiresAt; // 토큰 exp (ms), 없으면 0
+		private final List<GrantedAuthority> authorities; // 변경 불가, 여러 요청이 공유
+
+		private AccessToken(long userId, long issuedAt, long expiresAt, List<GrantedAuthority> authorities) {
+			this.userId = userId;
+			this.issuedAt = issuedAt;
+			this.expiresAt = expiresAt;
+			this.authorities = authorities;
+		}
+	}
 }
@@ -0,0 +1,99 @@
+package com.kh.menu.security.model.provider;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/*
+ * 검증된 토큰 캐시의 키 (토큰 문자열 전체의 SHA-256)
+ *  - 캐시에 bearer 토큰 문자열을 보관하지 않으므로 힙 덤프 등에 토큰이 남지 않는다.
+ *  - 서명 부분만 키로 쓰면 다른 페이로드에 같은 서명을 붙인 토큰도 캐시에서 통과하므로, 토큰 전체를 해시한다.
+ *  - 32바이트를 long 4개로 보관한다. (배열 없이 결과 객체 1개만 할당)
+ *  - MessageDigest와 작업용 버퍼는 스레드마다 하나씩 만들어서 재사용한다.
+ */
+final class TokenDigest {
+	private static final int HASH_LENGTH = 32;
+	private static final int MAX_ASCII_LENGTH = 512;
+	private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+	private final long h0;
+	private final long h1;
+	private final long h2;
+	private final long h3;
+
+	private TokenDigest(long h0, long h1, long h2, long h3) {
+		this.h0 = h0;
+		this.h1 = h1;
+		this.h2 = h2;
+		this.h3 = h3;
+	}
+
+	static TokenDigest of(String token) {
+		Scratch s = SCRATCH.get();
+		// JWT는 ASCII이므로 UTF-8 인코딩 결과와 같은 바이트를 버퍼에 직접 채운다
+		if (token.length() <= MAX_ASCII_LENGTH && ascii(token, s.bytes)) {
+			s.sha256.update(s.bytes, 0, token.length());
+		} else {
+			s.sha256.update(token.getBytes(StandardCharsets.UTF_8));
+		}
+		try {
+			s.sha256.digest(s.hash, 0, HASH_LENGTH);
+		} catch (DigestException e) {
+			throw new IllegalStateException(e);
+		}
+		return new TokenDigest(toLong(s.hash, 0), toLong(s.hash, 8), toLong(s.hash, 16), toLong(s.hash, 24));
+	}
+
+	private static boolean ascii(String token, byte[] dst) {
+		for (int i = 0; i < token.length(); i++) {
+			char c = token.charAt(i);
+			if (c > 127) {
+				return false;
+			}
+			dst[i] = (byte) c;
+		}
+		return true;
+	}
+
+	private static long toLong(byte[] b, int p) {
+		long value = 0;
+		for (int i = p; i < p + 8; i++) {
+			value = value << 8 | (b[i] & 0xFF);
+		}
+		return value;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof TokenDigest)) {
+			return false;
+		}
+		TokenDigest other = (TokenDigest) o;
+		return h0 == other.h0 && h1 == other.h1 && h2 == other.h2 && h3 == other.h3;
+	}
+
+	// SHA-256 결과는 고르게 분포하므로 앞 8바이트만 사용
+	@Override
+	public int hashCode() {
+		return Long.hashCode(h0);
+	}
+
+	// 스레드별 MessageDigest와 작업용 버퍼
+	private static final class Scratch {
+		private final MessageDigest sha256;
+		private final byte[] bytes = new byte[MAX_ASCII_LENGTH];
+		private final byte[] hash = new byte[HASH_LENGTH];
+
+		private Scratch() {
+			try {
+				sha256 = MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e);
+			}
+		}
+	}
+}
@@ -1,13 +1,15 @@
 package com.kh.menu.security.model.service;
 
 import java.util.List;
-import java.util.Map;
 
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.kh.menu.common.bloom.BloomFilterStats;
 import com.kh.menu.security.model.dao.AuthDao;
 import com.kh.menu.security.model.dto.AuthDto.AuthResult;
 import com.kh.menu.security.model.dto.AuthDto.User;
@@ -24,20 +26,31 @@ public class AuthService {
 	private final PasswordEncoder encoder; // bean 객체 생성 필요
 	private final KakaoService service;
 	private final JWTProvider jwt;
-	
-	public boolean existsByEmail(String email) {
-		User user = authDao.findUserByEmail(email);
-		return user != null;
-	}
+	private final KakaoProfileCache profileCache;
+	private final KnownEmails knownEmails;
 
+	/**
+	 * 로그인 (사용자 조회 1회)
+	 * @return 가입되지 않은 이메일이면 null
+	 * @throws BadCredentialsException 비밀번호 오류
+	 */
 	public AuthResult login(String email, String password) {
-		// 1. 사용자 정보 조회
+		// 1. 사용자 정보 조회 (가입되지 않은 이메일은 DB 조회 없이 걸러짐)
+		if (!knownEmails.mightContain(email)) {
+			return null;
+		}
+		// 권한 조회 전 시각을 iat로 쓴다. (같은 초에 권한이 바뀌면 이 토큰은 거절되고 refresh로 다시 받는다)
+		long issuedAt = System.currentTimeMillis() / 1000;
 		User user = authDao.findUserByEmail(email);
+		if (user == null) {
+			knownEmails.falsePositive(email);
+			return null;
+		}
 		if(!encoder.matches(password, user.getPassword())) {
 			throw new BadCredentialsException("비밀번호 오류");
 		}
 		// 2. 토큰 발급
-		String accessToken = jwt.createAccessToken(user.getId(), 30); // payload의 sub값(id)
+		String accessToken = jwt.createAccessToken(user.getId(), user.getRoles(), 30, issuedAt); // payload의 sub값(id), rol값(권한)
 		String refreshToken = jwt.createRefreshToken(user.getId(), 7);
 		User userNoPassword = User.builder()
 								.id(user.getId())
@@ -61,6 +74,7 @@ public class AuthService {
 						.name(email.split("@")[0])
 						.build();
 		authDao.insertUser(user);
+		knownEmails.add(email); // 롤백되어도 오탐 1건이 늘 뿐이다
 		// 2. Credential 추가
 		UserCredential cred = UserCredential.builder()
 						.userId(user.getId())
@@ -74,7 +88,7 @@ public class AuthService {
 						.build();
 		authDao.insertUserRole(auth);
 		// 4. 토큰 발급
-		String accessToken = jwt.createAccessToken(user.getId(), 30); // 30분
+		String accessToken = jwt.createAccessToken(user.getId(), auth.getRoles(), 30); // 30분
 		String refreshToken = jwt.createRefreshToken(user.getId(), 7); // 7일
 		user = authDao.findUserByUserId(user.getId());
 		user.setPassword(null); // 비밀번호 제외 필요
@@ -87,8 +101,9 @@ public class AuthService {
 
 	public AuthResult refreshByCookie(String refreshCookie) {
 		long userId = jwt.parseRefresh(refreshCookie);
+		long issuedAt = jwt.issuedAt(userId); // 권한 조회 전에 정한다 (조회 도중 권한이 바뀌면 이 토큰은 거절됨)
 		User user = authDao.findUserByUserId(userId);
-		String accessToken = jwt.createAccessToken(userId, 30);
+		String accessToken = jwt.createAccessToken(userId, user.getRoles(), 30, issuedAt); // 권한은 항상 DB 기준으로 다시 담는다
 		user.setPassword(null); // 또는 비밀번호 제외하고 조회하는 쿼리
 		return AuthResult.builder()
 					.accessToken(accessToken)
@@ -96,22 +111,43 @@ public class AuthService {
 					.build();
 	}
 
+	/*
+	 * 권한 변경 (PUT /auth/users/{userId}/roles)
+	 *  - 기존 권한을 지우고 새 권한을 저장한 뒤, 커밋이 끝나면 사용자의 기존 access token을 무효화한다.
+	 *    (커밋 전에 무효화하면 그 사이 refresh로 이전 권한이 담긴 토큰이 다시 발급될 수 있다)
+	 *  - 없는 사용자면 0 반환
+	 */
+	@Transactional
+	public int changeRoles(long userId, List<String> roles) {
+		if (authDao.findUserByUserId(userId) == null) {
+			return 0;
+		}
+		authDao.deleteUserRoles(userId);
+		authDao.insertUserRole(UserAuthority.builder()
+						.userId(userId)
+						.roles(roles)
+						.build());
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				jwt.rolesChanged(userId);
+			}
+		});
+		return 1;
+	}
+
+	public BloomFilterStats emailFilterStats() {
+		return knownEmails.stats();
+	}
+
+	// 카카오 프로필 (캐시에 있으면 카카오 API를 호출하지 않음)
 	public User findUserByUserId(long userId) {
-		String accessToken = authDao.getKakaoAccessToken(userId);
-		Map<String, Object> userInfo = service.getUserInfo(accessToken);
-		// Map 데이터 반환하고 프론트에서 잘라서 써도 되는데 최소한의 데이트만 전해주기
-		Map<String, Object> kakao_account = (Map<String, Object>) userInfo.get("kakao_account");
-		Map<String, Object> p = (Map<String, Object>) kakao_account.get("profile");
-		String nickname = (String)(p.get("nickname"));
-		String profile = (String)(p.get("profile"));
-		String email = (String) kakao_account.get("email");
-		User user = User.builder()
-				.name(nickname)
-				.email(email)
-				.profile(profile)
-				.roles(List.of("ROLE_USER"))
-				.build();
-		return user;
+		return profileCache.get(userId);
+	}
+
+	// 로그아웃 시 캐시된 카카오 프로필 제거
+	public void evictProfile(long userId) {
+		profileCache.invalidate(userId);
 	}
 	
 	public String getKakaoAccessToken(long userId) {
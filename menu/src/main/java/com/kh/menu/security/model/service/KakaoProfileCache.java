@@ -0,0 +1,136 @@
+package com.kh.menu.security.model.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.kh.menu.common.cache.BoundedCache;
+import com.kh.menu.common.cache.CacheStats;
+import com.kh.menu.common.cache.SingleFlight;
+import com.kh.menu.security.model.dao.AuthDao;
+import com.kh.menu.security.model.dto.AuthDto.User;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * 카카오 프로필 캐시 (GET /auth/me)
+ *  - 사용자별로 카카오 API(kapi.kakao.com) 조회 결과를 저장해 두고, 응답시간이 카카오 응답시간에 묶이지 않게 한다.
+ *  - ttl 이내 : 저장된 값을 그대로 반환
+ *  - ttl 이후 maxStale 이내 : 저장된 값을 바로 반환하고, 백그라운드에서 다시 조회해서 교체 (stale-while-revalidate)
+ *  - 저장된 값이 없거나 maxStale이 지난 경우에만 요청 스레드에서 조회한다. (같은 사용자의 동시 요청은 한 번만 조회)
+ *  - 로그아웃, 카카오 재로그인(OAuth2Service.loadUser) 시 해당 사용자 항목을 제거한다.
+ */
+@Slf4j
+@Component
+public class KakaoProfileCache {
+	private final AuthDao authDao;
+	private final KakaoService kakaoService;
+	private final long ttlMillis;
+	private final BoundedCache<Long, Profile> cache; // 항목 TTL = maxStale
+	private final SingleFlight<Long, Profile> flight = new SingleFlight<>();
+	private final Set<Long> refreshing = ConcurrentHashMap.newKeySet(); // 백그라운드 갱신 중인 사용자
+	private final ThreadPoolExecutor refresher;
+
+	public KakaoProfileCache(AuthDao authDao, KakaoService kakaoService,
+			@Value("${auth.kakao.profile-cache-size:10000}") int maxSize,
+			@Value("${auth.kakao.profile-ttl-seconds:300}") long ttlSeconds,
+			@Value("${auth.kakao.profile-max-stale-seconds:3600}") long maxStaleSeconds,
+			@Value("${auth.kakao.profile-refresh-queue-size:1000}") int refreshQueueSize) {
+		this.authDao = authDao;
+		this.kakaoService = kakaoService;
+		this.ttlMillis = ttlSeconds * 1000;
+		this.cache = new BoundedCache<>(maxSize, Math.max(maxStaleSeconds, ttlSeconds) * 1000);
+		// 갱신 요청이 밀리면 버린다. (get에서 거절을 받아 갱신 중 표시를 지우므로 다음 조회 때 다시 요청됨)
+		this.refresher = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(refreshQueueSize),
+				r -> {
+					Thread thread = new Thread(r, "kakao-profile-refresh");
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	public User get(long userId) {
+		Profile profile = cache.get(userId);
+		if (profile == null) {
+			long generation = cache.generation();
+			return flight.execute(userId, generation, () -> load(userId, generation)).user;
+		}
+		if (System.currentTimeMillis() - profile.fetchedAt > ttlMillis && refreshing.add(userId)) {
+			long generation = cache.generation();
+			try {
+				refresher.execute(() -> {
+					try {
+						load(userId, generation);
+					} catch (RuntimeException e) {
+						// 카카오 장애 시 maxStale까지는 저장된 값으로 응답
+						log.warn("kakao profile refresh failed : userId={}, {}", userId, e.getMessage());
+					} finally {
+						refreshing.remove(userId);
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				// 대기열이 찼거나 종료 중. 작업이 실행되지 않으므로 여기서 지운다
+				refreshing.remove(userId);
+			}
+		}
+		return profile.user;
+	}
+
+	public void invalidate(long userId) {
+		cache.invalidate(userId);
+	}
+
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		refresher.shutdownNow(); // 대기열에서 빠진 갱신 작업은 실행되지 않는다
+		refreshing.clear();
+	}
+
+	// 조회 시작 이후 무효화(로그아웃 등)가 있었으면 저장하지 않는다
+	private Profile load(long userId, long generation) {
+		Profile profile = new Profile(fetch(userId), System.currentTimeMillis());
+		cache.put(userId, profile, generation);
+		return profile;
+	}
+
+	private User fetch(long userId) {
+		String accessToken = authDao.getKakaoAccessToken(userId);
+		Map<String, Object> userInfo = kakaoService.getUserInfo(accessToken);
+		// Map 데이터 반환하고 프론트에서 잘라서 써도 되는데 최소한의 데이트만 전해주기
+		Map<String, Object> kakao_account = (Map<String, Object>) userInfo.get("kakao_account");
+		Map<String, Object> p = (Map<String, Object>) kakao_account.get("profile");
+		String nickname = (String)(p.get("nickname"));
+		String profile = (String)(p.get("profile"));
+		String email = (String) kakao_account.get("email");
+		return User.builder()
+				.name(nickname)
+				.email(email)
+				.profile(profile)
+				.roles(List.of("ROLE_USER"))
+				.build();
+	}
+
+	private static class Profile {
+		private final User user; // 여러 요청이 같이 반환하므로 수정하지 않는다
+		private final long fetchedAt;
+
+		private Profile(User user, long fetchedAt) {
+			this.user = user;
+			this.fetchedAt = fetchedAt;
+		}
+	}
+}
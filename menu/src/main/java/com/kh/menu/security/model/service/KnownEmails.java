@@ -0,0 +1,149 @@
+package com.kh.menu.security.model.service;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.kh.menu.common.bloom.BloomFilter;
+import com.kh.menu.common.bloom.BloomFilterStats;
+import com.kh.menu.security.model.dao.AuthDao;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * 가입된 이메일 Bloom filter (로그인 시 없는 이메일은 DB 조회 없이 404)
+ *  - 서버 시작 시 USERS의 이메일 전체로 만들고, 회원가입(signUp, 카카오 자동회원가입) 시 추가한다.
+ *  - 조회 조건(UPPER(EMAIL) = UPPER(#{email}))과 같게 대문자로 바꿔서 기록/조회한다.
+ *    ASCII가 아닌 이메일은 Java와 Oracle의 대문자 변환이 다를 수 있으므로 필터를 거치지 않고 DB로 보낸다.
+ *  - 적재 전이나 적재에 실패한 경우에는 모든 조회를 DB로 보낸다. (가입된 사용자를 404로 거절하지 않도록)
+ *  - 적재 전과 적재 중에 추가된 이메일은 pending에 모아 두었다가 새 필터에 다시 기록한다.
+ *    (가입 트랜잭션이 이메일 조회 시작 후에 커밋되면 조회 결과에 없으므로)
+ *    새 필터를 교체한 뒤에도 한 번 더 기록하므로, 교체 직전에 추가된 이메일도 빠지지 않는다.
+ */
+@Slf4j
+@Component
+public class KnownEmails implements ApplicationRunner {
+	private final AuthDao authDao;
+	private final long expectedInsertions;
+	private final double fpp;
+	private volatile BloomFilter filter; // 적재 전이면 null
+	private volatile Set<String> pending = ConcurrentHashMap.newKeySet(); // 적재 전/적재 중에 추가된 이메일
+	private final LongAdder positives = new LongAdder();
+	private final LongAdder negatives = new LongAdder();
+	private final LongAdder falsePositives = new LongAdder();
+
+	public KnownEmails(AuthDao authDao,
+			@Value("${auth.email-filter.expected-insertions:100000}") long expectedInsertions,
+			@Value("${auth.email-filter.fpp:0.01}") double fpp) {
+		this.authDao = authDao;
+		this.expectedInsertions = expectedInsertions;
+		this.fpp = fpp;
+	}
+
+	// false이면 가입되지 않은 이메일
+	public boolean mightContain(String email) {
+		BloomFilter current = filter;
+		String key = normalize(email);
+		if (current == null || key == null) {
+			return true;
+		}
+		if (current.mightContain(key)) {
+			positives.increment();
+			return true;
+		}
+		negatives.increment();
+		return false;
+	}
+
+	public void add(String email) {
+		String key = normalize(email);
+		if (key == null) {
+			return;
+		}
+		// pending에 먼저 기록한 뒤 filter를 읽는다. (rebuild의 교체 순서와 맞물려 둘 중 하나에는 반드시 기록된다)
+		Set<String> added = pending;
+		if (added != null) {
+			added.add(key);
+		}
+		BloomFilter current = filter;
+		if (current != null) {
+			current.put(key);
+		}
+	}
+
+	// mightContain이 true였지만 DB에 없던 이메일
+	public void falsePositive(String email) {
+		if (filter != null && normalize(email) != null) {
+			falsePositives.increment();
+		}
+	}
+
+	public BloomFilterStats stats() {
+		BloomFilter current = filter;
+		return new BloomFilterStats(
+				current != null,
+				current == null ? 0 : current.getBitSize(),
+				current == null ? 0 : current.getHashes(),
+				current == null ? 0 : current.getInsertions(),
+				current == null ? 0.0 : current.expectedFpp(),
+				positives.sum(),
+				negatives.sum(),
+				falsePositives.sum());
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		rebuild();
+	}
+
+	// 가입자 수의 2배(최소 expectedInsertions)를 예상 건수로 새로 만들어서 교체
+	public synchronized void rebuild() {
+		long start = System.currentTimeMillis();
+		Set<String> added = pending;
+		if (added == null) {
+			added = ConcurrentHashMap.newKeySet();
+			pending = added;
+		}
+		try {
+			BloomFilter next = new BloomFilter(Math.max(expectedInsertions, authDao.countUsers() * 2L), fpp);
+			LongAdder loaded = new LongAdder();
+			authDao.streamEmails(email -> {
+				String key = normalize(email);
+				if (key != null) {
+					next.put(key);
+					loaded.increment();
+				}
+			});
+			added.forEach(next::put);
+			filter = next;
+			added.forEach(next::put); // 교체 직전에 pending에만 기록된 이메일
+			pending = null;
+			log.info("email filter loaded : {} emails (+{} added while loading), {} bits, {} ms",
+					loaded.sum(), added.size(), next.getBitSize(), System.currentTimeMillis() - start);
+		} catch (RuntimeException e) {
+			log.warn("email filter not loaded : {}", e.getMessage());
+			// 이전 필터가 있으면 그대로 쓰고, 없으면 다음 적재를 위해 계속 모아 둔다
+			if (filter != null) {
+				pending = null;
+			}
+		}
+	}
+
+	private static String normalize(String email) {
+		if (email == null) {
+			return null;
+		}
+		for (int i = 0; i < email.length(); i++) {
+			if (email.charAt(i) > 127) {
+				return null;
+			}
+		}
+		return email.toUpperCase(Locale.ROOT);
+	}
+}
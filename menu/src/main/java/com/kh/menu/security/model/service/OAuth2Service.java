@@ -11,6 +11,8 @@ import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.kh.menu.security.model.dao.AuthDao;
 import com.kh.menu.security.model.dto.AuthDto.User;
@@ -28,6 +30,8 @@ public class OAuth2Service implements OAuth2UserService<OAuth2UserRequest, OAuth
 	// 스프링 시큐리티가 알아서 유저정보를 조회해줘서 안만들어도 되지만
 	// 자동회원가입 처리같이 구현해야 하는 기능이 추가로 있는경우 직접 커스텀해야함
 	private final AuthDao authDao;
+	private final KakaoProfileCache profileCache;
+	private final KnownEmails knownEmails;
 	/**
 	 * 1. 사용자 정보 로드 메서드
 	 *  - 인증 완료 후, Oauth2User 객체를 전달받아 원하는 비즈니스 로직을 처리하기 위해 사용한다.
@@ -55,6 +59,7 @@ public class OAuth2Service implements OAuth2UserService<OAuth2UserRequest, OAuth
 						.profile((String)profile.get("profile_image_url"))
 						.build();
 				authDao.insertUser(user);
+				knownEmails.add(email);
 				// 유저 소셜정보
 				UserIdentities userIdentities = UserIdentities.builder()
 						.provider(provider)
@@ -68,6 +73,7 @@ public class OAuth2Service implements OAuth2UserService<OAuth2UserRequest, OAuth
 						.roles(List.of("ROLE_USER"))
 						.build();
 				authDao.insertUserRole(auth);
+				user.setRoles(auth.getRoles());
 				// 자동회원가입 끝
 			}
 			// 이미 회원가입은 했지만 다시 로그인 한 경우
@@ -78,11 +84,21 @@ public class OAuth2Service implements OAuth2UserService<OAuth2UserRequest, OAuth
 					.accessToken(accessToken)
 					.build();
 			authDao.updateUserIdentities(userIdentities);
+			// 카카오 accessToken이 바뀌었으므로 캐시된 프로필은 새 토큰으로 다시 조회
+			// 커밋 전에 제거하면 그 사이 다른 요청이 이전 토큰으로 다시 채울 수 있으므로 커밋 이후에 제거
+			long userId = user.getId();
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					profileCache.invalidate(userId);
+				}
+			});
 			return new CustomOAuth2User(
 					oAuth2User.getAuthorities(), 
 					attributes, 
 					"id", 
-					user.getId());
+					user.getId(),
+					user.getRoles());
 		}
 		return new DefaultOAuth2User(oAuth2User.getAuthorities(), attributes, "id");
 	}
@@ -0,0 +1,73 @@
+package com.kh.menu.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class CursorCodecTest {
+
+	@Test
+	void 정렬키를_그대로_복원한다() {
+		assertThat(CursorCodec.decode(CursorCodec.encode(42L), 1)).containsExactly(42L);
+		assertThat(CursorCodec.decode(CursorCodec.encode(-5000L, Long.MAX_VALUE), 2))
+				.containsExactly(-5000L, Long.MAX_VALUE);
+	}
+
+	@Test
+	void 커서는_URL에_그대로_쓸_수_있다() {
+		String cursor = CursorCodec.encode(Long.MIN_VALUE, 123456789L);
+
+		assertThat(cursor).matches("[A-Za-z0-9_-]+");
+	}
+
+	@Test
+	void 문자열_정렬키를_그대로_복원한다() {
+		assertThat(CursorCodec.decodeText(CursorCodec.encodeText("경민통닭:본점"))).isEqualTo("경민통닭:본점");
+		assertThat(CursorCodec.decodeText(CursorCodec.encodeText(""))).isEmpty();
+	}
+
+	@Test
+	void 키_개수가_다르면_IllegalArgumentException() {
+		String cursor = CursorCodec.encode(1L, 2L);
+
+		assertThatThrownBy(() -> CursorCodec.decode(cursor, 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CursorCodec.decode(CursorCodec.encode(1L), 2))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void 형식이_잘못된_커서는_IllegalArgumentException() {
+		assertThatThrownBy(() -> CursorCodec.decode("not base64!", 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CursorCodec.decode(raw("42"), 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CursorCodec.decode(raw("c1:abc"), 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CursorCodec.decode(raw("c1:1:"), 2)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CursorCodec.decodeText("not base64!")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	// 다른 키 개수나 표기로 같은 값을 가리키도록 고친 커서
+	@Test
+	void 끝에_빈_값이_붙거나_표기가_다른_커서는_IllegalArgumentException() {
+		assertThatThrownBy(() -> CursorCodec.decode(raw("c1:5:"), 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CursorCodec.decode(raw("c1:5::"), 2)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CursorCodec.decode(raw("c1:"), 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CursorCodec.decode(raw("c1:+5"), 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CursorCodec.decode(raw("c1:05"), 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThat(CursorCodec.decode(raw("c1:5:-7"), 2)).containsExactly(5L, -7L);
+	}
+
+	@Test
+	void 숫자_커서와_문자열_커서는_서로_바꿔_쓸_수_없다() {
+		assertThatThrownBy(() -> CursorCodec.decodeText(CursorCodec.encode(1L)))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CursorCodec.decode(CursorCodec.encodeText("1"), 1))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static String raw(String value) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+}
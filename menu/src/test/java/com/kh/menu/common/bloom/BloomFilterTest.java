@@ -0,0 +1,50 @@
+package com.kh.menu.common.bloom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+	@Test
+	void 비트_크기와_해시_수는_예상_건수와_오탐률로_정한다() {
+		// m = ceil(-1000 ln 0.01 / (ln 2)^2) = 9586 -> 64비트 단위로 올림 9600, k = round(9600 / 1000 ln 2) = 7
+		BloomFilter filter = new BloomFilter(1000, 0.01);
+
+		assertThat(filter.getBitSize()).isEqualTo(9600);
+		assertThat(filter.getHashes()).isEqualTo(7);
+		assertThat(filter.getInsertions()).isZero();
+		assertThat(filter.expectedFpp()).isZero();
+	}
+
+	@Test
+	void 잘못된_예상_건수나_오탐률은_IllegalArgumentException() {
+		assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new BloomFilter(1000, 0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new BloomFilter(1000, 1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void 기록한_키는_모두_true이고_오탐률은_목표_근처다() {
+		int n = 10000;
+		BloomFilter filter = new BloomFilter(n, 0.01);
+		for (int i = 0; i < n; i++) {
+			filter.put("USER" + i + "@KH.COM");
+		}
+
+		for (int i = 0; i < n; i++) {
+			assertThat(filter.mightContain("USER" + i + "@KH.COM")).as("USER%d", i).isTrue();
+		}
+		int falsePositives = 0;
+		int probes = 100000;
+		for (int i = 0; i < probes; i++) {
+			if (filter.mightContain("GUEST" + i + "@KH.COM")) {
+				falsePositives++;
+			}
+		}
+		assertThat((double) falsePositives / probes).isLessThan(0.02);
+		assertThat(filter.getInsertions()).isEqualTo(n);
+		assertThat(filter.expectedFpp()).isBetween(0.005, 0.02);
+	}
+}
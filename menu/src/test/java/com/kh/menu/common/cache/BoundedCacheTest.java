@@ -0,0 +1,57 @@
+package com.kh.menu.common.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+
+	@Test
+	void peek은_통계에_기록하지_않는다() {
+		BoundedCache<Long, String> cache = new BoundedCache<>(10, 60_000);
+		cache.put(1L, "a");
+
+		assertThat(cache.peek(1L)).isEqualTo("a");
+		assertThat(cache.peek(2L)).isNull();
+
+		CacheStats stats = cache.stats();
+		assertThat(stats.getHits()).isZero();
+		assertThat(stats.getMisses()).isZero();
+	}
+
+	@Test
+	void get은_hit_miss를_기록한다() {
+		BoundedCache<Long, String> cache = new BoundedCache<>(10, 60_000);
+		cache.put(1L, "a");
+
+		cache.get(1L);
+		cache.get(2L);
+
+		CacheStats stats = cache.stats();
+		assertThat(stats.getHits()).isEqualTo(1);
+		assertThat(stats.getMisses()).isEqualTo(1);
+	}
+
+	@Test
+	void 무효화_이후에는_이전_generation으로_저장되지_않는다() {
+		BoundedCache<Long, String> cache = new BoundedCache<>(10, 60_000);
+		long generation = cache.generation();
+		cache.invalidate(1L);
+
+		assertThat(cache.put(1L, "stale", generation)).isFalse();
+		assertThat(cache.peek(1L)).isNull();
+	}
+
+	@Test
+	void 최대_크기를_넘으면_가장_오래_안쓴_항목부터_제거한다() {
+		BoundedCache<Long, String> cache = new BoundedCache<>(2, 60_000);
+		cache.put(1L, "a");
+		cache.put(2L, "b");
+		cache.get(1L);
+		cache.put(3L, "c");
+
+		assertThat(cache.peek(1L)).isEqualTo("a");
+		assertThat(cache.peek(2L)).isNull();
+		assertThat(cache.stats().getEvictions()).isEqualTo(1);
+	}
+}
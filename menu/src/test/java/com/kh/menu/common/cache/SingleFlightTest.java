@@ -0,0 +1,136 @@
+package com.kh.menu.common.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+	private static final int THREADS = 32;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+	private final SingleFlight<String, Object> flight = new SingleFlight<>();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void 같은_키_동시_조회는_loader를_한_번만_실행한다() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		Object value = new Object();
+
+		List<Future<Object>> results = burst(() -> flight.execute("menu:1", 0, () -> {
+			calls.incrementAndGet();
+			await(release);
+			return value;
+		}));
+		awaitJoined(THREADS);
+		release.countDown();
+
+		for (Future<Object> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(value);
+		}
+		assertThat(calls).hasValue(1);
+		assertThat(flight.stats().getLoads()).isEqualTo(1);
+		assertThat(flight.stats().getShared()).isEqualTo(THREADS - 1);
+		assertThat(flight.stats().getInFlight()).isZero();
+	}
+
+	@Test
+	void 다른_generation은_진행_중인_조회를_공유하지_않는다() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Future<Object> before = executor.submit(() -> flight.execute("menu:1", 1, () -> {
+			started.countDown();
+			await(release);
+			return "before";
+		}));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// 무효화 이후(generation 2) 요청은 이전 조회를 기다리지 않고 새로 조회한다
+		Object after = flight.execute("menu:1", 2, () -> "after");
+		release.countDown();
+
+		assertThat(after).isEqualTo("after");
+		assertThat(before.get(5, TimeUnit.SECONDS)).isEqualTo("before");
+		assertThat(flight.stats().getLoads()).isEqualTo(2);
+		assertThat(flight.stats().getShared()).isZero();
+	}
+
+	@Test
+	void loader_예외는_기다리던_요청에도_전달되고_결과는_남지_않는다() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		IllegalStateException failure = new IllegalStateException("db down");
+
+		List<Future<Object>> results = burst(() -> flight.execute("menu:1", 0, () -> {
+			calls.incrementAndGet();
+			await(release);
+			throw failure;
+		}));
+		awaitJoined(THREADS);
+		release.countDown();
+
+		for (Future<Object> result : results) {
+			assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+					.isInstanceOf(ExecutionException.class)
+					.cause().isSameAs(failure);
+		}
+		assertThat(calls).hasValue(1);
+		// 실패한 조회는 제거되므로 다음 요청은 새로 조회한다
+		assertThat(flight.execute("menu:1", 0, () -> "retry")).isEqualTo("retry");
+		assertThat(calls).hasValue(1);
+		assertThat(flight.stats().getLoads()).isEqualTo(2);
+	}
+
+	// THREADS개 요청을 동시에 시작
+	private List<Future<Object>> burst(Supplier<Object> call) {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Object>> results = new ArrayList<>(THREADS);
+		for (int i = 0; i < THREADS; i++) {
+			results.add(executor.submit(() -> {
+				await(start);
+				return call.get();
+			}));
+		}
+		start.countDown();
+		return results;
+	}
+
+	// 모든 요청이 loader를 실행 중이거나 그 결과를 기다리는 상태가 될 때까지 대기
+	private void awaitJoined(int requests) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (flight.stats().getLoads() + flight.stats().getShared() < requests) {
+			if (System.nanoTime() > deadline) {
+				throw new AssertionError("요청이 모두 합류하지 않았습니다 : " + flight.stats());
+			}
+			Thread.sleep(1);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			if (!latch.await(5, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("timeout");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.kh.menu.common.hotkey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.kh.menu.common.hotkey.HotKeyTracker.HotKey;
+
+class HotKeyTrackerTest {
+
+	@Test
+	void 추정치는_실제_조회_수보다_작지_않고_오차는_작다() {
+		HotKeyTracker<Long> tracker = new HotKeyTracker<>(1024, 16);
+		Random random = new Random(7);
+		long[] actual = new long[5000];
+		for (int i = 0; i < 50_000; i++) {
+			int key = random.nextInt(actual.length);
+			actual[key]++;
+			tracker.record((long) key);
+		}
+
+		long totalError = 0;
+		for (int key = 0; key < actual.length; key++) {
+			long estimate = tracker.estimate((long) key);
+			assertThat(estimate).as("key %d", key).isGreaterThanOrEqualTo(actual[key]);
+			totalError += estimate - actual[key];
+		}
+		// 한 칸에는 평균 N / width(약 49)만큼 다른 키의 조회가 겹치고, 추정치는 4행 중 최솟값이므로 평균 오차는 그보다 작다
+		long perCell = 50_000 / 1024;
+		assertThat((double) totalError / actual.length).isLessThan(perCell);
+		// 조회되지 않은 키도 오차 한도 e * N / width 이내
+		assertThat(tracker.estimate(-1L)).isLessThanOrEqualTo((long) (Math.E * perCell));
+	}
+
+	@Test
+	void 자주_조회된_키가_상위에_조회_수_순으로_남는다() {
+		HotKeyTracker<String> tracker = new HotKeyTracker<>(1024, 4);
+		Random random = new Random(11);
+		for (int i = 0; i < 20_000; i++) {
+			tracker.record("cold" + random.nextInt(2000)); // 키당 약 10회
+			if (i % 4 == 0) {
+				tracker.record("hot1"); // 5000회
+			}
+			if (i % 10 == 0) {
+				tracker.record("hot2"); // 2000회
+			}
+			if (i % 40 == 0) {
+				tracker.record("hot3"); // 500회
+			}
+		}
+
+		List<HotKey<String>> top = tracker.top(3);
+		assertThat(top).extracting(HotKey::getKey).containsExactly("hot1", "hot2", "hot3");
+		assertThat(top.get(0).getCount()).isBetween(5000L, 5100L);
+		assertThat(tracker.top(10)).hasSizeLessThanOrEqualTo(4);
+	}
+
+	@Test
+	void decay하면_카운터가_절반이_되고_0이_된_후보는_빠진다() {
+		HotKeyTracker<String> tracker = new HotKeyTracker<>(64, 4);
+		for (int i = 0; i < 10; i++) {
+			tracker.record("a");
+		}
+		tracker.record("b");
+
+		tracker.decay();
+
+		assertThat(tracker.estimate("a")).isEqualTo(5);
+		assertThat(tracker.top(10)).extracting(HotKey::getKey).containsExactly("a");
+	}
+
+	@Test
+	void 폭이나_후보_수가_양수가_아니면_IllegalArgumentException() {
+		assertThatThrownBy(() -> new HotKeyTracker<String>(0, 4)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new HotKeyTracker<String>(64, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,84 @@
+package com.kh.menu.common.id;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * insert 1건당 id 발급 비용 비교 (insert 처리량 상한)
+ *  - selectKey : 기존 방식. insert마다 NEXTVAL 1회 왕복 (커넥션마다 따로 조회하므로 락 없음)
+ *  - blockAllocator : blockSize개마다 1회 왕복
+ *  - DB 왕복은 roundTripMicros 만큼 대기하는 가짜 SequenceDao로 대신한다.
+ *    insert 자체의 왕복은 두 방식이 같으므로 빼고, id 발급에 드는 추가 왕복만 비교한다.
+ *  - 실행 : mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *           java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main SequenceBlockIdAllocator
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class SequenceBlockIdAllocatorBenchmark {
+
+	@Param({"50"})
+	int blockSize;
+
+	@Param({"500"})
+	long roundTripMicros;
+
+	private SequenceDao dao;
+	private SequenceBlockIdAllocator allocator;
+
+	@Setup
+	public void setup() {
+		dao = new LatencySequenceDao(roundTripMicros);
+		allocator = new SequenceBlockIdAllocator(dao, "SEQ_MID", blockSize);
+	}
+
+	@Benchmark
+	public long selectKey() {
+		return dao.nextValues("SEQ_MID", 1).get(0);
+	}
+
+	@Benchmark
+	public long blockAllocator() {
+		return allocator.nextId();
+	}
+
+	static class LatencySequenceDao extends SequenceDao {
+		private final AtomicLong sequence = new AtomicLong();
+		private final long roundTripNanos;
+
+		LatencySequenceDao(long roundTripMicros) {
+			super(null);
+			this.roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+		}
+
+		@Override
+		public List<Long> nextValues(String name, int count) {
+			LockSupport.parkNanos(roundTripNanos);
+			List<Long> values = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				values.add(sequence.incrementAndGet());
+			}
+			return values;
+		}
+	}
+}
@@ -0,0 +1,204 @@
+package com.kh.menu.common.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+class SequenceBlockIdAllocatorTest {
+
+	@Test
+	void 블록을_다_쓴_뒤에만_다음_블록을_조회한다() {
+		FakeSequenceDao dao = new FakeSequenceDao();
+		SequenceBlockIdAllocator allocator = new SequenceBlockIdAllocator(dao, "SEQ_MID", 3);
+
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			ids.add(allocator.nextId());
+		}
+
+		assertThat(ids).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+		assertThat(dao.calls.get()).isEqualTo(3);
+	}
+
+	@Test
+	void 동시에_호출해도_id가_중복되지_않는다() throws Exception {
+		FakeSequenceDao dao = new FakeSequenceDao();
+		SequenceBlockIdAllocator allocator = new SequenceBlockIdAllocator(dao, "SEQ_MID", 50);
+		int threads = 8, perThread = 5_000;
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(pool.submit(() -> {
+					start.await();
+					for (int i = 0; i < perThread; i++) {
+						ids.add(allocator.nextId());
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertThat(ids).hasSize(threads * perThread);
+		assertThat(dao.calls.get()).isEqualTo(threads * perThread / 50);
+	}
+
+	// 풀 크기만큼의 트랜잭션이 모두 커넥션을 가진 채 발급해도, 블록 조회가 커넥션을 더 기다리지 않는다
+	@Test
+	void 풀_크기만큼_동시_트랜잭션에서_발급해도_커넥션이_모자라지_않는다() throws Exception {
+		int threads = 4, perThread = 500, blockSize = 50;
+		AtomicLong sequence = new AtomicLong();
+		AtomicInteger queries = new AtomicInteger();
+		HikariConfig config = new HikariConfig();
+		config.setDataSource(sequenceDataSource(sequence, queries));
+		config.setMaximumPoolSize(threads);
+		config.setConnectionTimeout(1000);
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		CyclicBarrier allInTransaction = new CyclicBarrier(threads);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try (HikariDataSource dataSource = new HikariDataSource(config)) {
+			SequenceBlockIdAllocator allocator = new SequenceBlockIdAllocator(
+					new SequenceDao(new JdbcTemplate(dataSource)), "SEQ_MID", blockSize);
+			TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(pool.submit(() -> transaction.execute(status -> {
+					try {
+						allInTransaction.await(5, TimeUnit.SECONDS); // 모든 커넥션이 트랜잭션에 묶인 뒤 발급
+					} catch (Exception e) {
+						throw new IllegalStateException(e);
+					}
+					for (int i = 0; i < perThread; i++) {
+						ids.add(allocator.nextId());
+					}
+					return null;
+				})));
+			}
+			for (Future<?> future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertThat(ids).hasSize(threads * perThread);
+		assertThat(queries).hasValue(threads * perThread / blockSize);
+	}
+
+	@Test
+	void 시퀀스_값을_받지_못하면_예외() {
+		SequenceDao empty = new SequenceDao(null) {
+			@Override
+			public List<Long> nextValues(String sequence, int count) {
+				return List.of();
+			}
+		};
+		SequenceBlockIdAllocator allocator = new SequenceBlockIdAllocator(empty, "SEQ_MID", 10);
+
+		assertThatThrownBy(allocator::nextId).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void blockSize는_양수여야_한다() {
+		assertThatThrownBy(() -> new SequenceBlockIdAllocator(new FakeSequenceDao(), "SEQ_MID", 0))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	// 조회마다 count개(첫 번째 파라미터)의 시퀀스 값을 반환하는 커넥션을 주는 DataSource
+	private static DataSource sequenceDataSource(AtomicLong sequence, AtomicInteger queries) throws SQLException {
+		DataSource dataSource = mock(DataSource.class);
+		when(dataSource.getConnection()).thenAnswer(invocation -> {
+			Connection connection = mock(Connection.class);
+			when(connection.isValid(anyInt())).thenReturn(true);
+			when(connection.prepareStatement(anyString())).thenAnswer(prepare -> {
+				PreparedStatement statement = mock(PreparedStatement.class);
+				int[] count = new int[1];
+				doAnswer(set -> {
+					count[0] = set.getArgument(1);
+					return null;
+				}).when(statement).setObject(eq(1), any());
+				when(statement.executeQuery()).thenAnswer(execute -> {
+					queries.incrementAndGet();
+					return resultSet(sequence, count[0]);
+				});
+				return statement;
+			});
+			return connection;
+		});
+		return dataSource;
+	}
+
+	private static ResultSet resultSet(AtomicLong sequence, int rows) throws SQLException {
+		ResultSet resultSet = mock(ResultSet.class);
+		ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+		when(metaData.getColumnCount()).thenReturn(1);
+		when(resultSet.getMetaData()).thenReturn(metaData);
+		int[] remaining = { rows };
+		when(resultSet.next()).thenAnswer(next -> remaining[0]-- > 0);
+		when(resultSet.getLong(1)).thenAnswer(get -> sequence.incrementAndGet());
+		return resultSet;
+	}
+
+	// 1부터 증가하는 시퀀스
+	static class FakeSequenceDao extends SequenceDao {
+		private final AtomicLong sequence = new AtomicLong();
+		final AtomicInteger calls = new AtomicInteger();
+
+		FakeSequenceDao() {
+			super(null);
+		}
+
+		@Override
+		public List<Long> nextValues(String name, int count) {
+			calls.incrementAndGet();
+			List<Long> values = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				values.add(sequence.incrementAndGet());
+			}
+			return values;
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package com.kh.menu.model.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStream;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.kh.menu.model.dto.MenuField;
+import com.kh.menu.model.dto.MenuQuery;
+
+class MenuPageStatementsTest {
+	private Configuration configuration;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		configuration = new Configuration();
+		String resource = "mapper/menu/menu-mapper.xml";
+		try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource)) {
+			new XMLMapperBuilder(in, configuration, resource, configuration.getSqlFragments()).parse();
+		}
+		MenuPageStatements.register(configuration);
+	}
+
+	@Test
+	void 모든_조합이_동적_SQL_없는_고정_문장이다() {
+		List<MappedStatement> statements = configuration.getMappedStatements().stream()
+				.filter(ms -> ms.getId().startsWith("menumapper.selectMenusBy")
+						&& !ms.getId().equals("menumapper.selectMenusByIds")
+						|| ms.getId().startsWith("menumapper.selectMenusStream"))
+				.distinct()
+				.toList();
+
+		assertThat(statements).hasSize(3 * 2 * 8 * 2 + 2 * 8);
+		assertThat(statements).allMatch(ms -> ms.getSqlSource() instanceof RawSqlSource);
+	}
+
+	@Test
+	void 첫_페이지_조건_없음은_PK_순서로만_조회한다() {
+		String sql = sql(MenuQuery.of(null, null, null, null, null, null, 20));
+
+		assertThat(sql).isEqualTo(
+				"SELECT ID, RESTAURANT, NAME, PRICE, TYPE, TASTE, VERSION FROM MENU ORDER BY ID FETCH FIRST ? ROWS ONLY");
+	}
+
+	@Test
+	void 다음_페이지는_범용_조건_없이_keyset_조건만_붙는다() {
+		MenuQuery query = MenuQuery.of("kr", "hot", null, null, 120L, null, 20);
+		BoundSql bound = bound(query);
+
+		assertThat(bound.getSql()).isEqualTo("SELECT ID, RESTAURANT, NAME, PRICE, TYPE, TASTE, VERSION FROM MENU"
+				+ " WHERE TYPE IN (?, ?, ?) AND TASTE IN (?, ?) AND ID > ? ORDER BY ID FETCH FIRST ? ROWS ONLY");
+		assertThat(bound.getSql()).doesNotContain("IS NULL").doesNotContain("BETWEEN");
+		assertThat(values(query, bound)).containsExactly("kr", "kr", "kr", "hot", "hot", 120L, 20);
+	}
+
+	@Test
+	void 가격_정렬_다음_페이지는_가격_범위로_인덱스를_찾는다() {
+		MenuQuery query = MenuQuery.of(null, null, "5000-", "-price", 7L, 9000, 10);
+
+		assertThat(MenuPageStatements.page(query)).isEqualTo("menumapper.selectMenusByPriceDesc_after_price");
+		assertThat(sql(query)).isEqualTo("SELECT ID, RESTAURANT, NAME, PRICE, TYPE, TASTE, VERSION FROM MENU"
+				+ " WHERE PRICE BETWEEN ? AND ? AND PRICE <= ? AND (PRICE < ? OR ID > ?)"
+				+ " ORDER BY PRICE DESC, ID FETCH FIRST ? ROWS ONLY");
+	}
+
+	@Test
+	void 요약_항목만_선택하면_요약_컬럼_문장을_사용한다() {
+		MenuQuery query = MenuQuery.of(null, "hot", null, "price", 7L, 9000, 10)
+				.withFields(EnumSet.of(MenuField.NAME, MenuField.PRICE));
+
+		assertThat(MenuPageStatements.page(query)).isEqualTo("menumapper.selectMenusByPrice_after_taste_summary");
+		assertThat(sql(query)).isEqualTo("SELECT ID, NAME, PRICE FROM MENU"
+				+ " WHERE TASTE IN (?, ?) AND PRICE >= ? AND (PRICE > ? OR ID > ?)"
+				+ " ORDER BY PRICE, ID FETCH FIRST ? ROWS ONLY");
+	}
+
+	@Test
+	void 요약에_없는_항목이_있으면_전체_컬럼_문장을_사용한다() {
+		MenuQuery query = MenuQuery.of(null, null, null, null, null, null, 10)
+				.withFields(EnumSet.of(MenuField.ID, MenuField.TYPE));
+
+		assertThat(MenuPageStatements.page(query)).isEqualTo("menumapper.selectMenusById");
+		assertThat(MenuPageStatements.page(query.withFields(null))).isEqualTo("menumapper.selectMenusById");
+	}
+
+	@Test
+	void 스트리밍은_limit_없이_fetchSize로_조회한다() {
+		MenuQuery query = MenuQuery.all();
+		MappedStatement ms = configuration.getMappedStatement(MenuPageStatements.stream(query));
+
+		assertThat(ms.getFetchSize()).isEqualTo(500);
+		assertThat(ms.getBoundSql(query).getSql())
+				.isEqualTo("SELECT ID, RESTAURANT, NAME, PRICE, TYPE, TASTE, VERSION FROM MENU ORDER BY ID");
+	}
+
+	@Test
+	void 다시_등록해도_기존_문장을_유지한다() {
+		MappedStatement before = configuration.getMappedStatement("menumapper.selectMenusById");
+
+		MenuPageStatements.register(configuration);
+
+		assertThat(configuration.getMappedStatement("menumapper.selectMenusById")).isSameAs(before);
+	}
+
+	private String sql(MenuQuery query) {
+		return bound(query).getSql();
+	}
+
+	private BoundSql bound(MenuQuery query) {
+		return configuration.getMappedStatement(MenuPageStatements.page(query)).getBoundSql(query);
+	}
+
+	private List<Object> values(MenuQuery query, BoundSql bound) {
+		MetaObject meta = configuration.newMetaObject(query);
+		return bound.getParameterMappings().stream()
+				.map(ParameterMapping::getProperty)
+				.map(meta::getValue)
+				.toList();
+	}
+}
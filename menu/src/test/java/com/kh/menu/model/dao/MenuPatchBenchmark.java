@@ -0,0 +1,145 @@
+package com.kh.menu.model.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kh.menu.model.dto.MenuDto.MenuPatch;
+import com.kh.menu.model.dto.MenuDto.MenuPut;
+
+/*
+ * 가격만 바꾸는 수정 1건 비용 비교 : PUT(updateMenu, 5개 컬럼) vs PATCH(patchMenu, PRICE만)
+ *  - 두 문장 모두 매퍼 XML에서 만든 SQL 그대로 실행한다. (autocommit, 1건당 커밋 1회)
+ *  - PUT은 값이 같아도 RESTAURANT, NAME, TASTE를 다시 쓰므로 uq_menu 인덱스 유지 비용과 redo/undo가 더 든다.
+ *    종료 시 세션 redo size(v$mystat)를 1건당 바이트로 출력한다. (조회 권한이 없으면 생략)
+ *  - Oracle이 필요하다. 대상 메뉴 id의 PRICE가 벤치마크 동안 바뀐다.
+ *  - 실행 :
+ *      mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *      java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main MenuPatch \
+ *        -jvmArgsAppend "-Dbench.jdbc.url=jdbc:oracle:thin:@localhost:1521/XEPDB1 -Dbench.jdbc.user=menu -Dbench.jdbc.password=menu -Dbench.menu.id=1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MenuPatchBenchmark {
+	private Connection connection;
+	private MetaObject put;
+	private MetaObject patch;
+	private PreparedStatement putStatement;
+	private PreparedStatement patchStatement;
+	private BoundSql putSql;
+	private BoundSql patchSql;
+	private int price;
+	private long count;
+	private long redoBefore;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException, SQLException {
+		Configuration configuration = new Configuration();
+		String resource = "mapper/menu/menu-mapper.xml";
+		try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource)) {
+			new XMLMapperBuilder(in, configuration, resource, configuration.getSqlFragments()).parse();
+		}
+		connection = DriverManager.getConnection(System.getProperty("bench.jdbc.url"),
+				System.getProperty("bench.jdbc.user"), System.getProperty("bench.jdbc.password"));
+		long id = Long.getLong("bench.menu.id", 1L);
+
+		MenuPut row;
+		try (PreparedStatement ps = connection.prepareStatement(
+				"SELECT RESTAURANT, NAME, PRICE, TYPE, TASTE FROM MENU WHERE ID = ?")) {
+			ps.setLong(1, id);
+			try (ResultSet rs = ps.executeQuery()) {
+				if (!rs.next()) {
+					throw new IllegalStateException("메뉴가 없습니다 : " + id);
+				}
+				row = new MenuPut(id, rs.getString(1), rs.getString(2), rs.getInt(3), rs.getString(4), rs.getString(5));
+			}
+		}
+		price = row.getPrice();
+		MenuPatch priceOnly = new MenuPatch();
+		priceOnly.setId(id);
+		priceOnly.setPrice(price);
+
+		put = configuration.newMetaObject(row);
+		patch = configuration.newMetaObject(priceOnly);
+		putSql = configuration.getMappedStatement("menumapper.updateMenu").getBoundSql(row);
+		patchSql = configuration.getMappedStatement("menumapper.patchMenu").getBoundSql(priceOnly);
+		putStatement = connection.prepareStatement(putSql.getSql());
+		patchStatement = connection.prepareStatement(patchSql.getSql());
+		redoBefore = redoSize();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		long redoAfter = redoSize();
+		if (redoBefore >= 0 && redoAfter >= 0 && count > 0) {
+			System.out.println("redo size/update : " + (redoAfter - redoBefore) / count + " bytes");
+		}
+		putStatement.close();
+		patchStatement.close();
+		connection.close();
+	}
+
+	@Benchmark
+	public int put() throws SQLException {
+		put.setValue("price", nextPrice());
+		return execute(putStatement, putSql, put);
+	}
+
+	@Benchmark
+	public int patchPrice() throws SQLException {
+		patch.setValue("price", nextPrice());
+		return execute(patchStatement, patchSql, patch);
+	}
+
+	// 매번 다른 가격 (같은 값 UPDATE는 일부 redo가 생략될 수 있음)
+	private int nextPrice() {
+		count++;
+		return price + (int) (count & 1);
+	}
+
+	private static int execute(PreparedStatement statement, BoundSql sql, MetaObject param) throws SQLException {
+		int i = 1;
+		for (ParameterMapping mapping : sql.getParameterMappings()) {
+			statement.setObject(i++, param.getValue(mapping.getProperty()));
+		}
+		return statement.executeUpdate();
+	}
+
+	// 현재 세션의 누적 redo size. 조회할 수 없으면 -1
+	private long redoSize() {
+		try (PreparedStatement ps = connection.prepareStatement(
+				"SELECT s.VALUE FROM V$MYSTAT s JOIN V$STATNAME n ON n.STATISTIC# = s.STATISTIC# WHERE n.NAME = 'redo size'");
+				ResultSet rs = ps.executeQuery()) {
+			return rs.next() ? rs.getLong(1) : -1;
+		} catch (SQLException e) {
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package com.kh.menu.model.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kh.menu.model.dto.MenuQuery;
+
+/*
+ * 목록 조회 1건당 파라미터 생성 + SQL 준비(getBoundSql) 비용 비교
+ *  - legacyHashMap : MenuQuery 도입 전. 요청 파라미터 HashMap + <where>/<if> 동적 SQL (OGNL 평가, SQL 조립)
+ *  - menuQuery : 검증된 MenuQuery + 조건 조합별 고정 문장 (RawSqlSource, 바인딩만)
+ *  - DB 왕복은 두 방식이 같으므로 포함하지 않는다.
+ *  - 실행 (-prof gc 로 요청당 할당량 gc.alloc.rate.norm 확인) :
+ *      mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *      java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main MenuQueryBinding -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuQueryBindingBenchmark {
+	private MappedStatement legacy;
+	private Configuration configuration;
+
+	@Setup
+	public void setup() throws IOException {
+		configuration = new Configuration();
+		parse("mapper/menu/menu-mapper.xml");
+		parse("benchmark/legacy-menu-mapper.xml");
+		MenuPageStatements.register(configuration);
+		legacy = configuration.getMappedStatement("legacymapper.selectMenus");
+	}
+
+	private void parse(String resource) throws IOException {
+		try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource)) {
+			new XMLMapperBuilder(in, configuration, resource, configuration.getSqlFragments()).parse();
+		}
+	}
+
+	@Benchmark
+	public BoundSql legacyHashMap() {
+		HashMap<String, Object> param = new HashMap<>();
+		param.put("type", "kr");
+		param.put("taste", "hot");
+		return legacy.getBoundSql(param);
+	}
+
+	@Benchmark
+	public BoundSql menuQuery() {
+		MenuQuery query = MenuQuery.of("kr", "hot", null, null, null, null, null).withLimit(101);
+		return configuration.getMappedStatement(MenuPageStatements.page(query)).getBoundSql(query);
+	}
+}
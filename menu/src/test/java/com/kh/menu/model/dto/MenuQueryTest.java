@@ -0,0 +1,105 @@
+package com.kh.menu.model.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.Test;
+
+class MenuQueryTest {
+
+	@Test
+	void 조건이_없으면_전체_범위() {
+		MenuQuery query = MenuQuery.of(null, "all", " ", null, null, null, null);
+
+		assertThat(query.getTypes()).isNull();
+		assertThat(query.getTastes()).isNull();
+		assertThat(query.hasPriceRange()).isFalse();
+		assertThat(query.getSort()).isEqualTo(MenuQuery.Sort.ID);
+		assertThat(query.getLimit()).isZero();
+		assertThat(query.getTypeCodes()).containsOnlyNulls();
+	}
+
+	@Test
+	void 여러_값은_enum_집합으로_바꾸고_IN_목록은_마지막_값으로_채운다() {
+		MenuQuery query = MenuQuery.of("jp, kr", "hot", "5000-", "price", null, null, 20);
+
+		assertThat(query.getTypes()).isEqualTo(EnumSet.of(MenuType.KR, MenuType.JP));
+		assertThat(query.getTypeCodes()).hasSize(MenuType.values().length).doesNotContainNull();
+		assertThat(query.getTasteCodes()).containsOnly("hot");
+		assertThat(query.getMinPrice()).isEqualTo(5000);
+		assertThat(query.getMaxPrice()).isEqualTo(Integer.MAX_VALUE);
+		assertThat(query.isMultiValued()).isTrue();
+	}
+
+	@Test
+	void id_정렬은_afterPrice를_무시한다() {
+		MenuQuery query = MenuQuery.of(null, null, null, "id", 10L, 5000, null);
+
+		assertThat(query.getAfter()).isEqualTo(10L);
+		assertThat(query.getAfterPrice()).isNull();
+	}
+
+	@Test
+	void 잘못된_값은_IllegalArgumentException() {
+		assertThatThrownBy(() -> MenuQuery.of("us", null, null, null, null, null, null))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> MenuQuery.of(null, null, "5000", null, null, null, null))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> MenuQuery.of(null, null, "a-b", null, null, null, null))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> MenuQuery.of(null, null, null, "name", null, null, null))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> MenuQuery.of(null, null, null, null, null, null, 0))
+				.isInstanceOf(IllegalArgumentException.class);
+		// 가격 정렬의 다음 페이지는 (가격, id) 모두 필요
+		assertThatThrownBy(() -> MenuQuery.of(null, null, null, "price", 10L, null, null))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void limit과_fields만_다른_조건은_캐시_키가_다르다() {
+		MenuQuery query = MenuQuery.of("kr", null, null, null, null, null, null);
+
+		assertThat(query.withLimit(10)).isNotEqualTo(query.withLimit(20));
+		assertThat(query.withFields(EnumSet.of(MenuField.NAME))).isNotEqualTo(query);
+		assertThat(query.withLimit(10)).isEqualTo(MenuQuery.of("kr", null, null, null, null, null, 10));
+	}
+
+	@Test
+	void toParams로_저장한_조건을_fromParams로_그대로_복원한다() {
+		MenuQuery[] queries = {
+				MenuQuery.all(),
+				MenuQuery.of("kr,jp", "hot", "5000-10000", "-price", null, null, 20),
+				MenuQuery.of(null, "mild", "-8000", "price", null, null, null),
+				MenuQuery.of("ch", null, "0-", null, null, null, 5)
+						.withFields(EnumSet.of(MenuField.ID, MenuField.NAME, MenuField.PRICE)) };
+
+		for (MenuQuery query : queries) {
+			MenuQuery restored = MenuQuery.fromParams(query.toParams());
+
+			assertThat(restored).isEqualTo(query);
+			assertThat(restored.getTypeCodes()).isEqualTo(query.getTypeCodes());
+			assertThat(restored.toParams()).isEqualTo(query.toParams());
+		}
+		assertThat(MenuQuery.all().toParams()).isEmpty();
+	}
+
+	@Test
+	void toParams는_첫_페이지_조건만_표현한다() {
+		MenuQuery query = MenuQuery.of("kr", null, null, "price", 10L, 5000, 20);
+
+		assertThat(query.toParams()).isEqualTo("type=kr&sort=price&limit=20");
+		assertThat(MenuQuery.fromParams(query.toParams()).getAfter()).isNull();
+	}
+
+	@Test
+	void 정의되지_않은_파라미터는_IllegalArgumentException() {
+		assertThatThrownBy(() -> MenuQuery.fromParams("type=kr&after=10"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> MenuQuery.fromParams("type")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> MenuQuery.fromParams("limit=ten")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> MenuQuery.fromParams("fields=secret")).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,181 @@
+package com.kh.menu.model.event;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.kh.menu.model.dao.MenuDao;
+import com.kh.menu.model.dto.MenuDto.MenuChange;
+import com.kh.menu.model.dto.MenuDto.MenuResponse;
+
+class MenuChangeDispatcherTest {
+	private MenuDao dao;
+	private MenuChangeListener first;
+	private MenuChangeListener second;
+	private MenuChangeDispatcher dispatcher;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		dao = mock(MenuDao.class);
+		first = mock(MenuChangeListener.class);
+		second = mock(MenuChangeListener.class);
+		ObjectProvider<MenuChangeListener> listeners = mock(ObjectProvider.class);
+		when(listeners.orderedStream()).thenAnswer(invocation -> Stream.of(first, second));
+		when(dao.selectTableVersion()).thenReturn(10L);
+		when(dao.selectChanges(anyLong(), anyInt())).thenReturn(List.of());
+		dispatcher = new MenuChangeDispatcher(dao, listeners);
+		dispatcher.run(null);
+	}
+
+	@Test
+	void 적재_시_읽은_테이블_버전으로_교체한다() {
+		verify(first).endReload(10);
+		verify(second).endReload(10);
+	}
+
+	@Test
+	void 마지막으로_전달한_버전_이후의_변경분과_그_버전을_전달한다() {
+		when(dao.selectChanges(eq(10L), anyInt())).thenReturn(List.of(change(1, 11), deleted(2, 12)));
+
+		dispatcher.onMenuChanged(new MenuChangedEvent(List.of(1L)));
+
+		Map<Long, MenuResponse> expected = new HashMap<>();
+		expected.put(1L, new MenuResponse(1, "식당", "메뉴", 1000, "kr", "mild", 11));
+		expected.put(2L, null);
+		verify(first).menusChanged(expected, 12);
+		verify(second).menusChanged(expected, 12);
+
+		// 다음 통지는 12 이후만 조회한다
+		dispatcher.onMenuChanged(new MenuChangedEvent(List.of(3L)));
+		verify(dao).selectChanges(eq(12L), anyInt());
+	}
+
+	@Test
+	void 최초_적재_전_통지는_전달하지_않는다() {
+		MenuChangeListener listener = mock(MenuChangeListener.class);
+		@SuppressWarnings("unchecked")
+		ObjectProvider<MenuChangeListener> listeners = mock(ObjectProvider.class);
+		when(listeners.orderedStream()).thenAnswer(invocation -> Stream.of(listener));
+		MenuChangeDispatcher notLoaded = new MenuChangeDispatcher(dao, listeners);
+
+		notLoaded.onMenuChanged(new MenuChangedEvent(List.of(1L)));
+
+		verify(listener, never()).menusChanged(anyMap(), anyLong());
+	}
+
+	@Test
+	void 재적재_중에_커밋된_변경은_교체_직후_반영한다() {
+		doAnswer(invocation -> {
+			Consumer<MenuResponse> consumer = invocation.getArgument(1);
+			consumer.accept(new MenuResponse(1, "식당", "메뉴", 1000, "kr", "mild", 10));
+			when(dao.selectChanges(eq(10L), anyInt())).thenReturn(List.of(deleted(1, 11)));
+			return null;
+		}).when(dao).streamMenus(any(), any());
+
+		dispatcher.reload(List.of(first));
+
+		Map<Long, MenuResponse> expected = new HashMap<>();
+		expected.put(1L, null);
+		verify(first, times(2)).endReload(10);
+		verify(first).menusChanged(expected, 11);
+		// 재적재하지 않은 리스너에도 아직 받지 못한 변경분을 전달한다
+		verify(second).menusChanged(expected, 11);
+	}
+
+	@Test
+	void 삭제_기록이_정리되어_변경분을_이어받을_수_없으면_재적재한다() {
+		when(dao.selectPrunedVersion()).thenReturn(20L);
+		when(dao.selectTableVersion()).thenReturn(30L);
+
+		dispatcher.onMenuChanged(new MenuChangedEvent(List.of(1L)));
+		verify(first, never()).menusChanged(anyMap(), anyLong());
+
+		dispatcher.reloadFailed();
+
+		verify(first).endReload(30);
+		verify(second).endReload(30);
+	}
+
+	@Test
+	void 리스너_예외는_요청으로_올리지_않고_다른_리스너에는_전달한다() {
+		when(dao.selectChanges(eq(10L), anyInt())).thenReturn(List.of(change(1, 11)));
+		doThrow(new ArithmeticException("integer overflow")).when(first).menusChanged(anyMap(), anyLong());
+
+		assertThatCode(() -> dispatcher.onMenuChanged(new MenuChangedEvent(List.of(1L))))
+				.doesNotThrowAnyException();
+
+		verify(second).menusChanged(anyMap(), eq(11L));
+	}
+
+	@Test
+	void 실패한_리스너만_전체_재적재한다() {
+		when(dao.selectChanges(eq(10L), anyInt())).thenReturn(List.of(change(1, 11)));
+		doThrow(new ArithmeticException("integer overflow")).when(first).menusChanged(anyMap(), anyLong());
+		dispatcher.onMenuChanged(new MenuChangedEvent(List.of(1L)));
+
+		dispatcher.reloadFailed();
+
+		verify(first, times(2)).beginReload();
+		verify(first, times(2)).endReload(10);
+		verify(second, times(1)).beginReload();
+	}
+
+	@Test
+	void 변경분_조회에_실패하면_모든_리스너를_재적재한다() {
+		when(dao.selectChanges(anyLong(), anyInt())).thenThrow(new DataAccessResourceFailureException("db down"));
+
+		assertThatCode(() -> dispatcher.onMenuChanged(new MenuChangedEvent(List.of(1L))))
+				.doesNotThrowAnyException();
+		verify(first, never()).menusChanged(anyMap(), anyLong());
+
+		doReturn(List.of()).when(dao).selectChanges(anyLong(), anyInt());
+		dispatcher.reloadFailed();
+
+		verify(first, times(2)).beginReload();
+		verify(second, times(2)).beginReload();
+	}
+
+	@Test
+	void 재적재가_다시_실패하면_다음_주기에_재시도한다() {
+		when(dao.selectChanges(eq(10L), anyInt())).thenReturn(List.of(change(1, 11)));
+		doThrow(new ArithmeticException("integer overflow")).when(first).menusChanged(anyMap(), anyLong());
+		dispatcher.onMenuChanged(new MenuChangedEvent(List.of(1L)));
+		doThrow(new IllegalStateException("reload failed")).when(first).beginReload();
+
+		dispatcher.reloadFailed();
+		dispatcher.reloadFailed();
+
+		verify(first, times(3)).beginReload();
+	}
+
+	private static MenuChange change(long id, long version) {
+		return new MenuChange(id, false, "식당", "메뉴", 1000, "kr", "mild", version);
+	}
+
+	private static MenuChange deleted(long id, long version) {
+		return new MenuChange(id, true, null, null, null, null, null, version);
+	}
+}
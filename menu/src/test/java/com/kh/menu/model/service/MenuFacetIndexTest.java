@@ -0,0 +1,116 @@
+package com.kh.menu.model.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.kh.menu.model.dto.MenuDto.MenuFacets;
+import com.kh.menu.model.dto.MenuDto.MenuResponse;
+import com.kh.menu.model.dto.MenuQuery;
+
+class MenuFacetIndexTest {
+	private final MenuFacetIndex index = new MenuFacetIndex(5000);
+
+	@Test
+	void 등록_수정_삭제를_반영한_건수를_계산한다() {
+		load(row(1, 3000, "kr", "mild"), row(2, 7000, "kr", "hot"), row(3, 12000, "jp", "hot"));
+
+		Map<Long, MenuResponse> changes = new HashMap<>();
+		changes.put(2L, row(2, 4000, "ch", "hot")); // 수정 : 타입과 가격구간이 바뀜
+		changes.put(3L, null); // 삭제
+		changes.put(4L, row(4, 9000, "jp", "mild")); // 등록
+		index.menusChanged(changes, 7);
+
+		MenuFacets all = index.facets(query(null, null, null, null));
+		assertThat(all.getTotal()).isEqualTo(3);
+		assertThat(all.getType()).containsEntry("kr", 1L).containsEntry("ch", 1L).containsEntry("jp", 1L);
+		assertThat(all.getTaste()).containsEntry("mild", 2L).containsEntry("hot", 1L);
+		assertThat(all.getPrice()).containsOnly(Map.entry("0-4999", 2L), Map.entry("5000-9999", 1L));
+		assertThat(index.version()).isEqualTo(7);
+
+		// 자기 조건은 빼고 센다 : type=kr이어도 type별 건수는 다른 조건(taste=mild)만 적용
+		MenuFacets filtered = index.facets(query("kr", "mild", null, null));
+		assertThat(filtered.getTotal()).isEqualTo(1);
+		assertThat(filtered.getType()).containsEntry("kr", 1L).containsEntry("ch", 0L).containsEntry("jp", 1L);
+		assertThat(filtered.getTaste()).containsEntry("mild", 1L).containsEntry("hot", 0L);
+	}
+
+	@Test
+	void 가격_범위는_구간_경계에_걸친_메뉴도_가격으로_비교한다() {
+		load(row(1, 4999, "kr", "mild"), row(2, 5000, "kr", "mild"), row(3, 9999, "kr", "mild"), row(4, 10000, "kr", "mild"));
+
+		assertThat(index.select(query(null, null, "4999-9999", null), 10).getIds()).containsExactly(1L, 2L, 3L);
+		assertThat(index.select(query(null, null, "5001-10000", null), 10).getIds()).containsExactly(3L, 4L);
+	}
+
+	@Test
+	void after_다음_id부터_페이지를_나눈다() {
+		MenuResponse[] rows = new MenuResponse[20];
+		for (int i = 0; i < rows.length; i++) {
+			rows[i] = row(i + 1, 1000, i % 2 == 0 ? "kr" : "jp", "hot");
+		}
+		load(rows);
+
+		assertThat(index.select(query("kr,ch", null, null, null), 3).getIds()).containsExactly(1L, 3L, 5L);
+		assertThat(index.select(query("kr,ch", null, null, 5L), 3).getIds()).containsExactly(7L, 9L, 11L);
+		assertThat(index.select(query("kr,ch", null, null, 6L), 3).getIds()).containsExactly(7L, 9L, 11L);
+		assertThat(index.select(query("kr,ch", null, null, 19L), 3).getIds()).isEmpty();
+		assertThat(index.select(query("kr,ch", null, null, Long.MAX_VALUE), 3).getIds()).isEmpty();
+	}
+
+	// 음수 after는 unsigned 비교로 모든 id를 건너뛰지 않고 첫 페이지 (DB 조회의 ID > after와 같게)
+	@Test
+	void 음수_after는_첫_페이지() {
+		load(row(1, 1000, "kr", "hot"), row(2, 1000, "jp", "hot"));
+
+		assertThat(index.select(query("kr,jp", null, null, -1L), 10).getIds()).containsExactly(1L, 2L);
+		assertThat(index.select(query("kr,jp", null, null, Long.MIN_VALUE), 10).getIds()).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void int_범위를_벗어난_id가_생기면_인덱스를_쓰지_않는다() {
+		load(row(1, 1000, "kr", "hot"));
+		assertThat(index.isIdOutOfRange()).isFalse();
+
+		index.menusChanged(Map.of((long) Integer.MAX_VALUE + 1, row((long) Integer.MAX_VALUE + 1, 1000, "kr", "hot")), 2);
+
+		assertThat(index.isIdOutOfRange()).isTrue();
+		assertThatThrownBy(() -> index.select(query("kr,jp", null, null, null), 10))
+				.isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> index.facets(query(null, null, null, null)))
+				.isInstanceOf(IllegalStateException.class);
+
+		// 다음 재적재 때 범위 안의 id만 있으면 다시 사용
+		load(row(1, 1000, "kr", "hot"));
+		assertThat(index.isIdOutOfRange()).isFalse();
+		assertThat(index.select(query("kr,jp", null, null, null), 10).getIds()).containsExactly(1L);
+	}
+
+	@Test
+	void 적재_전에는_IllegalStateException() {
+		assertThat(index.isLoaded()).isFalse();
+		assertThatThrownBy(() -> index.select(query("kr,jp", null, null, null), 10))
+				.isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(index::version).isInstanceOf(IllegalStateException.class);
+	}
+
+	private void load(MenuResponse... rows) {
+		index.beginReload();
+		for (MenuResponse row : rows) {
+			index.reloadRow(row);
+		}
+		index.endReload(1);
+	}
+
+	private static MenuQuery query(String type, String taste, String price, Long after) {
+		return MenuQuery.of(type, taste, price, null, after, null, null);
+	}
+
+	private static MenuResponse row(long id, int price, String type, String taste) {
+		return new MenuResponse(id, "식당" + id, "메뉴" + id, price, type, taste, 0);
+	}
+}
@@ -0,0 +1,47 @@
+package com.kh.menu.model.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kh.menu.model.dto.MenuDto.MenuPage;
+import com.kh.menu.model.dto.MenuDto.MenuResponse;
+import com.kh.menu.model.dto.MenuQuery;
+
+class MenuHotKeysTest {
+	@TempDir
+	Path dir;
+
+	// 없는 메뉴나 캐시되지 않는 목록은 매 회차 DB로 가므로 첫 회차만 조회한다
+	@Test
+	void 캐시에_올라간_키만_반복해서_예열한다() throws Exception {
+		Path file = dir.resolve("hotkeys.tsv");
+		Files.writeString(file, "menu\t1\t10\nmenu\t2\t5\nlist\ttype=kr\t3\nlist\ttype=jp\t2\n");
+		MenuQuery cachedQuery = MenuQuery.fromParams("type=kr");
+		MenuQuery uncachedQuery = MenuQuery.fromParams("type=jp");
+		MenuService menuService = mock(MenuService.class);
+		when(menuService.selectMenusByIds(anyList())).thenReturn(List.of());
+		when(menuService.selectMenu(1)).thenReturn(new MenuResponse(1, "식당", "메뉴", 1000, "kr", "mild", 0));
+		when(menuService.selectMenus(any())).thenReturn(new MenuPage(List.of(), null, null, 0));
+		when(menuService.isMenuCached(1)).thenReturn(true);
+		when(menuService.isListCached(cachedQuery)).thenReturn(true);
+
+		new MenuHotKeys(menuService, new ObjectMapper(), file.toString(), 100, 64, 5).run(null);
+
+		verify(menuService, times(5)).selectMenu(1);
+		verify(menuService, times(1)).selectMenu(2);
+		verify(menuService, times(5)).selectMenus(cachedQuery);
+		verify(menuService, times(1)).selectMenus(uncachedQuery);
+	}
+}
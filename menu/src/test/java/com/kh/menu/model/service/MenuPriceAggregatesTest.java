@@ -0,0 +1,164 @@
+package com.kh.menu.model.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.kh.menu.model.dto.MenuDto.MenuPriceStats;
+import com.kh.menu.model.dto.MenuDto.MenuResponse;
+
+class MenuPriceAggregatesTest {
+	private static final String[] TYPES = { "kr", "jp", "ch" };
+	private static final String[] TASTES = { "hot", "mild" };
+	private static final String[] RESTAURANTS = { "a", "b", "c", "d" };
+
+	@Test
+	void 적재_전에는_IllegalStateException() {
+		MenuPriceAggregates aggregates = new MenuPriceAggregates(3);
+
+		assertThatThrownBy(aggregates::stats).isInstanceOf(IllegalStateException.class);
+		aggregates.menusChanged(Map.of(1L, menu(1, "a", 1000, "kr", "hot")), 0); // 적재 전 변경은 무시
+		assertThatThrownBy(aggregates::restaurantStats).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void 최저가를_삭제하면_다음_최저가로_바뀐다() {
+		MenuPriceAggregates aggregates = load(new MenuPriceAggregates(2),
+				menu(1, "a", 5000, "kr", "hot"), menu(2, "a", 7000, "kr", "hot"), menu(3, "a", 9000, "kr", "hot"));
+
+		aggregates.menusChanged(deleted(1L), 0);
+
+		MenuPriceStats kr = aggregates.stats().getType().get("kr");
+		assertThat(kr.getCount()).isEqualTo(2);
+		assertThat(kr.getSum()).isEqualTo(16000);
+		assertThat(kr.getMin()).isEqualTo(7000);
+		assertThat(kr.getMax()).isEqualTo(9000);
+		assertThat(ids(aggregates.top("type", null, false, 2).get("kr"))).containsExactly(2L, 3L);
+	}
+
+	@Test
+	void 수정하면_이전_그룹에서_빼고_새_그룹에_더한다() {
+		MenuPriceAggregates aggregates = load(new MenuPriceAggregates(2),
+				menu(1, "a", 5000, "kr", "hot"), menu(2, "b", 7000, "jp", "hot"));
+
+		aggregates.menusChanged(Map.of(1L, menu(1, "b", 6000, "jp", "mild")), 0);
+
+		assertThat(aggregates.stats().getType()).doesNotContainKey("kr");
+		assertThat(aggregates.restaurantStats()).doesNotContainKey("a");
+		assertThat(aggregates.stats().getType().get("jp").getSum()).isEqualTo(13000);
+		assertThat(aggregates.stats().getTotal().getCount()).isEqualTo(2);
+		assertThat(ids(aggregates.top("restaurant", "b", true, 2).get("b"))).containsExactly(2L, 1L);
+	}
+
+	@Test
+	void 마지막_메뉴를_삭제하면_빈_통계() {
+		MenuPriceAggregates aggregates = load(new MenuPriceAggregates(2), menu(1, "a", 5000, "kr", "hot"));
+
+		aggregates.menusChanged(deleted(1L), 0);
+
+		assertThat(aggregates.stats().getTotal()).isEqualTo(MenuPriceStats.EMPTY);
+		assertThat(aggregates.stats().getType()).isEmpty();
+		assertThat(aggregates.top("taste", null, false, 1)).isEmpty();
+	}
+
+	@Test
+	void 없는_id_삭제는_무시한다() {
+		MenuPriceAggregates aggregates = load(new MenuPriceAggregates(2), menu(1, "a", 5000, "kr", "hot"));
+
+		aggregates.menusChanged(deleted(99L), 0);
+
+		assertThat(aggregates.stats().getTotal().getCount()).isEqualTo(1);
+	}
+
+	@Test
+	void 잘못된_그룹_기준이나_k는_IllegalArgumentException() {
+		MenuPriceAggregates aggregates = load(new MenuPriceAggregates(2), menu(1, "a", 5000, "kr", "hot"));
+
+		assertThatThrownBy(() -> aggregates.top("name", null, false, 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> aggregates.top("type", null, false, 0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> aggregates.top("type", null, false, 3)).isInstanceOf(IllegalArgumentException.class);
+		// 식당별은 식당을 지정해야 한다 (전체 식당 목록은 크기 제한이 없으므로)
+		assertThatThrownBy(() -> aggregates.top("restaurant", null, false, 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> aggregates.top("type", "a", false, 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThat(aggregates.top("restaurant", "없는식당", false, 1)).isEmpty();
+	}
+
+	// 무작위 등록/수정/삭제 후 증분 결과가 전체 재집계와 같은지
+	@Test
+	void 증분_결과는_재집계와_같다() {
+		Random random = new Random(7);
+		Map<Long, MenuResponse> rows = new HashMap<>();
+		for (long id = 1; id <= 200; id++) {
+			rows.put(id, randomMenu(random, id));
+		}
+		MenuPriceAggregates aggregates = load(new MenuPriceAggregates(5), rows.values().toArray(MenuResponse[]::new));
+
+		for (int i = 0; i < 2000; i++) {
+			long id = 1 + random.nextInt(250);
+			Map<Long, MenuResponse> changes = new HashMap<>();
+			if (random.nextInt(4) == 0) {
+				rows.remove(id);
+				changes.put(id, null);
+			} else {
+				MenuResponse row = randomMenu(random, id);
+				rows.put(id, row);
+				changes.put(id, row);
+			}
+			aggregates.menusChanged(changes, 0);
+		}
+
+		MenuPriceAggregates rebuilt = load(new MenuPriceAggregates(5), rows.values().toArray(MenuResponse[]::new));
+		assertThat(aggregates.stats()).isEqualTo(rebuilt.stats());
+		assertThat(aggregates.restaurantStats()).isEqualTo(rebuilt.restaurantStats());
+		for (String per : new String[] { "type", "taste" }) {
+			assertThat(aggregates.top(per, null, false, 5)).isEqualTo(rebuilt.top(per, null, false, 5));
+			assertThat(aggregates.top(per, null, true, 5)).isEqualTo(rebuilt.top(per, null, true, 5));
+		}
+		for (String restaurant : RESTAURANTS) {
+			assertThat(aggregates.top("restaurant", restaurant, false, 5))
+					.isEqualTo(rebuilt.top("restaurant", restaurant, false, 5));
+			assertThat(aggregates.top("restaurant", restaurant, true, 5))
+					.isEqualTo(rebuilt.top("restaurant", restaurant, true, 5));
+		}
+		MenuResponse cheapest = rows.values().stream()
+				.min(Comparator.comparingInt(MenuResponse::getPrice)).orElseThrow();
+		assertThat(aggregates.stats().getTotal().getMin()).isEqualTo(cheapest.getPrice());
+	}
+
+	private static MenuPriceAggregates load(MenuPriceAggregates aggregates, MenuResponse... rows) {
+		aggregates.beginReload();
+		for (MenuResponse row : rows) {
+			aggregates.reloadRow(row);
+		}
+		aggregates.endReload(0);
+		return aggregates;
+	}
+
+	private static Map<Long, MenuResponse> deleted(long id) {
+		Map<Long, MenuResponse> changes = new HashMap<>();
+		changes.put(id, null);
+		return changes;
+	}
+
+	private static MenuResponse menu(long id, String restaurant, int price, String type, String taste) {
+		return new MenuResponse(id, restaurant, "menu" + id, price, type, taste, 0);
+	}
+
+	private static MenuResponse randomMenu(Random random, long id) {
+		return menu(id, RESTAURANTS[random.nextInt(RESTAURANTS.length)], 1000 * (1 + random.nextInt(20)),
+				TYPES[random.nextInt(TYPES.length)], TASTES[random.nextInt(TASTES.length)]);
+	}
+
+	private static List<Long> ids(List<MenuResponse> menus) {
+		return menus.stream().map(MenuResponse::getId).collect(Collectors.toCollection(ArrayList::new));
+	}
+}
@@ -0,0 +1,88 @@
+package com.kh.menu.model.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.kh.menu.model.dto.MenuDto.MenuResponse;
+
+class MenuSearchIndexTest {
+	private final MenuSearchIndex index = new MenuSearchIndex();
+
+	@Test
+	void 한글은_글자와_연속된_두_글자로_색인한다() {
+		assertThat(MenuSearchIndex.tokenize("짬뽕밥", false)).containsExactly("짬", "짬뽕", "뽕", "뽕밥", "밥");
+		// 검색어는 두 글자 이상이면 bigram만 사용
+		assertThat(MenuSearchIndex.tokenize("짬뽕밥", true)).containsExactly("짬뽕", "뽕밥");
+		assertThat(MenuSearchIndex.tokenize("짬 뽕", true)).containsExactly("짬", "뽕");
+	}
+
+	@Test
+	void 전각_반각과_대소문자를_같게_취급한다() {
+		assertThat(MenuSearchIndex.tokenize("ＢＢＱ치킨", false)).isEqualTo(MenuSearchIndex.tokenize("bbq치킨", false));
+		// 반각 가타카나는 전각으로 통일
+		assertThat(MenuSearchIndex.tokenize("ﾗｰﾒﾝ", true)).isEqualTo(MenuSearchIndex.tokenize("ラーメン", true));
+
+		load(row(1, "ＢＢＱ", "황금올리브"), row(2, "교촌", "ﾗｰﾒﾝ"));
+
+		assertThat(index.search("bbq", 0, 10).getIds()).containsExactly(1L);
+		assertThat(index.search("ＢＢＱ", 0, 10).getIds()).containsExactly(1L);
+		assertThat(index.search("ラーメン", 0, 10).getIds()).containsExactly(2L);
+	}
+
+	@Test
+	void 메뉴명과_식당명_모두_일치_메뉴명_식당명_나뉘어_일치_순으로_정렬한다() {
+		load(
+				row(1, "국수나라", "김치볶음밥"), // 두 곳에 나뉘어 일치 (김치 / 국수)
+				row(2, "김치국수", "김치국수"), // 모두 일치
+				row(3, "김치국수", "돈까스"), // 식당명 일치
+				row(4, "분식집", "김치국수"), // 메뉴명 일치
+				row(5, "분식집", "김치국수"),
+				row(6, "분식집", "우동")); // 불일치
+
+		MenuSearchIndex.SearchPage page = index.search("김치 국수", 0, 10);
+		assertThat(page.getIds()).containsExactly(2L, 4L, 5L, 3L, 1L);
+		assertThat(page.getTotal()).isEqualTo(5);
+
+		// offset이 순위 경계에 걸쳐도 순서가 이어진다
+		assertThat(index.search("김치 국수", 2, 2).getIds()).containsExactly(5L, 3L);
+		assertThat(index.search("김치 국수", 4, 10).getIds()).containsExactly(1L);
+		assertThat(index.search("김치 국수", 5, 10).getIds()).isEmpty();
+	}
+
+	@Test
+	void 수정_삭제하면_이전_색인어로_찾지_않는다() {
+		load(row(1, "두리순대국", "순대국"), row(2, "두리순대국", "수육"));
+
+		Map<Long, MenuResponse> changes = new HashMap<>();
+		changes.put(1L, row(1, "두리순대국", "뼈해장국"));
+		changes.put(2L, null);
+		index.menusChanged(changes, 2);
+
+		assertThat(index.search("수육", 0, 10).getIds()).isEmpty();
+		assertThat(index.search("해장", 0, 10).getIds()).containsExactly(1L);
+		// 식당명에만 남았으므로 식당명 일치
+		assertThat(index.search("순대", 0, 10).getIds()).containsExactly(1L);
+	}
+
+	@Test
+	void 적재_전에는_IllegalStateException() {
+		assertThatThrownBy(() -> index.search("국수", 0, 10)).isInstanceOf(IllegalStateException.class);
+	}
+
+	private void load(MenuResponse... rows) {
+		index.beginReload();
+		for (MenuResponse row : rows) {
+			index.reloadRow(row);
+		}
+		index.endReload(1);
+	}
+
+	private static MenuResponse row(long id, String restaurant, String name) {
+		return new MenuResponse(id, restaurant, name, 1000, "kr", "mild", 0);
+	}
+}
@@ -0,0 +1,93 @@
+package com.kh.menu.model.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.kh.menu.model.dto.MenuDto.MenuPage;
+import com.kh.menu.model.dto.MenuDto.MenuResponse;
+import com.kh.menu.model.dto.MenuQuery;
+
+class MenuSnapshotTest {
+	private static final String[] TYPES = { "kr", "ch", "jp" };
+	private static final String[] TASTES = { "mild", "hot" };
+
+	@Test
+	void 변경분을_누적해도_전체를_다시_만든_스냅샷과_같다() {
+		Random random = new Random(42);
+		TreeMap<Long, MenuResponse> table = new TreeMap<>();
+		for (long id = 1; id <= 2_000; id++) {
+			table.put(id, row(random, id, 0));
+		}
+		MenuSnapshot snapshot = build(table, 0);
+
+		for (int version = 1; version <= 500; version++) {
+			Map<Long, MenuResponse> changes = new HashMap<>();
+			int count = 1 + random.nextInt(5);
+			for (int c = 0; c < count; c++) {
+				long id = 1 + random.nextInt(2_500); // 없는 id는 등록
+				MenuResponse row = random.nextInt(4) == 0 ? null : row(random, id, version);
+				changes.put(id, row);
+				if (row == null) {
+					table.remove(id);
+				} else {
+					table.put(id, row);
+				}
+			}
+			snapshot = snapshot.apply(changes, version);
+
+			MenuSnapshot expected = build(table, version);
+			assertThat(snapshot.size()).isEqualTo(table.size());
+			assertThat(snapshot.countDifferences(expected)).isZero();
+		}
+
+		MenuSnapshot expected = build(table, 0);
+		for (long id = 0; id <= 2_600; id++) {
+			assertThat(snapshot.get(id)).isEqualTo(expected.get(id));
+		}
+		MenuQuery query = MenuQuery.of("kr,jp", "hot", "1000-20000", null, null, null, null);
+		Long after = null;
+		do {
+			MenuQuery page = MenuQuery.of("kr,jp", "hot", "1000-20000", null, after, null, null);
+			MenuPage actual = snapshot.select(page, 37);
+			MenuPage wanted = expected.select(page, 37);
+			assertThat(actual.getMenus()).isEqualTo(wanted.getMenus());
+			assertThat(actual.getNextAfter()).isEqualTo(wanted.getNextAfter());
+			after = actual.getNextAfter();
+		} while (after != null);
+		assertThat(snapshot.select(query, 10_000).getMenus())
+				.allMatch(menu -> !menu.getType().equals("ch") && menu.getTaste().equals("hot"));
+	}
+
+	@Test
+	void 수정된_행의_같은_문자열은_기존_인스턴스를_사용한다() {
+		TreeMap<Long, MenuResponse> table = new TreeMap<>();
+		table.put(1L, new MenuResponse(1, new String("두리순대국"), "순대국", 7000, "kr", "mild", 0));
+		MenuSnapshot snapshot = build(table, 0);
+		String restaurant = snapshot.get(1).getRestaurant();
+
+		MenuSnapshot changed = snapshot.apply(
+				Map.of(1L, new MenuResponse(1, new String("두리순대국"), "순대국", 8000, "kr", "mild", 1)), 1);
+
+		assertThat(changed.get(1).getRestaurant()).isSameAs(restaurant);
+		assertThat(changed.get(1).getPrice()).isEqualTo(8000);
+		assertThat(snapshot.get(1).getPrice()).isEqualTo(7000);
+	}
+
+	private static MenuSnapshot build(TreeMap<Long, MenuResponse> table, long version) {
+		MenuSnapshot.Builder builder = new MenuSnapshot.Builder(table.size());
+		table.values().forEach(builder::add);
+		return builder.build(version);
+	}
+
+	private static MenuResponse row(Random random, long id, long version) {
+		return new MenuResponse(id, "식당" + random.nextInt(50), "메뉴" + random.nextInt(200),
+				500 + random.nextInt(40) * 500, TYPES[random.nextInt(TYPES.length)],
+				TASTES[random.nextInt(TASTES.length)], version);
+	}
+}
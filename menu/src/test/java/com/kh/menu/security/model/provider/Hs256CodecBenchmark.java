@@ -0,0 +1,86 @@
+package com.kh.menu.security.model.provider;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+/*
+ * access token 발급/검증 처리량 비교 : Hs256Codec vs jjwt 빌더/파서 (초당 토큰 수)
+ *  - 토큰 형태는 JWTProvider.createAccessToken과 같다. {sub, rol, iat, exp}, HS256
+ *  - 토큰 1개당 할당량은 -prof gc 의 gc.alloc.rate.norm (B/op)
+ *  - 실행 :
+ *      mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *      java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main Hs256Codec -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Hs256CodecBenchmark {
+	private static final String ROLES = "USER,ADMIN";
+
+	private Key key;
+	private Hs256Codec codec;
+	private JwtParser parser;
+	private long issuedAt;
+	private long expiresAt;
+	private String token;
+
+	@Setup
+	public void setup() {
+		byte[] secret = new byte[32];
+		new Random(1).nextBytes(secret);
+		key = Keys.hmacShaKeyFor(secret);
+		codec = new Hs256Codec(key);
+		parser = Jwts.parserBuilder().setSigningKey(key).build();
+		issuedAt = System.currentTimeMillis() / 1000;
+		expiresAt = issuedAt + 60 * 60 * 24;
+		token = codec.encode(1_234_567, ROLES, issuedAt, expiresAt);
+	}
+
+	@Benchmark
+	public String encodeCodec() {
+		return codec.encode(1_234_567, ROLES, issuedAt, expiresAt);
+	}
+
+	@Benchmark
+	public String encodeJjwt() {
+		return Jwts.builder()
+				.setSubject("1234567")
+				.claim(JWTProvider.ROLES_CLAIM, ROLES)
+				.setIssuedAt(new Date(issuedAt * 1000))
+				.setExpiration(new Date(expiresAt * 1000))
+				.signWith(key, SignatureAlgorithm.HS256)
+				.compact();
+	}
+
+	@Benchmark
+	public Object decodeCodec() {
+		return codec.decode(token, System.currentTimeMillis());
+	}
+
+	@Benchmark
+	public Claims decodeJjwt() {
+		return parser.parseClaimsJws(token).getBody();
+	}
+}
@@ -0,0 +1,155 @@
+package com.kh.menu.security.model.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+class Hs256CodecTest {
+	private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+	private static final long NOW = 1_760_000_000_000L;
+
+	private final Key key = Keys.hmacShaKeyFor(bytes(32, 1));
+	private final Hs256Codec codec = new Hs256Codec(key);
+
+	@Test
+	void jjwt_빌더와_바이트_단위로_같은_토큰을_만든다() {
+		Random random = new Random(3);
+		String[] roles = { null, "", "USER", "USER,ADMIN", "A_1,B_2,C_3" };
+		for (int i = 0; i < 2000; i++) {
+			long subject = Math.abs(random.nextLong() % 1_000_000_000_000L);
+			long issuedAt = NOW / 1000 + random.nextInt(1_000_000);
+			long expiresAt = issuedAt + random.nextInt(100_000);
+			String rol = roles[i % roles.length];
+
+			assertThat(codec.encode(subject, rol, issuedAt, expiresAt))
+					.isEqualTo(jjwt(subject, rol, issuedAt, expiresAt));
+		}
+	}
+
+	@Test
+	void jjwt로_만든_토큰을_읽는다() {
+		long issuedAt = NOW / 1000;
+		Hs256Codec.Payload withRoles = codec.decode(jjwt(42, "USER,ADMIN", issuedAt, issuedAt + 1800), NOW);
+		Hs256Codec.Payload withoutRoles = codec.decode(jjwt(7, null, issuedAt, issuedAt + 60), NOW);
+
+		assertThat(withRoles.subject).isEqualTo(42);
+		assertThat(withRoles.roles).isEqualTo("USER,ADMIN");
+		assertThat(withRoles.issuedAt).isEqualTo(issuedAt);
+		assertThat(withRoles.expiresAt).isEqualTo(issuedAt + 1800);
+		assertThat(withoutRoles.subject).isEqualTo(7);
+		assertThat(withoutRoles.roles).isNull();
+	}
+
+	@Test
+	void 페이로드나_서명을_바꾼_토큰은_null() {
+		String token = codec.encode(42, "USER", NOW / 1000, NOW / 1000 + 1800);
+		String[] parts = token.split("\\.");
+		String forged = base64(new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+				.replace("USER", "ADMIN"));
+
+		assertThat(codec.decode(parts[0] + "." + forged + "." + parts[2], NOW)).isNull();
+		assertThat(codec.decode(parts[0] + "." + parts[1] + "." + flip(parts[2], 0), NOW)).isNull();
+		assertThat(codec.decode(token + ".", NOW)).isNull();
+		assertThat(codec.decode(parts[0] + "." + parts[1], NOW)).isNull();
+		assertThat(new Hs256Codec(Keys.hmacShaKeyFor(bytes(32, 2))).decode(token, NOW)).isNull();
+	}
+
+	// 32바이트 서명은 43자이고 마지막 문자의 하위 2비트는 사용되지 않는다
+	@Test
+	void 마지막_Base64_문자의_남는_비트가_0이_아니면_null() {
+		String token = codec.encode(42, "USER", NOW / 1000, NOW / 1000 + 1800);
+		int last = token.length() - 1;
+		char c = token.charAt(last);
+		String nonCanonical = token.substring(0, last) + ALPHABET.charAt(ALPHABET.indexOf(c) ^ 1);
+
+		assertThat(codec.decode(token, NOW)).isNotNull();
+		assertThat(codec.decode(nonCanonical, NOW)).isNull();
+	}
+
+	@Test
+	void 만료_기준은_jjwt와_같다() {
+		long issuedAt = NOW / 1000;
+		long expiresAt = issuedAt + 60;
+		String token = codec.encode(42, null, issuedAt, expiresAt);
+		long exp = expiresAt * 1000;
+
+		assertThat(codec.decode(token, exp)).isNotNull();
+		assertThat(parser(exp).parseClaimsJws(token).getBody().getSubject()).isEqualTo("42");
+		assertThat(codec.decode(token, exp + 1)).isNull();
+		assertThatThrownBy(() -> parser(exp + 1).parseClaimsJws(token)).isInstanceOf(ExpiredJwtException.class);
+	}
+
+	@Test
+	void 다른_형태의_토큰은_null() {
+		long issuedAt = NOW / 1000;
+		String extraClaim = Jwts.builder().setSubject("42").claim("aud", "menu")
+				.setIssuedAt(new Date(issuedAt * 1000)).setExpiration(new Date((issuedAt + 60) * 1000))
+				.signWith(key, SignatureAlgorithm.HS256).compact();
+		String hs512 = Jwts.builder().setSubject("42").setExpiration(new Date((issuedAt + 60) * 1000))
+				.signWith(Keys.hmacShaKeyFor(bytes(64, 1)), SignatureAlgorithm.HS512).compact();
+
+		assertThat(codec.decode(extraClaim, NOW)).isNull();
+		assertThat(codec.decode(hs512, NOW)).isNull();
+		assertThat(codec.decode("", NOW)).isNull();
+		assertThat(codec.decode("a".repeat(600), NOW)).isNull();
+	}
+
+	// 19자리 subject는 코덱이 읽지 않고 JWTProvider가 jjwt로 검증한다
+	@Test
+	void 열아홉자리_subject는_jjwt로_검증한다() {
+		long subject = 1_000_000_000_000_000_000L;
+		String token = codec.encode(subject, "USER", NOW / 1000, NOW / 1000 + 1800);
+		String secret = Base64.getEncoder().encodeToString(key.getEncoded());
+		JWTProvider provider = new JWTProvider(secret, secret, 100, 30);
+
+		assertThat(codec.decode(token, NOW)).isNull();
+		assertThat(parser(NOW).parseClaimsJws(token).getBody().getSubject()).isEqualTo(String.valueOf(subject));
+		String issued = provider.createAccessToken(subject, List.of("ROLE_USER"), 30);
+		assertThat(provider.verify(issued).getUserId()).isEqualTo(subject);
+	}
+
+	private String jjwt(long subject, String rol, long issuedAt, long expiresAt) {
+		JwtBuilder builder = Jwts.builder().setSubject(String.valueOf(subject));
+		if (rol != null) {
+			builder.claim(JWTProvider.ROLES_CLAIM, rol);
+		}
+		return builder.setIssuedAt(new Date(issuedAt * 1000))
+				.setExpiration(new Date(expiresAt * 1000))
+				.signWith(key, SignatureAlgorithm.HS256)
+				.compact();
+	}
+
+	private JwtParser parser(long nowMillis) {
+		return Jwts.parserBuilder().setSigningKey(key).setClock(() -> new Date(nowMillis)).build();
+	}
+
+	private static String base64(String json) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String flip(String value, int index) {
+		char c = value.charAt(index);
+		return value.substring(0, index) + (c == 'A' ? 'B' : 'A') + value.substring(index + 1);
+	}
+
+	private static byte[] bytes(int length, int seed) {
+		byte[] bytes = new byte[length];
+		new Random(seed).nextBytes(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,117 @@
+package com.kh.menu.security.model.provider;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kh.menu.common.cache.BoundedCache;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/*
+ * 인증 필터의 access token 검증 1건 비용 비교 (users명의 토큰을 여러 스레드가 무작위로 검증)
+ *  - verify : JWTProvider.verify. 검증된 토큰 캐시(ConcurrentHashMap, 토큰 SHA-256(TokenDigest) 키) + Hs256Codec
+ *  - digestCache : 이전 방식. 토큰 SHA-256을 키로 BoundedCache(synchronized LRU) 조회
+ *  - codec : 캐시 없이 매번 Hs256Codec으로 서명 검증 + 파싱
+ *  - jjwt : 캐시와 Hs256Codec 도입 전. jjwt 파서로 매번 검증
+ *  - 요청마다 헤더에서 새 문자열을 받으므로 토큰 문자열을 복사해서 전달한다. (String.hashCode 캐시 효과 제외)
+ *    따라서 문자열을 키로 써도 조회마다 토큰 전체를 해시하고 비교한다.
+ *  - 실행 (-prof gc 로 요청당 할당량 확인) :
+ *      mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *      java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main JWTFilter -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class JWTFilterBenchmark {
+	private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	});
+
+	@Param({ "1000" })
+	private int users;
+
+	private JWTProvider provider;
+	private Hs256Codec codec;
+	private JwtParser parser;
+	private BoundedCache<ByteBuffer, Hs256Codec.Payload> digestCache;
+	private String[] tokens;
+
+	@Setup
+	public void setup() {
+		byte[] secret = new byte[32];
+		ThreadLocalRandom.current().nextBytes(secret);
+		String base64 = Base64.getEncoder().encodeToString(secret);
+		Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64));
+		provider = new JWTProvider(base64, base64, 10000, 30);
+		codec = new Hs256Codec(key);
+		parser = Jwts.parserBuilder().setSigningKey(key).build();
+		digestCache = new BoundedCache<>(10000, 1800 * 1000);
+		tokens = new String[users];
+		for (int i = 0; i < users; i++) {
+			tokens[i] = provider.createAccessToken(1_000_000 + i, List.of("ROLE_USER"), 30);
+		}
+	}
+
+	@Benchmark
+	public Object verify() {
+		return provider.verify(token());
+	}
+
+	@Benchmark
+	public Object digestCache() {
+		String token = token();
+		ByteBuffer digest = ByteBuffer.wrap(SHA256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+		Hs256Codec.Payload payload = digestCache.get(digest);
+		if (payload == null) {
+			payload = codec.decode(token, System.currentTimeMillis());
+			digestCache.put(digest, payload);
+		}
+		return payload;
+	}
+
+	@Benchmark
+	public Object codec() {
+		return codec.decode(token(), System.currentTimeMillis());
+	}
+
+	@Benchmark
+	public Claims jjwt() {
+		return parser.parseClaimsJws(token()).getBody();
+	}
+
+	private String token() {
+		return new String(tokens[ThreadLocalRandom.current().nextInt(tokens.length)]);
+	}
+}
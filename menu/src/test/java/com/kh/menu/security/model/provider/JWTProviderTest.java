@@ -0,0 +1,142 @@
+package com.kh.menu.security.model.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+class JWTProviderTest {
+	private final byte[] secret = secret(1);
+	private final JWTProvider jwt = provider(10);
+
+	@Test
+	void rol_클레임으로_권한을_만든다() {
+		String token = jwt.createAccessToken(1, List.of("ROLE_USER", "ROLE_ADMIN", "SCOPE_x"), 30);
+
+		assertThat(names(jwt.verify(token).getAuthorities())).containsExactly("ROLE_USER", "ROLE_ADMIN");
+		assertThat(jwt.getUserId(token)).isEqualTo(1);
+	}
+
+	@Test
+	void rol_클레임이_없는_이전_토큰은_ROLE_USER() {
+		long now = System.currentTimeMillis();
+		String legacy = Jwts.builder().setSubject("5")
+				.setIssuedAt(new Date(now)).setExpiration(new Date(now + 60_000))
+				.signWith(Keys.hmacShaKeyFor(secret), SignatureAlgorithm.HS256).compact();
+
+		assertThat(names(jwt.verify(legacy).getAuthorities())).containsExactly("ROLE_USER");
+	}
+
+	@Test
+	void 권한이_바뀌면_같은_초에_발급된_토큰도_거절한다() {
+		String before = jwt.createAccessToken(1, List.of("ROLE_USER"), 30);
+		String other = jwt.createAccessToken(2, List.of("ROLE_USER"), 30);
+		jwt.verify(before); // 검증된 토큰 캐시에 넣어둔다
+
+		jwt.rolesChanged(1);
+
+		assertThatThrownBy(() -> jwt.verify(before)).isInstanceOf(ExpiredJwtException.class);
+		assertThat(jwt.verify(other).getUserId()).isEqualTo(2);
+		// 변경 직후 (같은 초) 발급된 토큰은 유효
+		String after = jwt.createAccessToken(1, List.of("ROLE_USER", "ROLE_ADMIN"), 30);
+		assertThat(names(jwt.verify(after).getAuthorities())).contains("ROLE_ADMIN");
+	}
+
+	@Test
+	void 같은_초에_두_번_바뀌면_첫_변경_이후_토큰도_거절한다() {
+		jwt.rolesChanged(1);
+		String afterFirst = jwt.createAccessToken(1, List.of("ROLE_ADMIN"), 30);
+		assertThat(jwt.verify(afterFirst).getUserId()).isEqualTo(1);
+
+		jwt.rolesChanged(1);
+
+		assertThatThrownBy(() -> jwt.verify(afterFirst)).isInstanceOf(ExpiredJwtException.class);
+		assertThat(jwt.verify(jwt.createAccessToken(1, List.of("ROLE_USER"), 30)).getUserId()).isEqualTo(1);
+	}
+
+	// refresh : 권한을 읽기 전에 iat를 정하므로, 읽는 도중 권한이 바뀌면 이전 권한 토큰은 거절된다
+	@Test
+	void 권한_조회_도중_변경되면_재발급_토큰도_거절한다() {
+		long issuedAt = jwt.issuedAt(1);
+		jwt.rolesChanged(1);
+		String stale = jwt.createAccessToken(1, List.of("ROLE_USER"), 30, issuedAt);
+
+		assertThatThrownBy(() -> jwt.verify(stale)).isInstanceOf(ExpiredJwtException.class);
+		assertThat(jwt.issuedAt(1)).isGreaterThan(issuedAt);
+	}
+
+	@Test
+	void 다른_키로_서명한_토큰은_JwtException() {
+		String forged = provider(2, secret(2)).createAccessToken(1, List.of("ROLE_ADMIN"), 30);
+
+		assertThatThrownBy(() -> jwt.verify(forged)).isInstanceOf(JwtException.class);
+	}
+
+	@Test
+	void 캐시가_가득_차도_검증_결과는_같다() {
+		for (int i = 0; i < 100; i++) {
+			String token = jwt.createAccessToken(1000 + i, List.of("ROLE_USER"), 30);
+			assertThat(jwt.verify(token).getUserId()).isEqualTo(1000 + i);
+			assertThat(jwt.verify(token).getUserId()).isEqualTo(1000 + i);
+		}
+	}
+
+	// 캐시 키는 토큰 전체의 digest이므로 검증된 토큰의 서명만 옮겨 붙인 토큰은 캐시에서 통과하지 않는다
+	@Test
+	void 검증된_토큰의_서명을_다른_페이로드에_붙이면_JwtException() {
+		String user = jwt.createAccessToken(1, List.of("ROLE_USER"), 30);
+		String admin = jwt.createAccessToken(2, List.of("ROLE_ADMIN"), 30);
+		jwt.verify(user);
+		String forged = admin.substring(0, admin.lastIndexOf('.')) + user.substring(user.lastIndexOf('.'));
+
+		assertThatThrownBy(() -> jwt.verify(forged)).isInstanceOf(JwtException.class);
+	}
+
+	@Test
+	void 같은_토큰은_새_문자열이어도_같은_digest() {
+		String token = jwt.createAccessToken(1, List.of("ROLE_USER"), 30);
+
+		assertThat(TokenDigest.of(new String(token))).isEqualTo(TokenDigest.of(token))
+				.hasSameHashCodeAs(TokenDigest.of(token))
+				.isNotEqualTo(TokenDigest.of(token + "x"));
+	}
+
+	@Test
+	void refresh_token은_별도_키로_검증한다() {
+		String refresh = jwt.createRefreshToken(7, 7);
+
+		assertThat(jwt.parseRefresh(refresh)).isEqualTo(7);
+		assertThatThrownBy(() -> jwt.verify(refresh)).isInstanceOf(JwtException.class);
+	}
+
+	private JWTProvider provider(int cacheSize) {
+		return provider(cacheSize, secret);
+	}
+
+	private JWTProvider provider(int cacheSize, byte[] accessSecret) {
+		return new JWTProvider(Base64.getEncoder().encodeToString(accessSecret),
+				Base64.getEncoder().encodeToString(secret(99)), cacheSize, 30);
+	}
+
+	private static byte[] secret(int seed) {
+		byte[] bytes = new byte[32];
+		new Random(seed).nextBytes(bytes);
+		return bytes;
+	}
+
+	private static List<String> names(List<GrantedAuthority> authorities) {
+		return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+	}
+}
@@ -0,0 +1,129 @@
+package com.kh.menu.security.model.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.kh.menu.security.model.dao.AuthDao;
+import com.kh.menu.security.model.dto.AuthDto.User;
+import com.sun.net.httpserver.HttpServer;
+
+/*
+ * GET /auth/me 프로필 조회 지연시간 비교 (카카오 응답 지연 latencyMs 주입)
+ *  - direct : 캐시 도입 전. 요청마다 토큰 조회 + 카카오 API 호출
+ *  - cached : KakaoProfileCache. ttl(1초)이 지난 항목은 저장된 값으로 바로 응답하고 백그라운드에서 갱신한다.
+ *  - 카카오 API는 JDK HttpServer로 만든 로컬 서버가 대신한다. KakaoService의 kapi.kakao.com 요청을
+ *    RestTemplate 요청 팩토리에서 로컬 주소로 바꿔서 보내므로 KakaoService 코드는 그대로 실행된다.
+ *  - 토큰 조회(AuthDao)는 DB 없이 고정값을 반환한다.
+ *  - SampleTime 모드의 p0.99 값으로 꼬리 지연시간을 비교한다.
+ *  - 실행 :
+ *      mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *      java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main KakaoProfileCache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class KakaoProfileCacheBenchmark {
+	private static final int USERS = 200;
+
+	@Param({ "20", "200" })
+	private int latencyMs;
+
+	private HttpServer server;
+	private ExecutorService serverExecutor;
+	private KakaoService kakaoService;
+	private AuthDao authDao;
+	private KakaoProfileCache cache;
+
+	@Setup
+	public void setup() throws IOException, InterruptedException {
+		serverExecutor = Executors.newCachedThreadPool();
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/v2/user/me", exchange -> {
+			try {
+				Thread.sleep(latencyMs);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			byte[] body = ("{\"id\":1,\"kakao_account\":{\"email\":\"user@kakao.com\","
+					+ "\"profile\":{\"nickname\":\"user\",\"profile_image_url\":\"http://img\"}}}")
+					.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.setExecutor(serverExecutor);
+		server.start();
+
+		String local = "http://127.0.0.1:" + server.getAddress().getPort();
+		ClientHttpRequestFactory direct = new SimpleClientHttpRequestFactory();
+		ClientHttpRequestFactory toFakeServer = (uri, method) ->
+				direct.createRequest(URI.create(local + uri.getRawPath()), method);
+		kakaoService = new KakaoService(new RestTemplate(toFakeServer));
+		authDao = new AuthDao(null, null) {
+			@Override
+			public String getKakaoAccessToken(long userId) {
+				return "token-" + userId;
+			}
+		};
+		cache = new KakaoProfileCache(authDao, kakaoService, USERS * 2, 1, 3600, 1000);
+		// 모든 사용자를 미리 조회해 둔다 (카카오 지연 때문에 여러 스레드로)
+		ExecutorService warmup = Executors.newFixedThreadPool(50);
+		for (long userId = 0; userId < USERS; userId++) {
+			long id = userId;
+			warmup.execute(() -> cache.get(id));
+		}
+		warmup.shutdown();
+		warmup.awaitTermination(1, TimeUnit.MINUTES);
+	}
+
+	@TearDown
+	public void tearDown() {
+		cache.shutdown();
+		server.stop(0);
+		serverExecutor.shutdownNow();
+	}
+
+	@Benchmark
+	public Object direct() {
+		return kakaoService.getUserInfo(authDao.getKakaoAccessToken(nextUser()));
+	}
+
+	@Benchmark
+	public User cached() {
+		return cache.get(nextUser());
+	}
+
+	private static long nextUser() {
+		return ThreadLocalRandom.current().nextInt(USERS);
+	}
+}
@@ -0,0 +1,89 @@
+package com.kh.menu.security.model.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.kh.menu.security.model.dao.AuthDao;
+
+class KakaoProfileCacheTest {
+	private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+	private final CountDownLatch release = new CountDownLatch(1);
+	private volatile boolean blocking;
+	private KakaoProfileCache cache;
+
+	@BeforeEach
+	void setUp() {
+		AuthDao authDao = mock(AuthDao.class);
+		when(authDao.getKakaoAccessToken(anyLong())).thenAnswer(invocation -> "token-" + invocation.getArgument(0));
+		KakaoService kakaoService = mock(KakaoService.class);
+		when(kakaoService.getUserInfo(anyString())).thenAnswer(invocation -> {
+			calls.computeIfAbsent(invocation.getArgument(0), token -> new AtomicInteger()).incrementAndGet();
+			if (blocking && !release.await(5, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("timeout");
+			}
+			return Map.of("kakao_account", Map.of("email", "user@kakao.com", "profile", Map.of("nickname", "user")));
+		});
+		// ttl 0초 : 저장 후 1ms만 지나면 백그라운드 갱신 대상. 갱신 스레드 2개 + 대기열 1칸
+		cache = new KakaoProfileCache(authDao, kakaoService, 100, 0, 3600, 1);
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		cache.shutdown();
+	}
+
+	@Test
+	void 갱신_대기열이_차서_거절된_사용자도_다음_조회에서_다시_갱신한다() throws Exception {
+		for (long userId = 1; userId <= 4; userId++) {
+			cache.get(userId);
+		}
+		Thread.sleep(5);
+		blocking = true;
+
+		// 1, 2는 갱신 스레드에서 대기, 3은 대기열, 4는 거절
+		for (long userId = 1; userId <= 4; userId++) {
+			assertThat(cache.get(userId).getEmail()).isEqualTo("user@kakao.com");
+		}
+		blocking = false;
+		release.countDown();
+		awaitCalls("token-3", 2);
+
+		cache.get(4);
+
+		awaitCalls("token-4", 2);
+	}
+
+	@Test
+	void 종료_후_조회는_저장된_값으로_응답한다() throws Exception {
+		cache.get(1);
+		Thread.sleep(5);
+		cache.shutdown();
+
+		assertThat(cache.get(1).getEmail()).isEqualTo("user@kakao.com");
+		assertThat(calls.get("token-1")).hasValue(1);
+	}
+
+	private void awaitCalls(String token, int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (calls.getOrDefault(token, new AtomicInteger()).get() < expected) {
+			if (System.nanoTime() > deadline) {
+				throw new AssertionError(token + " 갱신 호출 수 : " + calls.get(token));
+			}
+			Thread.sleep(1);
+		}
+	}
+}
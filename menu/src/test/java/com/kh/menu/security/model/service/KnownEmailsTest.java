@@ -0,0 +1,103 @@
+package com.kh.menu.security.model.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.kh.menu.security.model.dao.AuthDao;
+
+class KnownEmailsTest {
+	private AuthDao authDao;
+	private KnownEmails knownEmails;
+
+	@BeforeEach
+	void setUp() {
+		authDao = mock(AuthDao.class);
+		when(authDao.countUsers()).thenReturn(1);
+		knownEmails = new KnownEmails(authDao, 1000, 0.001);
+	}
+
+	@Test
+	void 적재_전에는_모든_이메일을_DB로_보낸다() {
+		assertThat(knownEmails.mightContain("none@kh.com")).isTrue();
+		assertThat(knownEmails.stats().isLoaded()).isFalse();
+	}
+
+	@Test
+	void 적재_후에는_없는_이메일만_false() {
+		streamEmails("user@kh.com");
+
+		knownEmails.rebuild();
+
+		assertThat(knownEmails.mightContain("USER@kh.com")).isTrue();
+		assertThat(knownEmails.mightContain("none@kh.com")).isFalse();
+		assertThat(knownEmails.mightContain("사용자@kh.com")).isTrue(); // ASCII가 아니면 DB로
+	}
+
+	@Test
+	void 적재_전에_추가되고_이메일_조회_후에_커밋된_이메일도_적재_후_true() {
+		// 가입 트랜잭션에서 add 후 커밋이 이메일 조회보다 늦어서 조회 결과에 없는 경우
+		knownEmails.add("late@kh.com");
+		streamEmails("user@kh.com");
+
+		knownEmails.rebuild();
+
+		assertThat(knownEmails.mightContain("late@kh.com")).isTrue();
+		assertThat(knownEmails.mightContain("user@kh.com")).isTrue();
+	}
+
+	@Test
+	void 적재_중에_추가된_이메일도_적재_후_true() {
+		when(authDao.countUsers()).thenAnswer(invocation -> {
+			knownEmails.add("counting@kh.com");
+			return 1;
+		});
+		doAnswer(invocation -> {
+			Consumer<String> consumer = invocation.getArgument(0);
+			consumer.accept("user@kh.com");
+			knownEmails.add("streaming@kh.com");
+			return null;
+		}).when(authDao).streamEmails(any());
+
+		knownEmails.rebuild();
+
+		assertThat(knownEmails.mightContain("counting@kh.com")).isTrue();
+		assertThat(knownEmails.mightContain("streaming@kh.com")).isTrue();
+		assertThat(knownEmails.mightContain("none@kh.com")).isFalse();
+	}
+
+	@Test
+	void 적재에_실패하면_DB로_보내고_다음_적재에서_추가된_이메일을_기록한다() {
+		when(authDao.countUsers()).thenThrow(new DataAccessResourceFailureException("db down")).thenReturn(1);
+		knownEmails.add("before@kh.com");
+
+		knownEmails.rebuild();
+
+		assertThat(knownEmails.mightContain("none@kh.com")).isTrue();
+		knownEmails.add("after@kh.com");
+		streamEmails();
+
+		knownEmails.rebuild();
+
+		assertThat(knownEmails.mightContain("before@kh.com")).isTrue();
+		assertThat(knownEmails.mightContain("after@kh.com")).isTrue();
+		assertThat(knownEmails.mightContain("none@kh.com")).isFalse();
+	}
+
+	private void streamEmails(String... emails) {
+		doAnswer(invocation -> {
+			Consumer<String> consumer = invocation.getArgument(0);
+			List.of(emails).forEach(consumer);
+			return null;
+		}).when(authDao).streamEmails(any());
+	}
+}